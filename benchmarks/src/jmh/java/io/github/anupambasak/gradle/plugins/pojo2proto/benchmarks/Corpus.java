@@ -0,0 +1,168 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Synthetic sources shaped like the DTOs in test-pojo-to-proto: every group of five files holds a
+// PersonPojo-, MapPojo- and TimePojo-like class, a Conts-like interface with a nested enum and a top-level enum
+final class Corpus {
+
+    private static final int FILES_PER_GROUP = 5;
+    private static final int GROUPS_PER_PACKAGE = 200;
+
+    private Corpus() {
+    }
+
+    static List<File> generate(Path root, int size) throws IOException {
+        List<File> files = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int group = i / FILES_PER_GROUP;
+            String packageName = "bench.g" + (group / GROUPS_PER_PACKAGE);
+            String className;
+            String source;
+            switch (i % FILES_PER_GROUP) {
+                case 0:
+                    className = "PersonPojo" + group;
+                    source = person(packageName, group);
+                    break;
+                case 1:
+                    className = "MapPojo" + group;
+                    source = map(packageName, group);
+                    break;
+                case 2:
+                    className = "TimePojo" + group;
+                    source = time(packageName, group);
+                    break;
+                case 3:
+                    className = "Conts" + group;
+                    source = conts(packageName, group);
+                    break;
+                default:
+                    className = "TestEnum" + group;
+                    source = testEnum(packageName, group);
+                    break;
+            }
+            Path file = root.resolve(packageName.replace('.', File.separatorChar)).resolve(className + ".java");
+            Files.createDirectories(file.getParent());
+            Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+            files.add(file.toFile());
+        }
+        return files;
+    }
+
+    private static String person(String packageName, int group) {
+        return "package " + packageName + ";\n\n"
+                + "import java.time.Instant;\n"
+                + "import java.time.LocalDateTime;\n"
+                + "import java.util.List;\n\n"
+                + "public class PersonPojo" + group + " {\n"
+                + "    private String name;\n"
+                + "    private int age;\n"
+                + "    private MapPojo" + group + " address;\n"
+                + "    private List<MapPojo" + group + "> previousAddresses;\n"
+                + "    private Instant createdAt;\n"
+                + "    private LocalDateTime dob;\n"
+                + "    private Conts" + group + ".b berthType;\n"
+                + "    private TestEnum" + group + " status;\n"
+                + "}\n";
+    }
+
+    private static String map(String packageName, int group) {
+        return "package " + packageName + ";\n\n"
+                + "import java.util.Map;\n\n"
+                + "public class MapPojo" + group + " {\n"
+                + "    private Map<String, Integer> simpleMap;\n"
+                + "    private Map<String, TimePojo" + group + "> complexMap;\n"
+                + "    private Map<String, Map<String, Long>> nestedMap;\n"
+                + "}\n";
+    }
+
+    private static String time(String packageName, int group) {
+        return "package " + packageName + ";\n\n"
+                + "import java.time.Duration;\n"
+                + "import java.time.Instant;\n"
+                + "import java.time.LocalDate;\n"
+                + "import java.time.LocalDateTime;\n"
+                + "import java.time.LocalTime;\n"
+                + "import java.time.Period;\n"
+                + "import java.time.ZonedDateTime;\n"
+                + "import java.util.List;\n\n"
+                + "public class TimePojo" + group + " {\n"
+                + "    private Instant instant;\n"
+                + "    private ZonedDateTime zonedDateTime;\n"
+                + "    private LocalDateTime localDateTime;\n"
+                + "    private LocalDate localDate;\n"
+                + "    private LocalTime localTime;\n"
+                + "    private Duration duration;\n"
+                + "    private Period period;\n"
+                + "    private List<Instant> instants;\n"
+                + "    private List<Duration> durations;\n"
+                + "}\n";
+    }
+
+    private static String conts(String packageName, int group) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("package ").append(packageName).append(";\n\n")
+                .append("import java.util.HashMap;\n\n")
+                .append("public interface Conts").append(group).append(" {\n")
+                .append("    enum b {\n");
+        String[] codes = {"LB", "MB", "UB", "SL", "SU", "WS", "AS", "CB", "CP", "HP", "SM", "S", "ST"};
+        for (int i = 0; i < codes.length; i++) {
+            builder.append("        ").append((char) ('c' + i)).append("(\"").append(codes[i]).append("\", ").append(i).append(")")
+                    .append(i == codes.length - 1 ? ";\n" : ",\n");
+        }
+        builder.append("        private static final HashMap<String, b> p = new HashMap<>();\n")
+                .append("        private final String u;\n")
+                .append("        private final Integer t;\n")
+                .append("        b(String u, Integer t) {\n")
+                .append("            this.u = u;\n")
+                .append("            this.t = t;\n")
+                .append("        }\n")
+                .append("        public String ab() { return u; }\n")
+                .append("    }\n")
+                .append("}\n");
+        return builder.toString();
+    }
+
+    private static String testEnum(String packageName, int group) {
+        return "package " + packageName + ";\n\n"
+                + "public enum TestEnum" + group + " {\n"
+                + "    ACTIVE,\n"
+                + "    INACTIVE,\n"
+                + "    PENDING\n"
+                + "}\n";
+    }
+
+    static void delete(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (var paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
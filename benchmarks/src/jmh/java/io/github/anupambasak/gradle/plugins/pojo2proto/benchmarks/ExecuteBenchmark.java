@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto.benchmarks;
+
+import io.github.anupambasak.gradle.plugins.pojo2proto.GradlePojoToProtoPlugin;
+import io.github.anupambasak.gradle.plugins.pojo2proto.PojoToProtoExtension;
+import io.github.anupambasak.gradle.plugins.pojo2proto.PojoToProtoTask;
+import org.gradle.api.Action;
+import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Runs the pojoToProto task action against a ProjectBuilder project; outputs and the dependency
+// graph are cleared before every invocation so each one is a full, non-incremental build
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExecuteBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int corpusSize;
+
+    @Param({"false", "true"})
+    public boolean singleFile;
+
+    private Path workDir;
+    private Path destinationDir;
+    private Task task;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("pojo2proto-execute");
+        Path sourceDir = workDir.resolve("src");
+        destinationDir = workDir.resolve("proto");
+        Corpus.generate(sourceDir, corpusSize);
+
+        Project project = ProjectBuilder.builder().withProjectDir(workDir.resolve("project").toFile()).build();
+        project.setGroup("bench");
+        project.getPluginManager().apply(GradlePojoToProtoPlugin.class);
+        PojoToProtoExtension extension = project.getExtensions().getByType(PojoToProtoExtension.class);
+        extension.getSource().from(sourceDir.toFile());
+        extension.getDestination().set(destinationDir.toFile());
+        extension.getPackageName().set("bench.proto");
+        extension.getSingleFile().set(singleFile);
+        task = project.getTasks().getByName("pojoToProto");
+    }
+
+    @Setup(Level.Invocation)
+    public void clean() throws IOException {
+        Corpus.delete(destinationDir);
+        Files.createDirectories(destinationDir);
+        Files.deleteIfExists(((PojoToProtoTask) task).getDependencyGraphFile().get().getAsFile().toPath());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Corpus.delete(workDir);
+    }
+
+    @Benchmark
+    public void execute() {
+        for (Action<? super Task> action : task.getActions()) {
+            action.execute(task);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto.benchmarks;
+
+import io.github.anupambasak.gradle.plugins.pojo2proto.DependencyGraph;
+import io.github.anupambasak.gradle.plugins.pojo2proto.ProtoFileGenerator;
+import io.github.anupambasak.gradle.plugins.pojo2proto.ProtoGenerator;
+import io.github.anupambasak.gradle.plugins.pojo2proto.SourceSchema;
+import io.github.anupambasak.gradle.plugins.pojo2proto.SymbolScanner;
+import io.github.anupambasak.gradle.plugins.pojo2proto.SymbolTable;
+import org.gradle.api.logging.Logging;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Each invocation covers the whole corpus, so single-shot timing reports the cost of one build
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PipelineBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int corpusSize;
+
+    private Path sourceDir;
+    private List<File> javaFiles;
+    private List<SourceSchema> schemas;
+    private List<SourceSchema> messageSchemas;
+    private SymbolTable symbolTable;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        sourceDir = Files.createTempDirectory("pojo2proto-corpus");
+        javaFiles = Corpus.generate(sourceDir, corpusSize);
+
+        ProtoFileGenerator generator = newFileGenerator();
+        DependencyGraph graph = new DependencyGraph();
+        schemas = new ArrayList<>(javaFiles.size());
+        messageSchemas = new ArrayList<>();
+        for (File javaFile : javaFiles) {
+            SourceSchema schema = generator.parse(javaFile);
+            schemas.add(schema);
+            graph.put(javaFile.getAbsolutePath(), generator.scan(schema));
+            if (schema.isMessageType()) {
+                messageSchemas.add(schema);
+            }
+        }
+        symbolTable = graph.buildSymbolTable();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Corpus.delete(sourceDir);
+    }
+
+    private ProtoFileGenerator newFileGenerator() {
+        return new ProtoFileGenerator(Logging.getLogger(PipelineBenchmark.class), sourceDir.toFile(), "bench.proto");
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        ProtoFileGenerator generator = newFileGenerator();
+        for (File javaFile : javaFiles) {
+            blackhole.consume(generator.parse(javaFile));
+        }
+    }
+
+    @Benchmark
+    public void scanSymbols(Blackhole blackhole) {
+        SymbolScanner scanner = new SymbolScanner(Logging.getLogger(PipelineBenchmark.class));
+        for (File javaFile : javaFiles) {
+            blackhole.consume(scanner.scan(javaFile));
+        }
+    }
+
+    // A fresh ProtoGenerator per invocation so the type-mapping memo is measured as it is in one task run
+    @Benchmark
+    public void getImports(Blackhole blackhole) {
+        ProtoGenerator protoGenerator = new ProtoGenerator();
+        for (SourceSchema schema : schemas) {
+            blackhole.consume(protoGenerator.getImports(schema, symbolTable));
+        }
+    }
+
+    @Benchmark
+    public void generateMessageWithNestedEnums(Blackhole blackhole) {
+        ProtoGenerator protoGenerator = new ProtoGenerator();
+        for (SourceSchema schema : messageSchemas) {
+            blackhole.consume(protoGenerator.generateMessageWithNestedEnums(schema, symbolTable));
+        }
+    }
+
+    @Benchmark
+    public String generateMessages() {
+        return new ProtoGenerator().generateMessages(schemas, symbolTable);
+    }
+}
@@ -0,0 +1,463 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Reads only the parts of a class file the generator needs: names, access flags, field descriptors,
+// signatures and annotations and the InnerClasses and PermittedSubclasses attributes. Classes are never loaded, and constant pool strings are only
+// decoded when they are looked up.
+final class ClassFileReader {
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_PRIVATE = 0x0002;
+    static final int ACC_PROTECTED = 0x0004;
+    static final int ACC_STATIC = 0x0008;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_VOLATILE = 0x0040;
+    static final int ACC_TRANSIENT = 0x0080;
+    static final int ACC_INTERFACE = 0x0200;
+    static final int ACC_SYNTHETIC = 0x1000;
+    static final int ACC_ANNOTATION = 0x2000;
+    static final int ACC_ENUM = 0x4000;
+    static final int ACC_MODULE = 0x8000;
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private final byte[] bytes;
+    private int[] offsets;
+    private String[] strings;
+    private int position;
+
+    private ClassFileReader(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    static ClassInfo read(byte[] bytes) throws IOException {
+        try {
+            return new ClassFileReader(bytes).readClass();
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Truncated class file", e);
+        }
+    }
+
+    private ClassInfo readClass() throws IOException {
+        if (u4() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        // Minor and major version
+        position += 4;
+        readConstantPool();
+
+        int access = u2();
+        String name = className(u2());
+        String superName = className(u2());
+        int interfaceCount = u2();
+        position += 2 * interfaceCount;
+
+        List<FieldInfo> fields = new ArrayList<>();
+        int fieldCount = u2();
+        for (int i = 0; i < fieldCount; i++) {
+            int fieldAccess = u2();
+            String fieldName = utf8(u2());
+            String descriptor = utf8(u2());
+            String signature = null;
+            List<AnnotationInfo> annotations = new ArrayList<>();
+            int attributeCount = u2();
+            for (int j = 0; j < attributeCount; j++) {
+                String attributeName = utf8(u2());
+                int length = u4();
+                int end = position + length;
+                if ("Signature".equals(attributeName)) {
+                    signature = utf8(u2At(position));
+                } else if ("RuntimeVisibleAnnotations".equals(attributeName) || "RuntimeInvisibleAnnotations".equals(attributeName)) {
+                    int count = u2();
+                    for (int k = 0; k < count; k++) {
+                        annotations.add(readAnnotation());
+                    }
+                }
+                position = end;
+            }
+            fields.add(new FieldInfo(fieldAccess, fieldName, descriptor, signature, annotations));
+        }
+
+        int methodCount = u2();
+        for (int i = 0; i < methodCount; i++) {
+            position += 6;
+            skipAttributes();
+        }
+
+        List<InnerClass> innerClasses = new ArrayList<>();
+        List<String> permittedSubclasses = new ArrayList<>();
+        List<AnnotationInfo> annotations = new ArrayList<>();
+        int attributeCount = u2();
+        for (int i = 0; i < attributeCount; i++) {
+            String attributeName = utf8(u2());
+            int length = u4();
+            int end = position + length;
+            if ("InnerClasses".equals(attributeName)) {
+                int count = u2();
+                for (int j = 0; j < count; j++) {
+                    String innerName = className(u2());
+                    String outerName = className(u2());
+                    int simpleNameIndex = u2();
+                    int innerAccess = u2();
+                    innerClasses.add(new InnerClass(innerName, outerName, simpleNameIndex == 0 ? null : utf8(simpleNameIndex), innerAccess));
+                }
+            } else if ("PermittedSubclasses".equals(attributeName)) {
+                int count = u2();
+                for (int j = 0; j < count; j++) {
+                    permittedSubclasses.add(className(u2()));
+                }
+            } else if ("RuntimeVisibleAnnotations".equals(attributeName) || "RuntimeInvisibleAnnotations".equals(attributeName)) {
+                int count = u2();
+                for (int j = 0; j < count; j++) {
+                    annotations.add(readAnnotation());
+                }
+            }
+            position = end;
+        }
+        return new ClassInfo(access, name, superName, fields, innerClasses, permittedSubclasses, annotations);
+    }
+
+    private void readConstantPool() throws IOException {
+        int count = u2();
+        offsets = new int[count];
+        strings = new String[count];
+        for (int i = 1; i < count; i++) {
+            int tag = u1();
+            offsets[i] = position;
+            switch (tag) {
+                case 1: // Utf8
+                    position += 2 + u2At(position);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    position += 4;
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    position += 8;
+                    i++;
+                    break;
+                case 7: // Class
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    position += 2;
+                    break;
+                case 15: // MethodHandle
+                    position += 3;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag + " at index " + i);
+            }
+        }
+    }
+
+    private AnnotationInfo readAnnotation() throws IOException {
+        String descriptor = utf8(u2());
+        String typeName = descriptor.substring(1, descriptor.length() - 1).replace('/', '.').replace('$', '.');
+        Map<String, String> values = new LinkedHashMap<>();
+        int pairCount = u2();
+        for (int i = 0; i < pairCount; i++) {
+            String name = utf8(u2());
+            String value = readElementValue();
+            if (value != null) {
+                values.put(name, value);
+            }
+        }
+        return new AnnotationInfo(typeName, values);
+    }
+
+    // Only constants and enum constants are kept; classes, nested annotations and arrays are skipped
+    private String readElementValue() throws IOException {
+        int tag = u1();
+        switch (tag) {
+            case 'B':
+            case 'I':
+            case 'S':
+                return String.valueOf(u4At(offsets[u2()]));
+            case 'C':
+                return String.valueOf((char) u4At(offsets[u2()]));
+            case 'Z':
+                return String.valueOf(u4At(offsets[u2()]) != 0);
+            case 'F':
+                return String.valueOf(Float.intBitsToFloat(u4At(offsets[u2()])));
+            case 'J':
+                return String.valueOf(u8At(offsets[u2()]));
+            case 'D':
+                return String.valueOf(Double.longBitsToDouble(u8At(offsets[u2()])));
+            case 's':
+                return utf8(u2());
+            case 'e':
+                position += 2;
+                return utf8(u2());
+            case 'c':
+                position += 2;
+                return null;
+            case '@':
+                readAnnotation();
+                return null;
+            case '[':
+                int count = u2();
+                for (int i = 0; i < count; i++) {
+                    readElementValue();
+                }
+                return null;
+            default:
+                throw new IOException("Unknown element value tag " + (char) tag);
+        }
+    }
+
+    private void skipAttributes() {
+        int attributeCount = u2();
+        for (int i = 0; i < attributeCount; i++) {
+            position += 2;
+            int length = u4();
+            position += length;
+        }
+    }
+
+    private String className(int index) {
+        return index == 0 ? null : utf8(u2At(offsets[index]));
+    }
+
+    private String utf8(int index) {
+        String value = strings[index];
+        if (value == null) {
+            value = decodeUtf8(offsets[index] + 2, u2At(offsets[index]));
+            strings[index] = value;
+        }
+        return value;
+    }
+
+    // Class files use modified UTF-8, which the JDK charsets do not decode
+    private String decodeUtf8(int start, int length) {
+        char[] chars = new char[length];
+        int count = 0;
+        int end = start + length;
+        for (int i = start; i < end; ) {
+            int b = bytes[i++] & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[count++] = (char) (((b & 0x1F) << 6) | (bytes[i++] & 0x3F));
+            } else {
+                chars[count++] = (char) (((b & 0x0F) << 12) | ((bytes[i++] & 0x3F) << 6) | (bytes[i++] & 0x3F));
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    private int u1() {
+        return bytes[position++] & 0xFF;
+    }
+
+    private int u2() {
+        int value = u2At(position);
+        position += 2;
+        return value;
+    }
+
+    private int u2At(int offset) {
+        return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+    }
+
+    private int u4At(int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+
+    private long u8At(int offset) {
+        return ((long) u4At(offset) << 32) | (u4At(offset + 4) & 0xFFFFFFFFL);
+    }
+
+    private int u4() {
+        int value = ((bytes[position] & 0xFF) << 24) | ((bytes[position + 1] & 0xFF) << 16)
+                | ((bytes[position + 2] & 0xFF) << 8) | (bytes[position + 3] & 0xFF);
+        position += 4;
+        return value;
+    }
+
+    static final class ClassInfo {
+
+        private final int access;
+        private final String name;
+        private final String superName;
+        private final List<FieldInfo> fields;
+        private final List<InnerClass> innerClasses;
+        private final List<String> permittedSubclasses;
+        private final List<AnnotationInfo> annotations;
+
+        private ClassInfo(int access, String name, String superName, List<FieldInfo> fields, List<InnerClass> innerClasses, List<String> permittedSubclasses,
+                          List<AnnotationInfo> annotations) {
+            this.access = access;
+            this.name = name;
+            this.superName = superName;
+            this.fields = fields;
+            this.innerClasses = innerClasses;
+            this.permittedSubclasses = permittedSubclasses;
+            this.annotations = annotations;
+        }
+
+        int getAccess() {
+            return access;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getSuperName() {
+            return superName;
+        }
+
+        List<FieldInfo> getFields() {
+            return fields;
+        }
+
+        List<InnerClass> getInnerClasses() {
+            return innerClasses;
+        }
+
+        // Internal names, empty unless the class is sealed
+        List<String> getPermittedSubclasses() {
+            return permittedSubclasses;
+        }
+
+        List<AnnotationInfo> getAnnotations() {
+            return annotations;
+        }
+
+        boolean isInterface() {
+            return (access & ACC_INTERFACE) != 0;
+        }
+
+        boolean isEnum() {
+            return (access & ACC_ENUM) != 0;
+        }
+
+        boolean isAnnotation() {
+            return (access & ACC_ANNOTATION) != 0;
+        }
+    }
+
+    static final class FieldInfo {
+
+        private final int access;
+        private final String name;
+        private final String descriptor;
+        private final String signature;
+        private final List<AnnotationInfo> annotations;
+
+        private FieldInfo(int access, String name, String descriptor, String signature, List<AnnotationInfo> annotations) {
+            this.access = access;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.signature = signature;
+            this.annotations = annotations;
+        }
+
+        int getAccess() {
+            return access;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        // The generic signature when there is one, otherwise the erased descriptor
+        String getTypeSignature() {
+            return signature != null ? signature : descriptor;
+        }
+
+        List<AnnotationInfo> getAnnotations() {
+            return annotations;
+        }
+
+        boolean isSynthetic() {
+            return (access & ACC_SYNTHETIC) != 0;
+        }
+
+        boolean isEnumConstant() {
+            return (access & ACC_ENUM) != 0;
+        }
+    }
+
+    static final class AnnotationInfo {
+
+        private final String typeName;
+        private final Map<String, String> values;
+
+        private AnnotationInfo(String typeName, Map<String, String> values) {
+            this.typeName = typeName;
+            this.values = values;
+        }
+
+        String getTypeName() {
+            return typeName;
+        }
+
+        Map<String, String> getValues() {
+            return values;
+        }
+    }
+
+    static final class InnerClass {
+
+        private final String name;
+        private final String outerName;
+        private final String simpleName;
+        private final int access;
+
+        private InnerClass(String name, String outerName, String simpleName, int access) {
+            this.name = name;
+            this.outerName = outerName;
+            this.simpleName = simpleName;
+            this.access = access;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        // Null for local and anonymous classes
+        String getOuterName() {
+            return outerName;
+        }
+
+        String getSimpleName() {
+            return simpleName;
+        }
+
+        int getAccess() {
+            return access;
+        }
+    }
+}
@@ -0,0 +1,452 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Modifier;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.EnumConstantDeclaration;
+import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.expr.MemberValuePair;
+import com.github.javaparser.ast.expr.Name;
+import com.github.javaparser.ast.expr.NormalAnnotationExpr;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.github.javaparser.ast.type.ArrayType;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.PrimitiveType;
+import com.github.javaparser.ast.type.ReferenceType;
+import com.github.javaparser.ast.type.Type;
+import com.github.javaparser.ast.type.WildcardType;
+import org.gradle.api.logging.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// Builds the same AST that parsing a source file yields, from compiled classes in directories and jars,
+// so the generator runs unchanged on classes it has no sources for. Annotations with SOURCE retention are not
+// in class files, so fields lose them.
+public class ClassFileSource {
+
+    private final Logger logger;
+    private final Map<String, LocatedClass> classes = new HashMap<>();
+    private final Map<String, ClassFileReader.InnerClass> innerClasses = new HashMap<>();
+    private final Map<String, ClassFileReader.ClassInfo> topLevelClasses = new HashMap<>();
+    // Annotation types among the classes, by qualified name, and the simple names of the annotations found on fields
+    private final Map<String, String> retentions = new HashMap<>();
+    private final Set<String> fieldAnnotations = new HashSet<>();
+
+    public ClassFileSource(Logger logger) {
+        this.logger = logger;
+    }
+
+    // Returns the locations of the top-level classes, in the same order the task processes source files
+    public List<String> read(Iterable<File> roots) {
+        for (File root : roots) {
+            if (root.isDirectory()) {
+                readDirectory(root.toPath());
+            } else if (root.isFile() && root.getName().endsWith(".class")) {
+                readClass(root.getAbsolutePath(), root.toPath());
+            } else if (root.isFile()) {
+                readJar(root);
+            }
+        }
+
+        List<LocatedClass> located = new ArrayList<>();
+        for (LocatedClass candidate : classes.values()) {
+            if (!innerClasses.containsKey(candidate.info.getName()) && isSupported(candidate.info)) {
+                located.add(candidate);
+            }
+        }
+        located.sort(Comparator.comparing((LocatedClass candidate) -> getSimpleName(candidate.info.getName()) + ".java")
+                .thenComparing(candidate -> candidate.info.getName()));
+
+        List<String> locations = new ArrayList<>();
+        for (LocatedClass candidate : located) {
+            topLevelClasses.put(candidate.location, candidate.info);
+            locations.add(candidate.location);
+        }
+        return locations;
+    }
+
+    // Built on demand, so only the compact class metadata stays in memory between the passes
+    public CompilationUnit getCompilationUnit(String location) {
+        ClassFileReader.ClassInfo info = topLevelClasses.get(location);
+        return info != null ? toCompilationUnit(info) : null;
+    }
+
+    private void readDirectory(Path root) {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.filter(Files::isRegularFile)
+                    .filter(path -> path.toString().endsWith(".class"))
+                    .forEach(path -> readClass(path.toAbsolutePath().toString(), path));
+        } catch (IOException e) {
+            logger.error("Error reading class files from directory: " + root, e);
+        }
+    }
+
+    private void readClass(String location, Path classFile) {
+        try {
+            add(location, Files.readAllBytes(classFile));
+        } catch (IOException e) {
+            logger.error("Error reading class file: " + classFile, e);
+        }
+    }
+
+    private void readJar(File jar) {
+        try (ZipFile zipFile = new ZipFile(jar)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                // Multi-release variants under META-INF/versions would shadow the base classes
+                if (entry.isDirectory() || !entry.getName().endsWith(".class") || entry.getName().startsWith("META-INF/")) {
+                    continue;
+                }
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    add(jar.getAbsolutePath() + "!/" + entry.getName(), in.readAllBytes());
+                } catch (IOException e) {
+                    logger.error("Error reading class file: " + jar.getName() + "!/" + entry.getName(), e);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Error reading jar: " + jar.getAbsolutePath(), e);
+        }
+    }
+
+    private void add(String location, byte[] bytes) throws IOException {
+        ClassFileReader.ClassInfo info = ClassFileReader.read(bytes);
+        classes.putIfAbsent(info.getName(), new LocatedClass(location, info));
+        for (ClassFileReader.InnerClass innerClass : info.getInnerClasses()) {
+            innerClasses.putIfAbsent(innerClass.getName(), innerClass);
+        }
+        if (info.isAnnotation()) {
+            String retention = "CLASS";
+            for (ClassFileReader.AnnotationInfo annotation : info.getAnnotations()) {
+                if (annotation.getTypeName().equals("java.lang.annotation.Retention")) {
+                    retention = annotation.getValues().getOrDefault("value", retention);
+                }
+            }
+            retentions.putIfAbsent(info.getName().replace('/', '.').replace('$', '.'), retention);
+        }
+        for (ClassFileReader.FieldInfo field : info.getFields()) {
+            for (ClassFileReader.AnnotationInfo annotation : field.getAnnotations()) {
+                fieldAnnotations.add(getAnnotationSimpleName(annotation.getTypeName()));
+            }
+        }
+    }
+
+    // Names are matched like the generator matches annotations on fields, by their simple name
+    public boolean isSourceRetained(String annotationName) {
+        String simpleName = getAnnotationSimpleName(annotationName);
+        for (Map.Entry<String, String> retention : retentions.entrySet()) {
+            if (getAnnotationSimpleName(retention.getKey()).equals(simpleName) && retention.getValue().equals("SOURCE")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isUsedOnFields(String annotationName) {
+        return fieldAnnotations.contains(getAnnotationSimpleName(annotationName));
+    }
+
+    private static String getAnnotationSimpleName(String name) {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    // Sources of annotations, records and module or package descriptors never yield messages
+    private boolean isSupported(ClassFileReader.ClassInfo info) {
+        int unsupported = ClassFileReader.ACC_SYNTHETIC | ClassFileReader.ACC_ANNOTATION | ClassFileReader.ACC_MODULE;
+        return (info.getAccess() & unsupported) == 0
+                && !"java/lang/Record".equals(info.getSuperName())
+                && !info.getName().endsWith("/package-info") && !info.getName().equals("package-info");
+    }
+
+    private CompilationUnit toCompilationUnit(ClassFileReader.ClassInfo info) {
+        CompilationUnit cu = new CompilationUnit();
+        String name = info.getName();
+        int slash = name.lastIndexOf('/');
+        if (slash >= 0) {
+            cu.setPackageDeclaration(name.substring(0, slash).replace('/', '.'));
+        }
+        cu.addType(toTypeDeclaration(info, getSimpleName(name)));
+        // The primary type is found through the storage file name, as it is for parsed sources
+        cu.setStorage(Paths.get(name + ".java"));
+        return cu;
+    }
+
+    private TypeDeclaration<?> toTypeDeclaration(ClassFileReader.ClassInfo info, String simpleName) {
+        TypeDeclaration<?> type;
+        if (info.isEnum()) {
+            EnumDeclaration enumDeclaration = new EnumDeclaration(new NodeList<>(), simpleName);
+            for (ClassFileReader.FieldInfo field : info.getFields()) {
+                if (field.isEnumConstant()) {
+                    enumDeclaration.addEntry(new EnumConstantDeclaration(field.getName()));
+                }
+            }
+            type = enumDeclaration;
+        } else {
+            type = new ClassOrInterfaceDeclaration(new NodeList<>(), info.isInterface(), simpleName);
+        }
+
+        Set<String> scope = getEnclosingClasses(info.getName());
+        for (String permittedSubclass : info.getPermittedSubclasses()) {
+            Type permittedType = new SignatureParser("L" + permittedSubclass + ";", scope).parseType();
+            type.asClassOrInterfaceDeclaration().getPermittedTypes().add(permittedType.asClassOrInterfaceType());
+        }
+        for (ClassFileReader.FieldInfo field : info.getFields()) {
+            if (!field.isSynthetic() && !field.isEnumConstant()) {
+                Type fieldType = new SignatureParser(field.getTypeSignature(), scope).parseType();
+                type.addMember(new FieldDeclaration(toModifiers(field.getAccess()), toAnnotations(field.getAnnotations()), new NodeList<>(new VariableDeclarator(fieldType, field.getName()))));
+            }
+        }
+        addMemberTypes(type, info);
+        return type;
+    }
+
+    // Only enums are modeled below the primary type; other member classes, such as Lombok builders, are kept
+    // only as containers of nested enums
+    private void addMemberTypes(TypeDeclaration<?> type, ClassFileReader.ClassInfo info) {
+        for (ClassFileReader.InnerClass innerClass : info.getInnerClasses()) {
+            LocatedClass member = classes.get(innerClass.getName());
+            if (member == null || !info.getName().equals(innerClass.getOuterName()) || innerClass.getSimpleName() == null
+                    || !isSupported(member.info)) {
+                continue;
+            }
+            TypeDeclaration<?> memberType;
+            if (member.info.isEnum()) {
+                memberType = toTypeDeclaration(member.info, innerClass.getSimpleName());
+            } else {
+                memberType = new ClassOrInterfaceDeclaration(new NodeList<>(), member.info.isInterface(), innerClass.getSimpleName());
+                addMemberTypes(memberType, member.info);
+                if (memberType.getMembers().isEmpty()) {
+                    continue;
+                }
+            }
+            memberType.setModifiers(toModifiers(innerClass.getAccess()));
+            type.addMember(memberType);
+        }
+    }
+
+    // Constant annotation values are carried as string literals, which SourceSchema reads like source literals
+    private NodeList<AnnotationExpr> toAnnotations(List<ClassFileReader.AnnotationInfo> annotations) {
+        NodeList<AnnotationExpr> annotationExprs = new NodeList<>();
+        for (ClassFileReader.AnnotationInfo annotation : annotations) {
+            NodeList<MemberValuePair> pairs = new NodeList<>();
+            annotation.getValues().forEach((name, value) -> pairs.add(new MemberValuePair(name, new StringLiteralExpr(value))));
+            Name name = null;
+            for (String identifier : annotation.getTypeName().split("\\.")) {
+                name = new Name(name, identifier);
+            }
+            annotationExprs.add(new NormalAnnotationExpr(name, pairs));
+        }
+        return annotationExprs;
+    }
+
+    private NodeList<Modifier> toModifiers(int access) {
+        NodeList<Modifier> modifiers = new NodeList<>();
+        if ((access & ClassFileReader.ACC_PUBLIC) != 0) {
+            modifiers.add(Modifier.publicModifier());
+        } else if ((access & ClassFileReader.ACC_PROTECTED) != 0) {
+            modifiers.add(Modifier.protectedModifier());
+        } else if ((access & ClassFileReader.ACC_PRIVATE) != 0) {
+            modifiers.add(Modifier.privateModifier());
+        }
+        if ((access & ClassFileReader.ACC_STATIC) != 0) {
+            modifiers.add(Modifier.staticModifier());
+        }
+        if ((access & ClassFileReader.ACC_FINAL) != 0) {
+            modifiers.add(Modifier.finalModifier());
+        }
+        if ((access & ClassFileReader.ACC_TRANSIENT) != 0) {
+            modifiers.add(Modifier.transientModifier());
+        }
+        if ((access & ClassFileReader.ACC_VOLATILE) != 0) {
+            modifiers.add(Modifier.volatileModifier());
+        }
+        return modifiers;
+    }
+
+    private Set<String> getEnclosingClasses(String name) {
+        Set<String> enclosing = new HashSet<>();
+        String current = name;
+        while (current != null && enclosing.add(current)) {
+            ClassFileReader.InnerClass innerClass = innerClasses.get(current);
+            current = innerClass != null ? innerClass.getOuterName() : null;
+        }
+        return enclosing;
+    }
+
+    // Source refers to a nested type by its simple name inside its enclosing types and as Outer.Inner elsewhere
+    private String getSourceName(String name, Set<String> scope) {
+        List<String> names = new ArrayList<>();
+        String current = name;
+        while (current != null) {
+            ClassFileReader.InnerClass innerClass = innerClasses.get(current);
+            if (innerClass == null || innerClass.getOuterName() == null || innerClass.getSimpleName() == null) {
+                names.add(0, getSimpleName(current));
+                break;
+            }
+            names.add(0, innerClass.getSimpleName());
+            if (scope.contains(innerClass.getOuterName()) || scope.contains(current)) {
+                break;
+            }
+            current = innerClass.getOuterName();
+        }
+        return String.join(".", names);
+    }
+
+    private static String getSimpleName(String name) {
+        return name.substring(name.lastIndexOf('/') + 1);
+    }
+
+    private final class SignatureParser {
+
+        private final String signature;
+        private final Set<String> scope;
+        private int position;
+
+        private SignatureParser(String signature, Set<String> scope) {
+            this.signature = signature;
+            this.scope = scope;
+        }
+
+        private Type parseType() {
+            char c = signature.charAt(position++);
+            switch (c) {
+                case 'B':
+                    return PrimitiveType.byteType();
+                case 'C':
+                    return PrimitiveType.charType();
+                case 'D':
+                    return PrimitiveType.doubleType();
+                case 'F':
+                    return PrimitiveType.floatType();
+                case 'I':
+                    return PrimitiveType.intType();
+                case 'J':
+                    return PrimitiveType.longType();
+                case 'S':
+                    return PrimitiveType.shortType();
+                case 'Z':
+                    return PrimitiveType.booleanType();
+                case '[':
+                    return new ArrayType(parseType());
+                case 'T': {
+                    int end = signature.indexOf(';', position);
+                    String typeVariable = signature.substring(position, end);
+                    position = end + 1;
+                    return new ClassOrInterfaceType(null, typeVariable);
+                }
+                case 'L':
+                    return parseClassType();
+                default:
+                    throw new IllegalArgumentException("Unsupported signature: " + signature);
+            }
+        }
+
+        private ClassOrInterfaceType parseClassType() {
+            String name = readIdentifier();
+            NodeList<Type> typeArguments = parseTypeArguments();
+            ClassOrInterfaceType type = toClassType(null, getSourceName(name, scope), typeArguments);
+            // Inner classes of parameterized types continue the signature as Outer<A>.Inner<B>
+            while (signature.charAt(position) == '.') {
+                position++;
+                type = toClassType(type, readIdentifier(), parseTypeArguments());
+            }
+            position++;
+            return type;
+        }
+
+        private ClassOrInterfaceType toClassType(ClassOrInterfaceType scopeType, String dottedName, NodeList<Type> typeArguments) {
+            ClassOrInterfaceType type = scopeType;
+            String[] parts = dottedName.split("\\.");
+            for (String part : parts) {
+                type = new ClassOrInterfaceType(type, part);
+            }
+            if (typeArguments != null) {
+                type.setTypeArguments(typeArguments);
+            }
+            return type;
+        }
+
+        private NodeList<Type> parseTypeArguments() {
+            if (signature.charAt(position) != '<') {
+                return null;
+            }
+            position++;
+            NodeList<Type> typeArguments = new NodeList<>();
+            while (signature.charAt(position) != '>') {
+                char c = signature.charAt(position);
+                if (c == '*') {
+                    position++;
+                    typeArguments.add(new WildcardType());
+                } else if (c == '+') {
+                    position++;
+                    typeArguments.add(new WildcardType((ReferenceType) parseType()));
+                } else if (c == '-') {
+                    position++;
+                    WildcardType wildcardType = new WildcardType();
+                    wildcardType.setSuperType((ReferenceType) parseType());
+                    typeArguments.add(wildcardType);
+                } else {
+                    typeArguments.add(parseType());
+                }
+            }
+            position++;
+            return typeArguments;
+        }
+
+        private String readIdentifier() {
+            int start = position;
+            while ("<.;".indexOf(signature.charAt(position)) < 0) {
+                position++;
+            }
+            return signature.substring(start, position);
+        }
+    }
+
+    private static final class LocatedClass {
+
+        private final String location;
+        private final ClassFileReader.ClassInfo info;
+
+        private LocatedClass(String location, ClassFileReader.ClassInfo info) {
+            this.location = location;
+            this.info = info;
+        }
+    }
+}
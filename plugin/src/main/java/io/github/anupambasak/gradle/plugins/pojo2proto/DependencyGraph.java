@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class DependencyGraph implements Serializable {
+
+    private static final long serialVersionUID = 2L;
+
+    private final Map<String, SourceEntry> entries = new HashMap<>();
+    // Source paths by the top-level type their references name, built on the first lookup after the entries changed.
+    // Only generation adds references, after dependents are looked up.
+    private transient Map<String, Set<String>> dependentsByType;
+
+    public static class SourceEntry implements Serializable {
+
+        private static final long serialVersionUID = 4L;
+
+        private String packageName = "";
+        private final Set<String> types = new TreeSet<>();
+        private final Set<String> messages = new TreeSet<>();
+        private final Set<String> polymorphicMessages = new TreeSet<>();
+        private final Set<String> enums = new TreeSet<>();
+        private final Set<String> references = new TreeSet<>();
+        private final Set<String> outputs = new TreeSet<>();
+        private final Set<String> mappers = new TreeSet<>();
+
+        // The symbols of a parsed source, which the generator completes with its outputs
+        public static SourceEntry of(SourceSchema schema) {
+            SourceEntry entry = new SourceEntry();
+            entry.setPackageName(schema.getPackageName());
+            if (schema.getPrimaryTypeName() != null) {
+                entry.getTypes().add(schema.getPrimaryTypeName());
+            }
+            for (SourceSchema.EnumDefinition enumDefinition : schema.getTopLevelEnums()) {
+                entry.getTypes().add(enumDefinition.getName());
+            }
+            if (schema.isMessageType()) {
+                entry.getMessages().add(schema.getPrimaryTypeName());
+            }
+            if (schema.isPolymorphic()) {
+                entry.getPolymorphicMessages().add(schema.getPrimaryTypeName());
+            }
+            for (SourceSchema.EnumDefinition enumDefinition : schema.getEnums()) {
+                entry.getEnums().add(enumDefinition.getNestedName());
+            }
+            return entry;
+        }
+
+        public String getPackageName() {
+            return packageName;
+        }
+
+        public void setPackageName(String packageName) {
+            this.packageName = packageName;
+        }
+
+        public Set<String> getTypes() {
+            return types;
+        }
+
+        public Set<String> getMessages() {
+            return messages;
+        }
+
+        // The messages that are a oneof over the subtypes of a sealed or configured type
+        public Set<String> getPolymorphicMessages() {
+            return polymorphicMessages;
+        }
+
+        public Set<String> getEnums() {
+            return enums;
+        }
+
+        public Set<String> getReferences() {
+            return references;
+        }
+
+        public Set<String> getOutputs() {
+            return outputs;
+        }
+
+        // Paths relative to the mapper directory
+        public Set<String> getMappers() {
+            return mappers;
+        }
+
+        public boolean declaresSameSymbols(SourceEntry other) {
+            return other != null && packageName.equals(other.packageName) && types.equals(other.types)
+                    && messages.equals(other.messages) && polymorphicMessages.equals(other.polymorphicMessages) && enums.equals(other.enums);
+        }
+    }
+
+    public SourceEntry get(String sourcePath) {
+        return entries.get(sourcePath);
+    }
+
+    public SourceEntry put(String sourcePath, SourceEntry entry) {
+        dependentsByType = null;
+        return entries.put(sourcePath, entry);
+    }
+
+    public SourceEntry remove(String sourcePath) {
+        dependentsByType = null;
+        return entries.remove(sourcePath);
+    }
+
+    public void putAll(DependencyGraph other) {
+        dependentsByType = null;
+        entries.putAll(other.entries);
+    }
+
+    public Set<String> getSourcePaths() {
+        return entries.keySet();
+    }
+
+    public SymbolTable buildSymbolTable() {
+        SymbolTable symbolTable = new SymbolTable();
+        for (String sourcePath : new TreeSet<>(entries.keySet())) {
+            SourceEntry entry = entries.get(sourcePath);
+            for (String message : entry.messages) {
+                symbolTable.add(entry.packageName, message, SymbolTable.Kind.MESSAGE, entry.polymorphicMessages.contains(message));
+            }
+            for (String enumName : entry.enums) {
+                symbolTable.add(entry.packageName, enumName, SymbolTable.Kind.ENUM);
+            }
+        }
+        return symbolTable;
+    }
+
+    // Qualified names of the generated messages
+    public Set<String> getMessageNames() {
+        Set<String> messageNames = new HashSet<>();
+        for (SourceEntry entry : entries.values()) {
+            for (String message : entry.messages) {
+                messageNames.add(entry.packageName.isEmpty() ? message : entry.packageName + "." + message);
+            }
+        }
+        return messageNames;
+    }
+
+    public Set<String> getOutputs() {
+        Set<String> outputs = new HashSet<>();
+        for (SourceEntry entry : entries.values()) {
+            outputs.addAll(entry.outputs);
+        }
+        return outputs;
+    }
+
+    public Set<String> getMappers() {
+        Set<String> mappers = new HashSet<>();
+        for (SourceEntry entry : entries.values()) {
+            mappers.addAll(entry.mappers);
+        }
+        return mappers;
+    }
+
+    public Set<String> getDependents(Set<String> typeNames) {
+        Set<String> dependents = new TreeSet<>();
+        if (typeNames.isEmpty()) {
+            return dependents;
+        }
+        if (dependentsByType == null) {
+            dependentsByType = new HashMap<>();
+            entries.forEach((sourcePath, entry) -> {
+                for (String reference : entry.references) {
+                    // "Conts.proto" and "Conts.b.proto" both depend on the type declared as "Conts"
+                    int dot = reference.indexOf('.');
+                    if (dot > 0) {
+                        dependentsByType.computeIfAbsent(reference.substring(0, dot), type -> new HashSet<>()).add(sourcePath);
+                    }
+                }
+            });
+        }
+        for (String typeName : typeNames) {
+            dependents.addAll(dependentsByType.getOrDefault(typeName, Set.of()));
+        }
+        return dependents;
+    }
+
+    public static DependencyGraph load(File file) {
+        return StateFiles.read(file, DependencyGraph.class);
+    }
+
+    public void save(File file) throws IOException {
+        StateFiles.write(file, this);
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import org.gradle.api.GradleException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+// Chooses the wire encoding of individual fields. Integer fields use int32/int64 unless an encoding hint
+// annotation, a field name rule or, when enabled, a Bean Validation constraint selects another varint or fixed
+// width encoding. UUIDs and timestamps use string and google.protobuf.Timestamp unless a hint or the configured
+// default selects a compact scalar encoding. BigDecimal and BigInteger use a shared Decimal message unless a hint or
+// the configured default selects their string form, or for BigInteger bytes or sint64. Boxed and nullable-annotated
+// fields are written as proto3 optional fields, so null survives the round trip without a wrapper message.
+public class FieldEncodings implements Serializable {
+
+    private static final long serialVersionUID = 4L;
+
+    public static final String DEFAULT_INTEGER_ENCODING = "int";
+    public static final String DEFAULT_UUID_ENCODING = "string";
+    public static final String DEFAULT_TIMESTAMP_ENCODING = "timestamp";
+    public static final String DEFAULT_DECIMAL_ENCODING = "decimal";
+    // Matched by simple name, which covers the JSR 305, JetBrains, Jakarta, Spring and Checker Framework annotations
+    public static final String DEFAULT_NULLABLE_ANNOTATION = "Nullable";
+    // The most and least significant bits in two fixed64 fields; repeated and map values use bytes instead
+    public static final String UUID_FIXED64_ENCODING = "fixed64";
+
+    private static final Set<String> INTEGER_ENCODINGS = Set.of("int", "sint", "uint", "fixed", "sfixed");
+    private static final Set<String> UUID_ENCODINGS = Set.of("string", "bytes", "fixed64");
+    // Epoch values may be negative, so fixed width timestamps are sfixed64
+    private static final Set<String> TIMESTAMP_ENCODINGS = Set.of("timestamp", "sint64-millis", "sint64-micros", "sfixed64-millis", "sfixed64-micros");
+    private static final Set<String> TIMESTAMP_TYPES = Set.of("Instant", "ZonedDateTime", "LocalDateTime");
+    // Epoch values are signed, so the unsigned names stand for the signed fixed width encodings
+    private static final Map<String, String> ENCODING_ALIASES = Map.of("fixed64-millis", "sfixed64-millis", "fixed64-micros", "sfixed64-micros");
+    private static final Set<String> DECIMAL_ENCODINGS = Set.of("decimal", "string");
+    // The two's complement bytes, or a single zigzag varint for values known to fit in a long
+    private static final Set<String> BIG_INTEGER_ENCODINGS = Set.of("decimal", "string", "bytes", "sint64");
+    private static final Set<String> BOXED_TYPES = Set.of("Integer", "Long", "Double", "Float", "Boolean");
+    private static final Set<String> PRIMITIVE_TYPES = Set.of("int", "long", "double", "float", "boolean", "short", "byte", "char");
+
+    private static final class Rule implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Pattern pattern;
+        private final boolean qualified;
+        private final String encoding;
+
+        private Rule(Pattern pattern, boolean qualified, String encoding) {
+            this.pattern = pattern;
+            this.qualified = qualified;
+            this.encoding = encoding;
+        }
+    }
+
+    private final List<Rule> integerRules = new ArrayList<>();
+    private final String encodingAnnotation;
+    private final boolean inferFromConstraints;
+    private final String uuidEncoding;
+    private final String timestampEncoding;
+    private final String nullableAnnotation;
+    private final String decimalEncoding;
+
+    public FieldEncodings() {
+        this(Map.of(), null, false);
+    }
+
+    public FieldEncodings(Map<String, String> integerRules, String encodingAnnotation, boolean inferFromConstraints) {
+        this(integerRules, encodingAnnotation, inferFromConstraints, DEFAULT_UUID_ENCODING, DEFAULT_TIMESTAMP_ENCODING);
+    }
+
+    public FieldEncodings(Map<String, String> integerRules, String encodingAnnotation, boolean inferFromConstraints, String uuidEncoding, String timestampEncoding) {
+        this(integerRules, encodingAnnotation, inferFromConstraints, uuidEncoding, timestampEncoding, DEFAULT_NULLABLE_ANNOTATION);
+    }
+
+    public FieldEncodings(Map<String, String> integerRules, String encodingAnnotation, boolean inferFromConstraints, String uuidEncoding, String timestampEncoding,
+                          String nullableAnnotation) {
+        this(integerRules, encodingAnnotation, inferFromConstraints, uuidEncoding, timestampEncoding, nullableAnnotation, DEFAULT_DECIMAL_ENCODING);
+    }
+
+    // Rules are tried in order; a pattern with a dot is matched against Message.field, otherwise against the field name.
+    // An empty nullable annotation leaves only boxed fields optional.
+    public FieldEncodings(Map<String, String> integerRules, String encodingAnnotation, boolean inferFromConstraints, String uuidEncoding, String timestampEncoding,
+                          String nullableAnnotation, String decimalEncoding) {
+        integerRules.forEach((pattern, encoding) -> this.integerRules.add(new Rule(toPattern(pattern), pattern.indexOf('.') >= 0,
+                toIntegerEncoding(encoding, "rule '" + pattern + "'"))));
+        this.encodingAnnotation = encodingAnnotation;
+        this.inferFromConstraints = inferFromConstraints;
+        this.uuidEncoding = toEncoding(uuidEncoding, UUID_ENCODINGS, "the UUID encoding");
+        this.timestampEncoding = toEncoding(timestampEncoding, TIMESTAMP_ENCODINGS, "the timestamp encoding");
+        this.nullableAnnotation = nullableAnnotation == null || nullableAnnotation.isEmpty() ? null : nullableAnnotation;
+        this.decimalEncoding = toEncoding(decimalEncoding, DECIMAL_ENCODINGS, "the decimal encoding");
+    }
+
+    public static FieldEncodings load(File file) {
+        return StateFiles.read(file, FieldEncodings.class);
+    }
+
+    public void save(File file) throws IOException {
+        StateFiles.write(file, this);
+    }
+
+    public boolean isDefault() {
+        return integerRules.isEmpty() && encodingAnnotation == null && !inferFromConstraints;
+    }
+
+    // One of int, sint, uint, fixed and sfixed; the width follows from the Java type
+    public String getIntegerEncoding(String messageName, SourceSchema.FieldDefinition field) {
+        if (isDefault()) {
+            return DEFAULT_INTEGER_ENCODING;
+        }
+        // Hints on UUID, timestamp and decimal fields select their own encodings
+        if (encodingAnnotation != null && !isUuid(field) && !isTimestamp(field) && getDecimalEncodings(field) == null) {
+            SourceSchema.AnnotationDefinition hint = field.getAnnotation(encodingAnnotation);
+            if (hint != null && hint.getValues().containsKey("value")) {
+                return toIntegerEncoding(hint.getValues().get("value"), "field " + messageName + "." + field.getName());
+            }
+        }
+        for (Rule rule : integerRules) {
+            if (rule.pattern.matcher(rule.qualified ? messageName + "." + field.getName() : field.getName()).matches()) {
+                return rule.encoding;
+            }
+        }
+        if (inferFromConstraints) {
+            String inferred = inferIntegerEncoding(field);
+            if (inferred != null) {
+                return inferred;
+            }
+        }
+        return DEFAULT_INTEGER_ENCODING;
+    }
+
+    // One of string, bytes and fixed64, for UUID fields and collections and maps of UUIDs
+    public String getUuidEncoding(String messageName, SourceSchema.FieldDefinition field) {
+        String hint = getHint(field);
+        return hint != null && isUuid(field) ? toEncoding(hint, UUID_ENCODINGS, "field " + messageName + "." + field.getName()) : uuidEncoding;
+    }
+
+    // One of timestamp, sint64-millis, sint64-micros, sfixed64-millis and sfixed64-micros, for Instant, ZonedDateTime
+    // and LocalDateTime fields and collections and maps of them
+    public String getTimestampEncoding(String messageName, SourceSchema.FieldDefinition field) {
+        String hint = getHint(field);
+        return hint != null && isTimestamp(field) ? toEncoding(hint, TIMESTAMP_ENCODINGS, "field " + messageName + "." + field.getName()) : timestampEncoding;
+    }
+
+    // One of decimal and string, and for BigInteger also bytes and sint64, for BigDecimal and BigInteger fields and
+    // collections and maps of them
+    public String getDecimalEncoding(String messageName, SourceSchema.FieldDefinition field) {
+        String hint = getHint(field);
+        Set<String> encodings = getDecimalEncodings(field);
+        return hint != null && encodings != null ? toEncoding(hint, encodings, "field " + messageName + "." + field.getName()) : decimalEncoding;
+    }
+
+    // A singular UUID field that is written as two fixed64 fields
+    public boolean isUuidPair(String messageName, SourceSchema.FieldDefinition field) {
+        TypeDescriptor type = field.getType();
+        return type.getName().equals("UUID") && !type.isArray() && type.getTypeArguments().isEmpty()
+                && UUID_FIXED64_ENCODING.equals(getUuidEncoding(messageName, field));
+    }
+
+    // Singular fields that may be null; primitives never are, and collections, maps and Optional have their own forms
+    public boolean isNullable(SourceSchema.FieldDefinition field) {
+        TypeDescriptor type = field.getType();
+        if (!type.getTypeArguments().isEmpty() || type.isArray() && !ProtoGenerator.isBytes(type) || ProtoGenerator.getOptionalType(type) != null) {
+            return false;
+        }
+        if (BOXED_TYPES.contains(type.getName())) {
+            return true;
+        }
+        return nullableAnnotation != null && !(PRIMITIVE_TYPES.contains(type.getName()) && !type.isArray()) && field.hasAnnotation(nullableAnnotation);
+    }
+
+    public static boolean isTimestampType(String javaType) {
+        return TIMESTAMP_TYPES.contains(javaType);
+    }
+
+    private String getHint(SourceSchema.FieldDefinition field) {
+        if (encodingAnnotation == null) {
+            return null;
+        }
+        SourceSchema.AnnotationDefinition hint = field.getAnnotation(encodingAnnotation);
+        return hint != null ? hint.getValues().get("value") : null;
+    }
+
+    private static boolean isUuid(SourceSchema.FieldDefinition field) {
+        return getValueTypeName(field.getType()).equals("UUID");
+    }
+
+    private static boolean isTimestamp(SourceSchema.FieldDefinition field) {
+        return TIMESTAMP_TYPES.contains(getValueTypeName(field.getType()));
+    }
+
+    private static Set<String> getDecimalEncodings(SourceSchema.FieldDefinition field) {
+        switch (getValueTypeName(field.getType())) {
+            case "BigDecimal":
+                return DECIMAL_ENCODINGS;
+            case "BigInteger":
+                return BIG_INTEGER_ENCODINGS;
+            default:
+                return null;
+        }
+    }
+
+    // The element type of collections and arrays, the value type of maps and of optionals
+    private static String getValueTypeName(TypeDescriptor type) {
+        TypeDescriptor element = ProtoGenerator.getElementType(type);
+        if (element != null) {
+            return element.getName();
+        }
+        if (ProtoGenerator.isMap(type)) {
+            return type.getTypeArguments().get(1).getName();
+        }
+        TypeDescriptor value = ProtoGenerator.getOptionalType(type);
+        return value != null ? value.getName() : type.getName();
+    }
+
+    // Non-negative values are smallest as unsigned varints, values that may be negative as zigzag varints
+    private static String inferIntegerEncoding(SourceSchema.FieldDefinition field) {
+        if (field.hasAnnotation("Positive") || field.hasAnnotation("PositiveOrZero")) {
+            return "uint";
+        }
+        if (field.hasAnnotation("Negative") || field.hasAnnotation("NegativeOrZero")) {
+            return "sint";
+        }
+        SourceSchema.AnnotationDefinition min = field.getAnnotation("Min");
+        if (min != null && min.getValues().containsKey("value")) {
+            try {
+                return parseLong(min.getValues().get("value")) >= 0 ? "uint" : "sint";
+            } catch (NumberFormatException e) {
+                // Constants defined elsewhere cannot be evaluated
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static long parseLong(String value) {
+        String literal = value.replace("_", "").replace(" ", "");
+        if (literal.endsWith("L") || literal.endsWith("l")) {
+            literal = literal.substring(0, literal.length() - 1);
+        }
+        return Long.decode(literal);
+    }
+
+    // Accepts the encoding names with or without a width, e.g. "sint" or "sint64", and enum constants such as
+    // "Encoding.SINT"
+    private static String toIntegerEncoding(String value, String context) {
+        String encoding = value.substring(value.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        if (encoding.endsWith("32") || encoding.endsWith("64")) {
+            encoding = encoding.substring(0, encoding.length() - 2);
+        }
+        if (!INTEGER_ENCODINGS.contains(encoding)) {
+            throw new GradleException("Unknown integer encoding '" + value + "' for " + context + ", expected one of int, sint, uint, fixed and sfixed");
+        }
+        return encoding;
+    }
+
+    // Accepts enum constants such as "Encoding.SINT64_MILLIS", and fixed64 as an alias of sfixed64 for timestamps
+    private static String toEncoding(String value, Set<String> encodings, String context) {
+        String encoding = value.substring(value.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT).replace('_', '-');
+        String alias = ENCODING_ALIASES.get(encoding);
+        if (alias != null && !encodings.contains(encoding) && encodings.contains(alias)) {
+            encoding = alias;
+        }
+        if (!encodings.contains(encoding)) {
+            throw new GradleException("Unknown encoding '" + value + "' for " + context + ", expected one of " + String.join(", ", new TreeSet<>(encodings)));
+        }
+        return encoding;
+    }
+
+    static Pattern toPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Fields left out of the generated messages and mappers. Patterns may use * and ?; a pattern containing a dot is
+// matched against Message.field, otherwise against the field name.
+public class FieldExclusions {
+
+    private final List<Pattern> qualifiedPatterns = new ArrayList<>();
+    private final List<Pattern> fieldPatterns = new ArrayList<>();
+
+    public FieldExclusions() {
+        this(List.of());
+    }
+
+    public FieldExclusions(List<String> patterns) {
+        for (String pattern : patterns) {
+            (pattern.indexOf('.') >= 0 ? qualifiedPatterns : fieldPatterns).add(FieldEncodings.toPattern(pattern));
+        }
+    }
+
+    public boolean isEmpty() {
+        return qualifiedPatterns.isEmpty() && fieldPatterns.isEmpty();
+    }
+
+    public boolean isExcluded(String messageName, String fieldName) {
+        for (Pattern pattern : fieldPatterns) {
+            if (pattern.matcher(fieldName).matches()) {
+                return true;
+            }
+        }
+        for (Pattern pattern : qualifiedPatterns) {
+            if (pattern.matcher(messageName + "." + fieldName).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public SourceSchema apply(SourceSchema schema) {
+        if (isEmpty() || !schema.isMessageType()) {
+            return schema;
+        }
+        return schema.withoutFields(field -> isExcluded(schema.getPrimaryTypeName(), field.getName()));
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import org.gradle.api.GradleException;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Assigns field numbers. Without any configuration fields are numbered in declaration order. Hot fields, marked
+// with an annotation or ranked by a frequency profile, take the lowest free numbers first, since numbers 1 to 15
+// are encoded in a single byte. With a lock file, numbers that were assigned once are never changed or reused.
+// Locks and profiles are keyed by the qualified message name.
+public class FieldNumbering implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int MAX_NUMBER = 536_870_911;
+    // Reserved for the protobuf implementation
+    private static final int FIRST_RESERVED_NUMBER = 19000;
+    private static final int LAST_RESERVED_NUMBER = 19999;
+
+    public static final class Assignment {
+
+        private final int[] numbers;
+        private final List<Integer> reserved;
+
+        private Assignment(int[] numbers, List<Integer> reserved) {
+            this.numbers = numbers;
+            this.reserved = reserved;
+        }
+
+        public int getNumber(int fieldIndex) {
+            return numbers[fieldIndex];
+        }
+
+        // Numbers that are locked to fields the message no longer has
+        public List<Integer> getReserved() {
+            return reserved;
+        }
+    }
+
+    private final Map<String, Map<String, Integer>> locked;
+    private final Map<String, Long> profile;
+    private final String hotFieldAnnotation;
+    private final boolean locking;
+    private boolean changed;
+
+    public FieldNumbering() {
+        this(new TreeMap<>(), Map.of(), null, false);
+    }
+
+    public FieldNumbering(Map<String, Map<String, Integer>> locked, Map<String, Long> profile, String hotFieldAnnotation, boolean locking) {
+        this.locked = locked;
+        this.profile = profile;
+        this.hotFieldAnnotation = hotFieldAnnotation;
+        this.locking = locking;
+    }
+
+    public static FieldNumbering load(File lockFile, File profileFile, String hotFieldAnnotation) {
+        Map<String, Map<String, Integer>> locked = new TreeMap<>();
+        if (lockFile != null && lockFile.isFile()) {
+            readProperties(lockFile).forEach((key, value) -> {
+                int dot = key.lastIndexOf('.');
+                long number = parseNumber(lockFile, key, value);
+                if (dot <= 0 || number < 1 || number > MAX_NUMBER) {
+                    throw new GradleException("Invalid field number lock entry '" + key + "=" + value + "' in " + lockFile.getAbsolutePath());
+                }
+                Map<String, Integer> fields = locked.computeIfAbsent(key.substring(0, dot), message -> new TreeMap<>());
+                if (fields.containsValue((int) number)) {
+                    throw new GradleException("Field number " + number + " is locked twice for " + key.substring(0, dot) + " in " + lockFile.getAbsolutePath());
+                }
+                fields.put(key.substring(dot + 1), (int) number);
+            });
+        }
+        Map<String, Long> profile = new HashMap<>();
+        if (profileFile != null) {
+            readProperties(profileFile).forEach((key, value) -> profile.put(key, parseNumber(profileFile, key, value)));
+        }
+        return new FieldNumbering(locked, profile, hotFieldAnnotation, lockFile != null);
+    }
+
+    public static FieldNumbering load(File file) {
+        return StateFiles.read(file, FieldNumbering.class);
+    }
+
+    public void save(File file) throws IOException {
+        StateFiles.write(file, this);
+    }
+
+    private static Map<String, String> readProperties(File file) {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new GradleException("Error reading " + file.getAbsolutePath(), e);
+        }
+        Map<String, String> entries = new TreeMap<>();
+        properties.forEach((key, value) -> entries.put(key.toString(), value.toString().trim()));
+        return entries;
+    }
+
+    private static long parseNumber(File file, String key, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new GradleException("Invalid number for '" + key + "' in " + file.getAbsolutePath() + ": " + value, e);
+        }
+    }
+
+    public boolean isDeclarationOrder() {
+        return !locking && profile.isEmpty() && hotFieldAnnotation == null;
+    }
+
+    public Assignment assign(String packageName, String messageName, List<SourceSchema.FieldDefinition> fields) {
+        int[] numbers = new int[fields.size()];
+        if (isDeclarationOrder()) {
+            for (int i = 0; i < numbers.length; i++) {
+                numbers[i] = i + 1;
+            }
+            return new Assignment(numbers, List.of());
+        }
+
+        String lockName = packageName.isEmpty() ? messageName : packageName + "." + messageName;
+        Map<String, Integer> lockedFields = locked.getOrDefault(lockName, Map.of());
+        String profileName = getProfileName(lockName, messageName, fields);
+        Set<Integer> used = new HashSet<>(lockedFields.values());
+        Set<String> fieldNames = new HashSet<>();
+        List<Integer> hot = new ArrayList<>();
+        List<Integer> cold = new ArrayList<>();
+        for (int i = 0; i < numbers.length; i++) {
+            SourceSchema.FieldDefinition field = fields.get(i);
+            fieldNames.add(field.getName());
+            Integer number = lockedFields.get(field.getName());
+            if (number != null) {
+                numbers[i] = number;
+            } else if (isHot(profileName, field)) {
+                hot.add(i);
+            } else {
+                cold.add(i);
+            }
+        }
+        // Annotated fields first, then by descending frequency; the sort is stable, so ties keep declaration order
+        hot.sort(Comparator.comparing((Integer i) -> hotFieldAnnotation != null && fields.get(i).hasAnnotation(hotFieldAnnotation) ? 0 : 1)
+                .thenComparing(i -> -profile.getOrDefault(profileName + "." + fields.get(i).getName(), 0L)));
+
+        // Every field takes the lowest free number, so the next free number never goes down
+        int next = 1;
+        List<Integer> unlocked = new ArrayList<>(hot);
+        unlocked.addAll(cold);
+        for (int i : unlocked) {
+            while (used.contains(next) || next >= FIRST_RESERVED_NUMBER && next <= LAST_RESERVED_NUMBER) {
+                next++;
+            }
+            numbers[i] = next;
+            used.add(next);
+        }
+
+        List<Integer> reserved = new ArrayList<>();
+        lockedFields.forEach((fieldName, number) -> {
+            if (!fieldNames.contains(fieldName)) {
+                reserved.add(number);
+            }
+        });
+        reserved.sort(null);
+
+        if (locking && !unlocked.isEmpty()) {
+            Map<String, Integer> messageLock = locked.computeIfAbsent(lockName, message -> new TreeMap<>());
+            for (int i : unlocked) {
+                messageLock.put(fields.get(i).getName(), numbers[i]);
+            }
+            changed = true;
+        }
+        return new Assignment(numbers, reserved);
+    }
+
+    // Older lock files were keyed by the simple message name. Their entries move to the one message of that name, and
+    // are left alone for messages that no longer exist. Takes the qualified names of all messages of the source set.
+    public void migrateSimpleNames(Set<String> messageNames) {
+        Map<String, Set<String>> bySimpleName = new HashMap<>();
+        for (String messageName : messageNames) {
+            int dot = messageName.lastIndexOf('.');
+            if (dot >= 0) {
+                bySimpleName.computeIfAbsent(messageName.substring(dot + 1), simpleName -> new TreeSet<>()).add(messageName);
+            }
+        }
+        for (String simpleName : new ArrayList<>(locked.keySet())) {
+            // Messages of the default package are keyed by their simple name anyway
+            Set<String> candidates = bySimpleName.get(simpleName);
+            if (simpleName.indexOf('.') >= 0 || messageNames.contains(simpleName) || candidates == null) {
+                continue;
+            }
+            if (candidates.size() > 1) {
+                throw new GradleException("Field numbers are locked for " + simpleName + ", which is the name of several messages: "
+                        + String.join(", ", candidates) + ". Qualify the lock entries with the package of the message they belong to.");
+            }
+            Map<String, Integer> fields = locked.remove(simpleName);
+            locked.putIfAbsent(candidates.iterator().next(), fields);
+            changed = true;
+        }
+    }
+
+    // A message without entries of its own falls back to entries keyed by its simple name, which apply to every
+    // message of that name
+    private String getProfileName(String lockName, String messageName, List<SourceSchema.FieldDefinition> fields) {
+        for (SourceSchema.FieldDefinition field : fields) {
+            if (profile.containsKey(lockName + "." + field.getName())) {
+                return lockName;
+            }
+        }
+        return messageName;
+    }
+
+    private boolean isHot(String profileName, SourceSchema.FieldDefinition field) {
+        return hotFieldAnnotation != null && field.hasAnnotation(hotFieldAnnotation) || profile.getOrDefault(profileName + "." + field.getName(), 0L) > 0;
+    }
+
+    public boolean isChanged() {
+        return changed;
+    }
+
+    // Messages are only numbered by the worker that generates them, so their locks never conflict
+    public void merge(FieldNumbering other) {
+        if (other.changed) {
+            other.locked.forEach((messageName, fields) -> locked.computeIfAbsent(messageName, message -> new TreeMap<>()).putAll(fields));
+            changed = true;
+        }
+    }
+
+    public void writeLockFile(File lockFile) throws IOException {
+        Files.createDirectories(lockFile.getAbsoluteFile().getParentFile().toPath());
+        try (BufferedWriter writer = Files.newBufferedWriter(lockFile.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("# Field numbers assigned by pojoToProto. Keep this file under version control; numbers are never reused.\n");
+            for (Map.Entry<String, Map<String, Integer>> message : locked.entrySet()) {
+                List<Map.Entry<String, Integer>> fields = new ArrayList<>(message.getValue().entrySet());
+                fields.sort(Map.Entry.comparingByValue());
+                for (Map.Entry<String, Integer> field : fields) {
+                    writer.write(message.getKey() + "." + field.getKey() + "=" + field.getValue() + "\n");
+                }
+            }
+        }
+    }
+}
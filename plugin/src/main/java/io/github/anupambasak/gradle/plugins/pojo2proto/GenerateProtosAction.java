@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+public abstract class GenerateProtosAction implements WorkAction<GenerateProtosAction.Parameters> {
+
+    public interface Parameters extends WorkParameters {
+        ConfigurableFileCollection getSourceFiles();
+        RegularFileProperty getSymbolTableFile();
+        RegularFileProperty getFieldNumberingFile();
+        RegularFileProperty getFieldEncodingsFile();
+        ListProperty<String> getExcludeFields();
+        MapProperty<String, List<String>> getSubtypes();
+        DirectoryProperty getDestination();
+        DirectoryProperty getMapperDestination();
+        Property<Boolean> getGenerateViews();
+        Property<String> getPackageName();
+        Property<Boolean> getSingleFile();
+        RegularFileProperty getResultFile();
+        RegularFileProperty getMessagesFile();
+        RegularFileProperty getEnumsFile();
+        RegularFileProperty getStatsFile();
+        RegularFileProperty getFieldNumberingResultFile();
+        RegularFileProperty getMetricsFile();
+        // Absent with process isolation
+        Property<ParsedModelCache> getModelCache();
+    }
+
+    @Override
+    public void execute() {
+        Parameters parameters = getParameters();
+        File fieldNumberingFile = parameters.getFieldNumberingFile().get().getAsFile();
+        FieldNumbering fieldNumbering = FieldNumbering.load(fieldNumberingFile);
+        if (fieldNumbering == null) {
+            throw new GradleException("Error reading field numbering: " + fieldNumberingFile.getAbsolutePath());
+        }
+        File fieldEncodingsFile = parameters.getFieldEncodingsFile().get().getAsFile();
+        FieldEncodings fieldEncodings = FieldEncodings.load(fieldEncodingsFile);
+        if (fieldEncodings == null) {
+            throw new GradleException("Error reading field encodings: " + fieldEncodingsFile.getAbsolutePath());
+        }
+        ProtoFileGenerator generator = new ProtoFileGenerator(Logging.getLogger(GenerateProtosAction.class),
+                parameters.getDestination().get().getAsFile(), parameters.getPackageName().get(), fieldNumbering, fieldEncodings,
+                new FieldExclusions(parameters.getExcludeFields().getOrElse(List.of())), new PolymorphicTypes(parameters.getSubtypes().getOrElse(Map.of())),
+                parameters.getMapperDestination().isPresent() ? parameters.getMapperDestination().get().getAsFile() : null, parameters.getGenerateViews().getOrElse(false));
+        File symbolTableFile = parameters.getSymbolTableFile().get().getAsFile();
+        SymbolTable symbolTable = SymbolTable.load(symbolTableFile);
+        if (symbolTable == null) {
+            throw new GradleException("Error reading symbol table: " + symbolTableFile.getAbsolutePath());
+        }
+        boolean singleFile = parameters.getSingleFile().get();
+        ParsedModelCache modelCache = parameters.getModelCache().getOrNull();
+
+        DependencyGraph generated = new DependencyGraph();
+        // Single-file content streams straight into the fragment files that the task concatenates
+        try (Writer messages = singleFile ? Files.newBufferedWriter(parameters.getMessagesFile().get().getAsFile().toPath(), StandardCharsets.UTF_8) : null;
+             Writer enums = singleFile ? Files.newBufferedWriter(parameters.getEnumsFile().get().getAsFile().toPath(), StandardCharsets.UTF_8) : null) {
+            GenerationMetrics metrics = generator.getMetrics();
+            for (File javaFile : parameters.getSourceFiles()) {
+                long fileStartNanos = System.nanoTime();
+                SourceSchema schema = metrics.time(GenerationMetrics.Phase.PARSE,
+                        () -> modelCache != null ? modelCache.getOrParse(javaFile, generator) : generator.parse(javaFile));
+                // Reported to the task by its absence from the result, so its previous entry is removed
+                if (schema == null) {
+                    continue;
+                }
+                metrics.recordSchema(schema);
+                metrics.time(GenerationMetrics.Phase.GENERATE, () -> {
+                    DependencyGraph.SourceEntry entry = generator.scan(schema);
+                    if (singleFile) {
+                        generator.appendSingleFileContent(entry, schema, symbolTable, messages, enums);
+                    } else {
+                        generator.generateFiles(entry, schema, symbolTable);
+                    }
+                    generated.put(javaFile.getAbsolutePath(), entry);
+                });
+                metrics.recordFile(javaFile.getAbsolutePath(), System.nanoTime() - fileStartNanos);
+            }
+        } catch (IOException e) {
+            throw new GradleException("Error writing generated proto content", e);
+        }
+
+        try {
+            generated.save(parameters.getResultFile().get().getAsFile());
+            generator.getStats().save(parameters.getStatsFile().get().getAsFile());
+            fieldNumbering.save(parameters.getFieldNumberingResultFile().get().getAsFile());
+            generator.getMetrics().save(parameters.getMetricsFile().get().getAsFile());
+        } catch (IOException e) {
+            throw new GradleException("Error writing generation result", e);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Wall time and allocation per phase, summed over every thread that worked on the phase, plus counts and the slowest
+// source files. Phases may nest, e.g. writes during generation, and a nested phase is not counted in its parent.
+public class GenerationMetrics implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int SLOWEST_FILES = 10;
+
+    public enum Phase {
+        SCAN,
+        PARSE,
+        SYMBOLS,
+        GENERATE,
+        WRITE;
+
+        public String getName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public static final class FileTiming implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String path;
+        private final long nanos;
+
+        private FileTiming(String path, long nanos) {
+            this.path = path;
+            this.nanos = nanos;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+    }
+
+    // Work timed as a phase, which may throw the checked exceptions of its body
+    @FunctionalInterface
+    public interface Timed<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    @FunctionalInterface
+    public interface TimedAction<E extends Exception> {
+        void run() throws E;
+    }
+
+    private final class Span {
+
+        private final Phase phase;
+        private final Span parent;
+        private final long startNanos = System.nanoTime();
+        private final long startBytes = allocatedBytes();
+        private long nestedNanos;
+        private long nestedBytes;
+
+        private Span(Phase phase, Span parent) {
+            this.phase = phase;
+            this.parent = parent;
+        }
+
+        private void stop() {
+            long spanNanos = System.nanoTime() - startNanos;
+            long spanBytes = startBytes < 0 ? 0 : allocatedBytes() - startBytes;
+            nanos[phase.ordinal()] += spanNanos - nestedNanos;
+            bytes[phase.ordinal()] += spanBytes - nestedBytes;
+            if (parent != null) {
+                parent.nestedNanos += spanNanos;
+                parent.nestedBytes += spanBytes;
+            }
+            current = parent;
+        }
+    }
+
+    private final long[] nanos = new long[Phase.values().length];
+    private final long[] bytes = new long[Phase.values().length];
+    private final List<FileTiming> slowestFiles = new ArrayList<>();
+    private int sources;
+    private int parsed;
+    private int messages;
+    private int enums;
+    private int fields;
+    private transient Span current;
+
+    // Phases must be timed on a single thread
+    public <T, E extends Exception> T time(Phase phase, Timed<T, E> work) throws E {
+        Span span = new Span(phase, current);
+        current = span;
+        try {
+            return work.run();
+        } finally {
+            span.stop();
+        }
+    }
+
+    public <E extends Exception> void time(Phase phase, TimedAction<E> work) throws E {
+        time(phase, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public long getNanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    // Zero when the JVM does not measure allocation per thread
+    public long getAllocatedBytes(Phase phase) {
+        return bytes[phase.ordinal()];
+    }
+
+    public List<FileTiming> getSlowestFiles() {
+        return slowestFiles;
+    }
+
+    public int getSources() {
+        return sources;
+    }
+
+    public int getParsed() {
+        return parsed;
+    }
+
+    public int getMessages() {
+        return messages;
+    }
+
+    public int getEnums() {
+        return enums;
+    }
+
+    public int getFields() {
+        return fields;
+    }
+
+    public void recordSources(int count) {
+        sources += count;
+    }
+
+    public void recordSchema(SourceSchema schema) {
+        parsed++;
+        if (schema.isMessageType()) {
+            messages++;
+            fields += schema.getFields().size();
+        }
+        enums += schema.getEnums().size();
+    }
+
+    public void recordFile(String path, long fileNanos) {
+        if (slowestFiles.size() == SLOWEST_FILES && slowestFiles.get(SLOWEST_FILES - 1).nanos >= fileNanos) {
+            return;
+        }
+        int index = slowestFiles.size();
+        while (index > 0 && slowestFiles.get(index - 1).nanos < fileNanos) {
+            index--;
+        }
+        slowestFiles.add(index, new FileTiming(path, fileNanos));
+        if (slowestFiles.size() > SLOWEST_FILES) {
+            slowestFiles.remove(SLOWEST_FILES);
+        }
+    }
+
+    public void add(GenerationMetrics other) {
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] += other.nanos[i];
+            bytes[i] += other.bytes[i];
+        }
+        for (FileTiming fileTiming : other.slowestFiles) {
+            recordFile(fileTiming.path, fileTiming.nanos);
+        }
+        sources += other.sources;
+        parsed += other.parsed;
+        messages += other.messages;
+        enums += other.enums;
+        fields += other.fields;
+    }
+
+    public String getSummary(long totalNanos, WriteStats stats) {
+        StringBuilder summary = new StringBuilder();
+        summary.append(stats).append(" from ").append(sources).append(" sources, ").append(parsed).append(" parsed, in ")
+                .append(toMillis(totalNanos)).append(" ms (");
+        for (Phase phase : Phase.values()) {
+            if (phase.ordinal() > 0) {
+                summary.append(", ");
+            }
+            summary.append(phase.getName()).append(' ').append(toMillis(nanos[phase.ordinal()])).append(" ms");
+        }
+        return summary.append(')').toString();
+    }
+
+    public void writeReport(File file, long totalNanos, WriteStats stats) throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            out.write("{\n");
+            out.write("  \"durationMillis\": " + toMillis(totalNanos) + ",\n");
+            out.write("  \"counts\": {\n");
+            out.write("    \"sources\": " + sources + ",\n");
+            out.write("    \"parsed\": " + parsed + ",\n");
+            out.write("    \"messages\": " + messages + ",\n");
+            out.write("    \"enums\": " + enums + ",\n");
+            out.write("    \"fields\": " + fields + ",\n");
+            out.write("    \"written\": " + stats.getWritten() + ",\n");
+            out.write("    \"unchanged\": " + stats.getUnchanged() + ",\n");
+            out.write("    \"deleted\": " + stats.getDeleted() + "\n");
+            out.write("  },\n");
+            out.write("  \"phases\": {\n");
+            for (Phase phase : Phase.values()) {
+                out.write("    \"" + phase.getName() + "\": { \"millis\": " + toMillis(nanos[phase.ordinal()])
+                        + ", \"allocatedBytes\": " + bytes[phase.ordinal()] + " }" + (phase.ordinal() < nanos.length - 1 ? ",\n" : "\n"));
+            }
+            out.write("  },\n");
+            out.write("  \"slowestFiles\": [");
+            for (int i = 0; i < slowestFiles.size(); i++) {
+                FileTiming fileTiming = slowestFiles.get(i);
+                out.write((i > 0 ? ",\n" : "\n") + "    { \"path\": " + toJsonString(fileTiming.path) + ", \"millis\": " + toMillis(fileTiming.nanos) + " }");
+            }
+            out.write(slowestFiles.isEmpty() ? "]\n" : "\n  ]\n");
+            out.write("}\n");
+        }
+    }
+
+    public static GenerationMetrics load(File file) {
+        return StateFiles.read(file, GenerationMetrics.class);
+    }
+
+    public void save(File file) throws IOException {
+        StateFiles.write(file, this);
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    private static String toJsonString(String value) {
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+            if (allocation.isThreadAllocatedMemorySupported() && allocation.isThreadAllocatedMemoryEnabled()) {
+                return allocation.getCurrentThreadAllocatedBytes();
+            }
+        }
+        return -1;
+    }
+}
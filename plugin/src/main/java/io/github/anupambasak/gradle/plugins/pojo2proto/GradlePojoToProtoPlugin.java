@@ -16,22 +16,83 @@
 
 package io.github.anupambasak.gradle.plugins.pojo2proto;
 
+import org.gradle.api.NamedDomainObjectProvider;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
+import org.gradle.api.artifacts.DependencyScopeConfiguration;
+import org.gradle.api.artifacts.ResolvableConfiguration;
+import org.gradle.api.attributes.Usage;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.TaskProvider;
 
 public class GradlePojoToProtoPlugin implements Plugin<Project> {
 
+    public static final String SCHEMAS_CONFIGURATION_NAME = "pojoToProtoSchemas";
+    public static final String SCHEMA_INDEX_USAGE = "pojo-to-proto-schema-index";
+
     @Override
     public void apply(Project project) {
         PojoToProtoExtension extension = project.getExtensions().create("pojoToProto", PojoToProtoExtension.class);
+        // Shared by every project of the build and kept by the daemon between builds
+        Provider<ParsedModelCache> modelCache = project.getGradle().getSharedServices().registerIfAbsent(ParsedModelCache.NAME, ParsedModelCache.class, spec ->
+                spec.getParameters().getMaxEntries().set(project.getProviders().gradleProperty("pojoToProto.modelCacheSize").map(Integer::parseInt)
+                        .orElse(ParsedModelCache.DEFAULT_MAX_ENTRIES)));
+
+        // Other projects are declared as dependencies of pojoToProtoSchemas and resolved to their schema indexes
+        NamedDomainObjectProvider<DependencyScopeConfiguration> schemas = project.getConfigurations().dependencyScope(SCHEMAS_CONFIGURATION_NAME);
+        NamedDomainObjectProvider<ResolvableConfiguration> schemaIndexes = project.getConfigurations().resolvable("pojoToProtoSchemaIndexes", configuration -> {
+            configuration.extendsFrom(schemas.get());
+            configuration.getAttributes().attribute(Usage.USAGE_ATTRIBUTE, project.getObjects().named(Usage.class, SCHEMA_INDEX_USAGE));
+        });
 
-        project.getTasks().register("pojoToProto", PojoToProtoTask.class, task -> {
+        TaskProvider<PojoToProtoTask> pojoToProto = project.getTasks().register("pojoToProto", PojoToProtoTask.class, task -> {
             task.getSource().from(extension.getSource());
+            task.getClasses().from(extension.getClasses());
             task.getDestination().set(extension.getDestination());
+            task.getMapperDestination().set(extension.getMapperDestination());
+            task.getGenerateViews().set(extension.getGenerateViews());
             task.getSingleFile().set(extension.getSingleFile());
             task.getPackageName().set(extension.getPackageName());
-            task.getProjectName().set(project.getName());
-            task.getProjectGroup().set(project.getGroup().toString());
+            task.getIncludes().set(extension.getIncludes());
+            task.getExcludes().set(extension.getExcludes());
+            task.getExcludeFields().set(extension.getExcludeFields());
+            task.getPackages().set(extension.getPackages());
+            task.getMarkerAnnotation().set(extension.getMarkerAnnotation());
+            task.getHotFieldAnnotation().set(extension.getHotFieldAnnotation());
+            task.getFieldProfile().set(extension.getFieldProfile());
+            task.getNumberingLockFile().set(extension.getNumberingLockFile());
+            task.getUpdatedNumberingLockFile().set(extension.getNumberingLockFile().flatMap(lockFile ->
+                    project.getLayout().getBuildDirectory().file("pojoToProto/" + task.getName() + "/numbering.lock")));
+            task.getIntegerEncodings().set(extension.getIntegerEncodings());
+            task.getEncodingAnnotation().set(extension.getEncodingAnnotation());
+            task.getInferIntegerEncodings().set(extension.getInferIntegerEncodings());
+            task.getUuidEncoding().set(extension.getUuidEncoding());
+            task.getTimestampEncoding().set(extension.getTimestampEncoding());
+            task.getNullableAnnotation().set(extension.getNullableAnnotation());
+            task.getDecimalEncoding().set(extension.getDecimalEncoding());
+            task.getSubtypes().set(extension.getSubtypes());
+            // The group may be set after the plugin is applied, and the configuration cache stores the resolved values
+            task.getProjectName().set(project.provider(project::getName));
+            task.getProjectGroup().set(project.provider(() -> project.getGroup().toString()));
+            task.getParallel().set(extension.getParallel());
+            task.getWorkerBatchSize().set(extension.getWorkerBatchSize());
+            task.getProcessIsolation().set(extension.getProcessIsolation());
+            task.getWorkerMaxHeapSize().set(extension.getWorkerMaxHeapSize());
+            task.getModelCache().set(modelCache);
+            task.getDependencyGraphFile().set(project.getLayout().getBuildDirectory().file("pojoToProto/" + task.getName() + "/dependency-graph.bin"));
+            task.getSchemaIndex().set(project.getLayout().getBuildDirectory().file("pojoToProto/" + task.getName() + "/schema-index.bin"));
+            task.getSchemaIndexes().from(schemaIndexes);
+            task.getMetricsReport().set(project.getLayout().getBuildDirectory().file("reports/pojoToProto/" + task.getName() + "/metrics.json"));
+        });
+
+        project.getTasks().register(UpdateNumberingLockTask.NAME, UpdateNumberingLockTask.class, task -> {
+            task.getUpdatedNumberingLockFile().set(pojoToProto.flatMap(PojoToProtoTask::getUpdatedNumberingLockFile));
+            task.getNumberingLockFile().set(extension.getNumberingLockFile());
+        });
+
+        project.getConfigurations().consumable("pojoToProtoSchemaIndexElements", configuration -> {
+            configuration.getAttributes().attribute(Usage.USAGE_ATTRIBUTE, project.getObjects().named(Usage.class, SCHEMA_INDEX_USAGE));
+            configuration.getOutgoing().artifact(pojoToProto.flatMap(PojoToProtoTask::getSchemaIndex));
         });
     }
 }
@@ -0,0 +1,1181 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Generates a Java class per message that copies between the POJO and the class protoc generates for the message.
+// The copies are plain accessor calls, nested messages are filled in place through the parent builder and enums are
+// converted through their ordinal, which is the enum value number the messages are generated with.
+public class MapperGenerator {
+
+    private static final Map<String, String> BOXED_TYPES = Map.of("int", "Integer", "long", "Long", "double", "Double",
+            "float", "Float", "boolean", "Boolean");
+    private static final Set<String> MAP_KEY_TYPES = Set.of("String", "Integer", "Long", "Boolean");
+
+    private enum Kind {
+        // Same Java type on both sides
+        DIRECT,
+        // Written as its string form
+        STRING,
+        // A well-known message converted by a helper method
+        WELL_KNOWN,
+        // A compact scalar encoding converted by a helper method
+        SCALAR,
+        ENUM,
+        MESSAGE
+    }
+
+    private static final class ValueType {
+
+        private final Kind kind;
+        private final String javaType;
+        private final String protoType;
+        private final String helper;
+        private final SymbolTable.Symbol symbol;
+
+        private ValueType(Kind kind, String javaType, String protoType, String helper, SymbolTable.Symbol symbol) {
+            this.kind = kind;
+            this.javaType = javaType;
+            this.protoType = protoType;
+            this.helper = helper;
+            this.symbol = symbol;
+        }
+    }
+
+    private final FieldEncodings fieldEncodings;
+
+    public MapperGenerator() {
+        this(new FieldEncodings());
+    }
+
+    public MapperGenerator(FieldEncodings fieldEncodings) {
+        this.fieldEncodings = fieldEncodings;
+    }
+
+    // Scalar and enum fields that may be null are proto3 optional fields; messages track presence anyway
+    private static boolean hasPresence(FieldEncodings fieldEncodings, SourceSchema.FieldDefinition field, ValueType value) {
+        return value.kind != Kind.MESSAGE && value.kind != Kind.WELL_KNOWN && fieldEncodings.isNullable(field);
+    }
+
+    public static String getMapperName(String messageName) {
+        return messageName + "Mapper";
+    }
+
+    public static String getViewName(String messageName) {
+        return messageName + "View";
+    }
+
+    // Mappers are only generated for classes and polymorphic types; other interfaces have no fields and cannot be
+    // instantiated
+    public boolean hasMapper(SourceSchema schema) {
+        return schema.getPrimaryTypeName() != null && (schema.getPrimaryKind() == SourceSchema.Kind.CLASS || schema.isPolymorphic());
+    }
+
+    public String generateMapper(SourceSchema schema, SymbolTable symbolTable, String packageName) {
+        if (schema.isPolymorphic()) {
+            return generatePolymorphicMapper(schema, symbolTable, packageName);
+        }
+        return new MapperWriter(schema, symbolTable).write(packageName);
+    }
+
+    // Dispatches on the runtime type of the POJO and on the set field of the oneof to the mappers of the subtypes.
+    // Subtypes are tried in declaration order, so a configured subtype must come before its own subtypes.
+    private String generatePolymorphicMapper(SourceSchema schema, SymbolTable symbolTable, String packageName) {
+        String messageName = schema.getPrimaryTypeName();
+        String mapperName = getMapperName(messageName);
+        String pojoType = schema.getPackageName().isEmpty() ? messageName : schema.getPackageName() + "." + messageName;
+        StringBuilder toProto = new StringBuilder();
+        StringBuilder fromProto = new StringBuilder();
+        StringBuilder unmapped = new StringBuilder();
+        for (SourceSchema.FieldDefinition field : ProtoGenerator.getSubtypeFields(schema)) {
+            ValueType value = toValueType(field.getType(), symbolTable, FieldEncodings.DEFAULT_UUID_ENCODING, FieldEncodings.DEFAULT_TIMESTAMP_ENCODING,
+                    FieldEncodings.DEFAULT_DECIMAL_ENCODING, getDecimalType(packageName));
+            if (value == null || value.kind != Kind.MESSAGE) {
+                unmapped.append("    // ").append(field.getName()).append(": ").append(field.getType()).append(" is not mapped\n");
+                continue;
+            }
+            String accessor = getProtoAccessorName(field.getName());
+            String subtypeMapper = getMapperName(value.protoType);
+            toProto.append(toProto.length() == 0 ? "        if" : " else if").append(" (pojo instanceof ").append(value.javaType).append(") {\n");
+            toProto.append("            ").append(subtypeMapper).append(".toProto((").append(value.javaType).append(") pojo, builder.get")
+                    .append(accessor).append("Builder());\n");
+            toProto.append("        }");
+            fromProto.append("        if (proto.has").append(accessor).append("()) {\n");
+            fromProto.append("            return ").append(subtypeMapper).append(".fromProto(proto.get").append(accessor).append("());\n");
+            fromProto.append("        }\n");
+        }
+        String clear = "builder.clear" + getProtoAccessorName(ProtoGenerator.SUBTYPE_ONEOF) + "();\n";
+        if (toProto.length() == 0) {
+            toProto.append("        ").append(clear);
+        } else {
+            toProto.append(" else {\n");
+            toProto.append("            ").append(clear);
+            toProto.append("        }\n");
+        }
+
+        StringBuilder out = new StringBuilder();
+        if (packageName != null && !packageName.isEmpty()) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+        out.append("public final class ").append(mapperName).append(" {\n\n");
+        out.append(unmapped);
+        if (unmapped.length() > 0) {
+            out.append("\n");
+        }
+        out.append("    private ").append(mapperName).append("() {\n");
+        out.append("    }\n\n");
+
+        out.append("    public static ").append(messageName).append(" toProto(").append(pojoType).append(" pojo) {\n");
+        out.append("        return pojo == null ? null : toProto(pojo, ").append(messageName).append(".newBuilder()).build();\n");
+        out.append("    }\n\n");
+        // A POJO of an unknown subtype clears the oneof
+        out.append("    public static ").append(messageName).append(".Builder toProto(").append(pojoType).append(" pojo, ")
+                .append(messageName).append(".Builder builder) {\n");
+        out.append(toProto);
+        out.append("        return builder;\n");
+        out.append("    }\n\n");
+
+        out.append("    public static ").append(pojoType).append(" fromProto(").append(messageName).append("OrBuilder proto) {\n");
+        out.append("        if (proto == null) {\n");
+        out.append("            return null;\n");
+        out.append("        }\n");
+        out.append(fromProto);
+        out.append("        return null;\n");
+        out.append("    }\n");
+        out.append("}\n");
+        return out.toString();
+    }
+
+    // Views are read-only types with the getters of the POJO, which read every field from the message on access and
+    // return nested messages as their views. They do not extend the POJO, so it may be final, a record or lack a
+    // no-argument constructor, and none of its initializers run. They share the conversion helpers of the mapper of
+    // the same message, so they are only generated together with it.
+    public String generateView(SourceSchema schema, SymbolTable symbolTable, String packageName) {
+        return new ViewWriter(schema, symbolTable, fieldEncodings).write(packageName);
+    }
+
+    private final class MapperWriter {
+
+        private final SourceSchema schema;
+        private final SymbolTable symbolTable;
+        private final StringBuilder toProto = new StringBuilder();
+        private final StringBuilder fromProto = new StringBuilder();
+        private final Set<String> wellKnownHelpers = new TreeSet<>();
+        private final Map<String, ValueType> scalarHelpers = new TreeMap<>();
+        private final Map<String, SymbolTable.Symbol> enumTables = new TreeMap<>();
+        private String uuidEncoding;
+        private String timestampEncoding;
+        private String decimalEncoding;
+        private String decimalType;
+
+        private MapperWriter(SourceSchema schema, SymbolTable symbolTable) {
+            this.schema = schema;
+            this.symbolTable = symbolTable;
+        }
+
+        private String write(String packageName) {
+            decimalType = getDecimalType(packageName);
+            for (SourceSchema.FieldDefinition field : schema.getFields()) {
+                writeField(field);
+            }
+
+            String messageName = schema.getPrimaryTypeName();
+            String mapperName = getMapperName(messageName);
+            String pojoType = schema.getPackageName().isEmpty() ? messageName : schema.getPackageName() + "." + messageName;
+            StringBuilder out = new StringBuilder();
+            if (packageName != null && !packageName.isEmpty()) {
+                out.append("package ").append(packageName).append(";\n\n");
+            }
+            out.append("public final class ").append(mapperName).append(" {\n\n");
+            for (Map.Entry<String, SymbolTable.Symbol> enumTable : enumTables.entrySet()) {
+                // values() copies the array on every call, so each enum is looked up in a single shared copy
+                String enumType = enumTable.getValue().getFullyQualifiedName();
+                out.append("    private static final ").append(enumType).append("[] ").append(getEnumTableName(enumTable.getValue()))
+                        .append(" = ").append(enumType).append(".values();\n");
+            }
+            if (!enumTables.isEmpty()) {
+                out.append("\n");
+            }
+            out.append("    private ").append(mapperName).append("() {\n");
+            out.append("    }\n\n");
+
+            out.append("    public static ").append(messageName).append(" toProto(").append(pojoType).append(" pojo) {\n");
+            out.append("        return pojo == null ? null : toProto(pojo, ").append(messageName).append(".newBuilder()).build();\n");
+            out.append("    }\n\n");
+            // Every field is set or cleared, so callers can keep a builder and refill it for each POJO
+            out.append("    public static ").append(messageName).append(".Builder toProto(").append(pojoType).append(" pojo, ")
+                    .append(messageName).append(".Builder builder) {\n");
+            out.append(toProto);
+            out.append("        return builder;\n");
+            out.append("    }\n\n");
+
+            out.append("    public static ").append(pojoType).append(" fromProto(").append(messageName).append("OrBuilder proto) {\n");
+            out.append("        return proto == null ? null : fromProto(proto, new ").append(pojoType).append("());\n");
+            out.append("    }\n\n");
+            out.append("    public static ").append(pojoType).append(" fromProto(").append(messageName).append("OrBuilder proto, ")
+                    .append(pojoType).append(" pojo) {\n");
+            out.append(fromProto);
+            out.append("        return pojo;\n");
+            out.append("    }\n");
+
+            for (SymbolTable.Symbol symbol : enumTables.values()) {
+                writeEnumHelper(out, symbol);
+            }
+            for (String helper : wellKnownHelpers) {
+                writeWellKnownHelpers(out, helper, decimalType);
+            }
+            for (ValueType helper : scalarHelpers.values()) {
+                writeScalarHelpers(out, helper);
+            }
+            out.append("}\n");
+            return out.toString();
+        }
+
+        private void writeField(SourceSchema.FieldDefinition field) {
+            TypeDescriptor type = field.getType();
+            String getter = "pojo." + getGetterName(field) + "()";
+            String setter = "pojo." + getSetterName(field);
+            String accessor = getProtoAccessorName(field.getName());
+            String messageName = schema.getPrimaryTypeName();
+            uuidEncoding = fieldEncodings.getUuidEncoding(messageName, field);
+            timestampEncoding = fieldEncodings.getTimestampEncoding(messageName, field);
+            decimalEncoding = fieldEncodings.getDecimalEncoding(messageName, field);
+            if (fieldEncodings.isUuidPair(messageName, field)) {
+                writeUuidPairField(getter, setter, accessor, fieldEncodings.isNullable(field));
+                return;
+            }
+            TypeDescriptor elementType = ProtoGenerator.getElementType(type);
+            TypeDescriptor optionalType = ProtoGenerator.getOptionalType(type);
+            if (elementType != null) {
+                ValueType element = getValueType(elementType);
+                if (element != null) {
+                    writeRepeatedField(type, elementType, element, getter, setter, accessor);
+                    return;
+                }
+            } else if (ProtoGenerator.isMap(type)) {
+                ValueType key = getValueType(type.getTypeArguments().get(0));
+                ValueType value = getValueType(type.getTypeArguments().get(1));
+                if (key != null && key.kind == Kind.DIRECT && MAP_KEY_TYPES.contains(key.javaType) && value != null) {
+                    writeMapField(type, key, value, getter, setter, accessor);
+                    return;
+                }
+            } else if (optionalType != null) {
+                ValueType value = getValueType(optionalType);
+                if (value != null) {
+                    writeOptionalField(type, value, getter, setter, accessor);
+                    return;
+                }
+            } else {
+                ValueType value = getValueType(type);
+                if (value != null) {
+                    writeSingularField(field, value, getter, setter, accessor);
+                    return;
+                }
+            }
+            toProto.append("        // ").append(field.getName()).append(": ").append(type).append(" is not mapped\n");
+            fromProto.append("        // ").append(field.getName()).append(": ").append(type).append(" is not mapped\n");
+        }
+
+        private void writeSingularField(SourceSchema.FieldDefinition field, ValueType value, String getter, String setter, String accessor) {
+            if (value.kind == Kind.DIRECT && BOXED_TYPES.containsKey(field.getType().getName())) {
+                toProto.append("        builder.set").append(accessor).append("(").append(getter).append(");\n");
+            } else {
+                toProto.append("        if (").append(getter).append(" != null) {\n");
+                writeSetValue(value, getter, accessor);
+                toProto.append("        } else {\n");
+                toProto.append("            builder.clear").append(accessor).append("();\n");
+                toProto.append("        }\n");
+            }
+
+            String protoValue = "proto.get" + accessor + "()";
+            if (hasPresence(fieldEncodings, field, value)) {
+                String presentValue = value.kind == Kind.ENUM ? "proto.get" + accessor + "Value()" : protoValue;
+                fromProto.append("        ").append(setter).append("(proto.has").append(accessor).append("() ? ")
+                        .append(fromProtoValue(value, presentValue)).append(" : null);\n");
+                return;
+            }
+            switch (value.kind) {
+                case ENUM:
+                    fromProto.append("        ").append(setter).append("(").append(fromProtoValue(value, "proto.get" + accessor + "Value()")).append(");\n");
+                    break;
+                case MESSAGE:
+                case WELL_KNOWN:
+                    fromProto.append("        ").append(setter).append("(proto.has").append(accessor).append("() ? ")
+                            .append(fromProtoValue(value, protoValue)).append(" : null);\n");
+                    break;
+                case STRING:
+                    fromProto.append("        ").append(setter).append("(").append(protoValue).append(".isEmpty() ? null : ")
+                            .append(fromProtoValue(value, protoValue)).append(");\n");
+                    break;
+                case SCALAR:
+                    fromProto.append("        ").append(setter).append("(").append(isDefaultValue(value, protoValue)).append(" ? null : ")
+                            .append(fromProtoValue(value, protoValue)).append(");\n");
+                    break;
+                default:
+                    fromProto.append("        ").append(setter).append("(").append(protoValue).append(");\n");
+                    break;
+            }
+        }
+
+        private void writeSetValue(ValueType value, String expression, String accessor) {
+            switch (value.kind) {
+                case ENUM:
+                    toProto.append("            builder.set").append(accessor).append("Value(").append(expression).append(".ordinal());\n");
+                    break;
+                case MESSAGE:
+                case WELL_KNOWN:
+                    toProto.append("            ").append(toProtoCall(value, expression, "builder.get" + accessor + "Builder()")).append(";\n");
+                    break;
+                default:
+                    toProto.append("            builder.set").append(accessor).append("(").append(toProtoValue(value, expression)).append(");\n");
+                    break;
+            }
+        }
+
+        // Optional values are written as proto3 optional fields, so an empty Optional and a default value stay apart
+        private void writeOptionalField(TypeDescriptor type, ValueType value, String getter, String setter, String accessor) {
+            String optionalType = getOptionalClassName(type);
+            toProto.append("        if (").append(getter).append(" != null && ").append(getter).append(".isPresent()) {\n");
+            writeSetValue(value, getter + getOptionalGetter(type), accessor);
+            toProto.append("        } else {\n");
+            toProto.append("            builder.clear").append(accessor).append("();\n");
+            toProto.append("        }\n");
+
+            String protoValue = value.kind == Kind.ENUM ? "proto.get" + accessor + "Value()" : "proto.get" + accessor + "()";
+            // Enum numbers unknown to the POJO convert to null
+            String of = type.isGeneric("Optional", 1) ? ".ofNullable(" : ".of(";
+            fromProto.append("        ").append(setter).append("(proto.has").append(accessor).append("() ? ").append(optionalType).append(of)
+                    .append(fromProtoValue(value, protoValue)).append(") : ").append(optionalType).append(".empty());\n");
+        }
+
+        // Both halves are set or cleared together; a zero UUID reads back as null unless the halves track presence
+        private void writeUuidPairField(String getter, String setter, String accessor, boolean nullable) {
+            toProto.append("        if (").append(getter).append(" != null) {\n");
+            toProto.append("            builder.set").append(accessor).append("Msb(").append(getter).append(".getMostSignificantBits());\n");
+            toProto.append("            builder.set").append(accessor).append("Lsb(").append(getter).append(".getLeastSignificantBits());\n");
+            toProto.append("        } else {\n");
+            toProto.append("            builder.clear").append(accessor).append("Msb();\n");
+            toProto.append("            builder.clear").append(accessor).append("Lsb();\n");
+            toProto.append("        }\n");
+            fromProto.append("        ").append(setter).append("(").append(fromUuidPair(accessor, nullable)).append(");\n");
+        }
+
+        // Primitive arrays are copied element by element through the primitive accessors, so no value is boxed
+        private void writeRepeatedField(TypeDescriptor type, TypeDescriptor elementType, ValueType element, String getter, String setter, String accessor) {
+            String elementJavaType = getElementJavaType(elementType, element);
+            toProto.append("        builder.clear").append(accessor).append("();\n");
+            toProto.append("        if (").append(getter).append(" != null) {\n");
+            if (element.kind == Kind.DIRECT && !type.isArray()) {
+                toProto.append("            builder.addAll").append(accessor).append("(").append(getter).append(");\n");
+            } else {
+                toProto.append("            for (").append(elementJavaType).append(" value : ").append(getter).append(") {\n");
+                switch (element.kind) {
+                    case ENUM:
+                        toProto.append("                builder.add").append(accessor).append("Value(value.ordinal());\n");
+                        break;
+                    case MESSAGE:
+                    case WELL_KNOWN:
+                        toProto.append("                ").append(toProtoCall(element, "value", "builder.add" + accessor + "Builder()")).append(";\n");
+                        break;
+                    default:
+                        toProto.append("                builder.add").append(accessor).append("(").append(toProtoValue(element, "value")).append(");\n");
+                        break;
+                }
+                toProto.append("            }\n");
+            }
+            toProto.append("        }\n");
+
+            String collectionType = getCollectionType(type);
+            if (element.kind == Kind.DIRECT && !type.isArray()) {
+                fromProto.append("        ").append(setter).append("(new ").append(collectionType).append("<>(proto.get").append(accessor).append("List()));\n");
+                return;
+            }
+            String protoValue = element.kind == Kind.ENUM ? "proto.get" + accessor + "Value(i)" : "proto.get" + accessor + "(i)";
+            if (type.isArray()) {
+                String array = getLocalName(accessor, "Array");
+                fromProto.append("        ").append(elementJavaType).append("[] ").append(array).append(" = ")
+                        .append(newArray(elementJavaType, "proto.get" + accessor + "Count()")).append(";\n");
+                fromProto.append("        for (int i = 0; i < ").append(array).append(".length; i++) {\n");
+                fromProto.append("            ").append(array).append("[i] = ").append(fromProtoValue(element, protoValue)).append(";\n");
+                fromProto.append("        }\n");
+                fromProto.append("        ").append(setter).append("(").append(array).append(");\n");
+                return;
+            }
+            // Indexed access avoids an iterator per list
+            String list = getLocalName(accessor, collectionType.endsWith("Set") ? "Set" : "List");
+            fromProto.append("        java.util.").append(type.getSimpleName()).append("<").append(element.javaType).append("> ").append(list)
+                    .append(" = new ").append(collectionType).append("<>(").append(getCapacity(collectionType, accessor)).append(");\n");
+            fromProto.append("        for (int i = 0, n = proto.get").append(accessor).append("Count(); i < n; i++) {\n");
+            fromProto.append("            ").append(list).append(".add(").append(fromProtoValue(element, protoValue)).append(");\n");
+            fromProto.append("        }\n");
+            fromProto.append("        ").append(setter).append("(").append(list).append(");\n");
+        }
+
+        private void writeMapField(TypeDescriptor type, ValueType key, ValueType value, String getter, String setter, String accessor) {
+            toProto.append("        builder.clear").append(accessor).append("();\n");
+            toProto.append("        if (").append(getter).append(" != null) {\n");
+            if (value.kind == Kind.DIRECT) {
+                toProto.append("            builder.putAll").append(accessor).append("(").append(getter).append(");\n");
+            } else {
+                toProto.append("            for (java.util.Map.Entry<").append(key.javaType).append(", ").append(value.javaType)
+                        .append("> entry : ").append(getter).append(".entrySet()) {\n");
+                String put = value.kind == Kind.ENUM ? "put" + accessor + "Value" : "put" + accessor;
+                toProto.append("                builder.").append(put).append("(entry.getKey(), ").append(toProtoValue(value, "entry.getValue()")).append(");\n");
+                toProto.append("            }\n");
+            }
+            toProto.append("        }\n");
+
+            String mapType = "java.util." + (type.getSimpleName().equals("Map") ? "HashMap" : type.getSimpleName());
+            if (value.kind == Kind.DIRECT) {
+                fromProto.append("        ").append(setter).append("(new ").append(mapType).append("<>(proto.get").append(accessor).append("Map()));\n");
+                return;
+            }
+            String map = getLocalName(accessor, "Map");
+            String capacity = mapType.endsWith("TreeMap") ? "" : "(int) (proto.get" + accessor + "Count() / 0.75f) + 1";
+            String protoEntries = value.kind == Kind.ENUM ? "proto.get" + accessor + "ValueMap()" : "proto.get" + accessor + "Map()";
+            String protoValueType = value.kind == Kind.ENUM ? "Integer" : value.protoType;
+            // The local has the declared type, which the setter may require
+            String localType = "java.util." + type.getSimpleName();
+            fromProto.append("        ").append(localType).append("<").append(key.javaType).append(", ").append(value.javaType).append("> ").append(map)
+                    .append(" = new ").append(mapType).append("<>(").append(capacity).append(");\n");
+            fromProto.append("        for (java.util.Map.Entry<").append(key.javaType).append(", ").append(protoValueType)
+                    .append("> entry : ").append(protoEntries).append(".entrySet()) {\n");
+            fromProto.append("            ").append(map).append(".put(entry.getKey(), ").append(fromProtoValue(value, "entry.getValue()")).append(");\n");
+            fromProto.append("        }\n");
+            fromProto.append("        ").append(setter).append("(").append(map).append(");\n");
+        }
+
+        private String toProtoValue(ValueType value, String expression) {
+            switch (value.kind) {
+                case STRING:
+                    return expression + ".toString()";
+                case ENUM:
+                    return expression + ".ordinal()";
+                case MESSAGE:
+                case WELL_KNOWN:
+                    return toProtoCall(value, expression, value.protoType + ".newBuilder()") + ".build()";
+                case SCALAR:
+                    scalarHelpers.put(value.helper, value);
+                    return value.helper + "ToProto(" + expression + ")";
+                default:
+                    return expression;
+            }
+        }
+
+        private String toProtoCall(ValueType value, String expression, String builder) {
+            if (value.kind == Kind.MESSAGE) {
+                return getMapperName(value.protoType) + ".toProto(" + expression + ", " + builder + ")";
+            }
+            wellKnownHelpers.add(value.helper);
+            return value.helper + "ToProto(" + expression + ", " + builder + ")";
+        }
+
+        private String fromProtoValue(ValueType value, String expression) {
+            switch (value.kind) {
+                case STRING:
+                case ENUM:
+                    return value.helper + "(" + expression + ")";
+                case MESSAGE:
+                    return getMapperName(value.protoType) + ".fromProto(" + expression + ")";
+                case WELL_KNOWN:
+                    wellKnownHelpers.add(value.helper);
+                    return value.helper + "FromProto(" + expression + ")";
+                case SCALAR:
+                    scalarHelpers.put(value.helper, value);
+                    return value.helper + "FromProto(" + expression + ")";
+                default:
+                    return expression;
+            }
+        }
+
+        private ValueType getValueType(TypeDescriptor type) {
+            ValueType value = toValueType(type, symbolTable, uuidEncoding, timestampEncoding, decimalEncoding, decimalType);
+            if (value != null && value.kind == Kind.ENUM) {
+                enumTables.put(value.javaType, value.symbol);
+            }
+            return value;
+        }
+
+    }
+
+    private static ValueType toValueType(TypeDescriptor type, SymbolTable symbolTable, String uuidEncoding, String timestampEncoding, String decimalEncoding,
+                                         String decimalType) {
+        if (ProtoGenerator.isBytes(type)) {
+            return type.isArray()
+                    ? new ValueType(Kind.SCALAR, "byte[]", "com.google.protobuf.ByteString", "bytes", null)
+                    : new ValueType(Kind.SCALAR, "java.nio.ByteBuffer", "com.google.protobuf.ByteString", "byteBuffer", null);
+        }
+        if (type.isArray() || !type.getTypeArguments().isEmpty()) {
+            return null;
+        }
+        String javaType = type.getName();
+        SymbolTable.Symbol symbol = symbolTable != null ? symbolTable.resolve(javaType) : null;
+        if (symbol != null && symbol.isEnum()) {
+            return new ValueType(Kind.ENUM, symbol.getFullyQualifiedName(), symbol.getNestedName(), getEnumHelperName(symbol), symbol);
+        }
+        switch (javaType) {
+            case "String":
+            case "Integer":
+            case "Long":
+            case "Double":
+            case "Float":
+            case "Boolean":
+                return new ValueType(Kind.DIRECT, javaType, javaType, null, null);
+            case "int":
+            case "long":
+            case "double":
+            case "float":
+            case "boolean":
+                return new ValueType(Kind.DIRECT, BOXED_TYPES.get(javaType), javaType, null, null);
+            case "UUID":
+                if (!FieldEncodings.DEFAULT_UUID_ENCODING.equals(uuidEncoding)) {
+                    // Elements of lists and maps cannot be split in two, so fixed64 falls back to the 16 bytes
+                    return new ValueType(Kind.SCALAR, "java.util.UUID", "com.google.protobuf.ByteString", "uuidBytes", null);
+                }
+                return new ValueType(Kind.STRING, "java.util.UUID", "String", "java.util.UUID.fromString", null);
+            case "Period":
+                return new ValueType(Kind.STRING, "java.time.Period", "String", "java.time.Period.parse", null);
+            case "Instant":
+            case "ZonedDateTime":
+            case "LocalDateTime":
+                if (!FieldEncodings.DEFAULT_TIMESTAMP_ENCODING.equals(timestampEncoding)) {
+                    String unit = timestampEncoding.endsWith("-micros") ? "Micros" : "Millis";
+                    return new ValueType(Kind.SCALAR, "java.time." + javaType, "Long", Character.toLowerCase(javaType.charAt(0)) + javaType.substring(1) + unit, null);
+                }
+                return wellKnown(javaType, "com.google.protobuf.Timestamp");
+            case "LocalDate":
+                return wellKnown(javaType, "com.google.type.Date");
+            case "LocalTime":
+                return wellKnown(javaType, "com.google.type.TimeOfDay");
+            case "Duration":
+                return wellKnown(javaType, "com.google.protobuf.Duration");
+            case "BigDecimal":
+            case "BigInteger":
+                return toDecimalValueType(javaType, decimalEncoding, decimalType);
+            default:
+                // Types outside of the source set and the schema indexes have no mapper to delegate to
+                if (symbol == null || symbol.isExternal() && !symbol.hasMapper()) {
+                    return null;
+                }
+                String protoType = symbol.isExternal() ? symbol.getProtoName() : symbol.getNestedName();
+                return new ValueType(Kind.MESSAGE, symbol.getFullyQualifiedName(), protoType, null, symbol);
+        }
+    }
+
+    // The Decimal message has a package of its own below the java_package of the mappers
+    private static String getDecimalType(String packageName) {
+        return ProtoGenerator.getSharedPackage(packageName) + ".Decimal";
+    }
+
+    private static ValueType toDecimalValueType(String javaType, String decimalEncoding, String decimalType) {
+        String helper = Character.toLowerCase(javaType.charAt(0)) + javaType.substring(1);
+        switch (decimalEncoding) {
+            case "string":
+                return new ValueType(Kind.STRING, "java.math." + javaType, "String", "new java.math." + javaType, null);
+            case "bytes":
+                return new ValueType(Kind.SCALAR, "java.math.BigInteger", "com.google.protobuf.ByteString", "bigIntegerBytes", null);
+            case "sint64":
+                return new ValueType(Kind.SCALAR, "java.math.BigInteger", "Long", "bigIntegerLong", null);
+            default:
+                return new ValueType(Kind.WELL_KNOWN, "java.math." + javaType, decimalType, helper, null);
+        }
+    }
+
+    private static ValueType wellKnown(String javaType, String protoType) {
+        return new ValueType(Kind.WELL_KNOWN, "java.time." + javaType, protoType, Character.toLowerCase(javaType.charAt(0)) + javaType.substring(1), null);
+    }
+
+    private static final class ViewWriter {
+
+        private final SourceSchema schema;
+        private final SymbolTable symbolTable;
+        private final FieldEncodings fieldEncodings;
+        private final String mapperName;
+        private final String viewName;
+        private final StringBuilder fields = new StringBuilder();
+        private final StringBuilder getters = new StringBuilder();
+        private String uuidEncoding;
+        private String timestampEncoding;
+        private String decimalEncoding;
+        private String decimalType;
+
+        private ViewWriter(SourceSchema schema, SymbolTable symbolTable, FieldEncodings fieldEncodings) {
+            this.schema = schema;
+            this.symbolTable = symbolTable;
+            this.fieldEncodings = fieldEncodings;
+            this.mapperName = getMapperName(schema.getPrimaryTypeName());
+            this.viewName = getViewName(schema.getPrimaryTypeName());
+        }
+
+        private String write(String packageName) {
+            decimalType = getDecimalType(packageName);
+            for (SourceSchema.FieldDefinition field : schema.getFields()) {
+                writeField(field);
+            }
+
+            String messageName = schema.getPrimaryTypeName();
+            StringBuilder out = new StringBuilder();
+            if (packageName != null && !packageName.isEmpty()) {
+                out.append("package ").append(packageName).append(";\n\n");
+            }
+            out.append("public final class ").append(viewName).append(" {\n\n");
+            out.append("    private final ").append(messageName).append(" proto;\n");
+            out.append(fields);
+            out.append("\n");
+            out.append("    public ").append(viewName).append("(").append(messageName).append(" proto) {\n");
+            out.append("        this.proto = proto;\n");
+            out.append("    }\n");
+            out.append(getters);
+            out.append("}\n");
+            return out.toString();
+        }
+
+        private void writeField(SourceSchema.FieldDefinition field) {
+            TypeDescriptor type = field.getType();
+            String accessor = getProtoAccessorName(field.getName());
+            String cache = field.getName() + "View";
+            String javaType = null;
+            StringBuilder body = new StringBuilder();
+            String messageName = schema.getPrimaryTypeName();
+            uuidEncoding = fieldEncodings.getUuidEncoding(messageName, field);
+            timestampEncoding = fieldEncodings.getTimestampEncoding(messageName, field);
+            decimalEncoding = fieldEncodings.getDecimalEncoding(messageName, field);
+            if (fieldEncodings.isUuidPair(messageName, field)) {
+                javaType = "java.util.UUID";
+                body.append("        return ").append(fromUuidPair(accessor, fieldEncodings.isNullable(field))).append(";\n");
+            } else if (ProtoGenerator.getElementType(type) != null) {
+                TypeDescriptor elementType = ProtoGenerator.getElementType(type);
+                ValueType element = getValueType(elementType);
+                if (element != null && type.isArray()) {
+                    javaType = getViewElementType(elementType, element) + "[]";
+                    writeCopiedGetter(body, type, elementType, element, accessor, javaType, cache);
+                } else if (element != null) {
+                    javaType = "java.util." + type.getSimpleName() + "<" + getViewType(element) + ">";
+                    // Lists and collections are backed by the message, other collection types are filled on first access
+                    if (type.getSimpleName().equals("List") || type.getSimpleName().equals("Collection")) {
+                        writeRepeatedGetter(body, element, accessor, javaType, cache);
+                    } else {
+                        writeCopiedGetter(body, type, elementType, element, accessor, javaType, cache);
+                    }
+                }
+            } else if (ProtoGenerator.getOptionalType(type) != null) {
+                ValueType value = getValueType(ProtoGenerator.getOptionalType(type));
+                if (value != null) {
+                    String optionalType = getOptionalClassName(type);
+                    javaType = type.isGeneric("Optional", 1) ? optionalType + "<" + getViewType(value) + ">" : optionalType;
+                    String protoValue = value.kind == Kind.ENUM ? "proto.get" + accessor + "Value()" : "proto.get" + accessor + "()";
+                    String of = type.isGeneric("Optional", 1) ? ".ofNullable(" : ".of(";
+                    body.append("        return proto.has").append(accessor).append("() ? ").append(optionalType).append(of)
+                            .append(fromProtoValue(value, protoValue)).append(") : ").append(optionalType).append(".empty();\n");
+                }
+            } else if (ProtoGenerator.isMap(type)) {
+                ValueType key = getValueType(type.getTypeArguments().get(0));
+                ValueType value = getValueType(type.getTypeArguments().get(1));
+                if (key != null && key.kind == Kind.DIRECT && MAP_KEY_TYPES.contains(key.javaType) && value != null) {
+                    javaType = "java.util." + type.getSimpleName() + "<" + key.javaType + ", " + getViewType(value) + ">";
+                    writeMapGetter(body, type, key, value, accessor, javaType, cache);
+                }
+            } else {
+                ValueType value = getValueType(type);
+                if (value != null) {
+                    javaType = BOXED_TYPES.containsKey(type.getName()) ? type.getName() : getViewType(value);
+                    if (hasPresence(fieldEncodings, field, value)) {
+                        String protoValue = value.kind == Kind.ENUM ? "proto.get" + accessor + "Value()" : "proto.get" + accessor + "()";
+                        body.append("        return proto.has").append(accessor).append("() ? ").append(fromProtoValue(value, protoValue)).append(" : null;\n");
+                    } else {
+                        writeSingularGetter(body, value, accessor, cache);
+                    }
+                }
+            }
+            if (javaType == null) {
+                getters.append("\n    // ").append(field.getName()).append(": ").append(type).append(" is not mapped\n");
+                return;
+            }
+            getters.append("\n    public ").append(javaType).append(" ").append(getGetterName(field)).append("() {\n");
+            getters.append(body);
+            getters.append("    }\n");
+        }
+
+        // Polymorphic messages have no view, their POJOs are built by their mapper
+        private String getViewType(ValueType value) {
+            return value.kind == Kind.MESSAGE && !value.symbol.isPolymorphic() ? getViewName(value.protoType) : value.javaType;
+        }
+
+        private String getViewElementType(TypeDescriptor elementType, ValueType element) {
+            return element.kind == Kind.MESSAGE ? getViewType(element) : getElementJavaType(elementType, element);
+        }
+
+        private ValueType getValueType(TypeDescriptor type) {
+            ValueType value = toValueType(type, symbolTable, uuidEncoding, timestampEncoding, decimalEncoding, decimalType);
+            if (value != null && value.kind == Kind.MESSAGE && value.symbol.isExternal() && !value.symbol.hasView() && !value.symbol.isPolymorphic()) {
+                return null;
+            }
+            return value;
+        }
+
+        private void writeSingularGetter(StringBuilder body, ValueType value, String accessor, String cache) {
+            String protoValue = "proto.get" + accessor + "()";
+            switch (value.kind) {
+                case MESSAGE:
+                    if (value.symbol.isPolymorphic()) {
+                        body.append("        return proto.has").append(accessor).append("() ? ").append(fromProtoValue(value, protoValue)).append(" : null;\n");
+                        break;
+                    }
+                    String nestedView = getViewName(value.protoType);
+                    fields.append("    private ").append(nestedView).append(" ").append(cache).append(";\n");
+                    body.append("        if (").append(cache).append(" == null && proto.has").append(accessor).append("()) {\n");
+                    body.append("            ").append(cache).append(" = new ").append(nestedView).append("(").append(protoValue).append(");\n");
+                    body.append("        }\n");
+                    body.append("        return ").append(cache).append(";\n");
+                    break;
+                case WELL_KNOWN:
+                    body.append("        return proto.has").append(accessor).append("() ? ").append(fromProtoValue(value, protoValue)).append(" : null;\n");
+                    break;
+                case STRING:
+                    body.append("        return ").append(protoValue).append(".isEmpty() ? null : ").append(fromProtoValue(value, protoValue)).append(";\n");
+                    break;
+                case SCALAR:
+                    body.append("        return ").append(isDefaultValue(value, protoValue)).append(" ? null : ").append(fromProtoValue(value, protoValue)).append(";\n");
+                    break;
+                case ENUM:
+                    body.append("        return ").append(fromProtoValue(value, "proto.get" + accessor + "Value()")).append(";\n");
+                    break;
+                default:
+                    body.append("        return ").append(protoValue).append(";\n");
+                    break;
+            }
+        }
+
+        // Elements are converted when they are read; message elements are wrapped once and kept
+        private void writeRepeatedGetter(StringBuilder body, ValueType element, String accessor, String javaType, String cache) {
+            if (element.kind == Kind.DIRECT) {
+                body.append("        return proto.get").append(accessor).append("List();\n");
+                return;
+            }
+            fields.append("    private ").append(javaType).append(" ").append(cache).append(";\n");
+            body.append("        if (").append(cache).append(" == null) {\n");
+            body.append("            ").append(cache).append(" = new java.util.AbstractList<").append(getViewType(element)).append(">() {\n");
+            if (element.kind == Kind.MESSAGE && !element.symbol.isPolymorphic()) {
+                String elementView = getViewName(element.protoType);
+                body.append("                private final ").append(elementView).append("[] elements = new ").append(elementView)
+                        .append("[proto.get").append(accessor).append("Count()];\n\n");
+                body.append("                @Override\n");
+                body.append("                public ").append(getViewType(element)).append(" get(int index) {\n");
+                body.append("                    if (elements[index] == null) {\n");
+                body.append("                        elements[index] = new ").append(elementView).append("(proto.get").append(accessor).append("(index));\n");
+                body.append("                    }\n");
+                body.append("                    return elements[index];\n");
+                body.append("                }\n\n");
+                body.append("                @Override\n");
+                body.append("                public int size() {\n");
+                body.append("                    return elements.length;\n");
+                body.append("                }\n");
+            } else {
+                String protoValue = element.kind == Kind.ENUM ? "proto.get" + accessor + "Value(index)" : "proto.get" + accessor + "(index)";
+                body.append("                @Override\n");
+                body.append("                public ").append(element.javaType).append(" get(int index) {\n");
+                body.append("                    return ").append(fromProtoValue(element, protoValue)).append(";\n");
+                body.append("                }\n\n");
+                body.append("                @Override\n");
+                body.append("                public int size() {\n");
+                body.append("                    return proto.get").append(accessor).append("Count();\n");
+                body.append("                }\n");
+            }
+            body.append("            };\n");
+            body.append("        }\n");
+            body.append("        return ").append(cache).append(";\n");
+        }
+
+        private void writeCopiedGetter(StringBuilder body, TypeDescriptor type, TypeDescriptor elementType, ValueType element, String accessor,
+                                       String javaType, String cache) {
+            String protoValue = element.kind == Kind.ENUM ? "proto.get" + accessor + "Value(i)" : "proto.get" + accessor + "(i)";
+            fields.append("    private ").append(javaType).append(" ").append(cache).append(";\n");
+            body.append("        if (").append(cache).append(" == null) {\n");
+            if (type.isArray()) {
+                String elementJavaType = getViewElementType(elementType, element);
+                body.append("            ").append(javaType).append(" values = ").append(newArray(elementJavaType, "proto.get" + accessor + "Count()")).append(";\n");
+                body.append("            for (int i = 0; i < values.length; i++) {\n");
+                body.append("                values[i] = ").append(fromProtoValue(element, protoValue)).append(";\n");
+                body.append("            }\n");
+                body.append("            ").append(cache).append(" = values;\n");
+            } else {
+                String collectionType = getCollectionType(type);
+                if (element.kind == Kind.DIRECT) {
+                    body.append("            ").append(cache).append(" = new ").append(collectionType).append("<>(proto.get").append(accessor).append("List());\n");
+                } else {
+                    body.append("            ").append(javaType).append(" values = new ").append(collectionType).append("<>(")
+                            .append(getCapacity(collectionType, accessor)).append(");\n");
+                    body.append("            for (int i = 0, n = proto.get").append(accessor).append("Count(); i < n; i++) {\n");
+                    body.append("                values.add(").append(fromProtoValue(element, protoValue)).append(");\n");
+                    body.append("            }\n");
+                    body.append("            ").append(cache).append(" = values;\n");
+                }
+            }
+            body.append("        }\n");
+            body.append("        return ").append(cache).append(";\n");
+        }
+
+        // Maps are built on first access, with message values wrapped in views
+        private void writeMapGetter(StringBuilder body, TypeDescriptor type, ValueType key, ValueType value, String accessor, String javaType, String cache) {
+            boolean declaredAsMap = type.getSimpleName().equals("Map");
+            if (value.kind == Kind.DIRECT && declaredAsMap) {
+                body.append("        return proto.get").append(accessor).append("Map();\n");
+                return;
+            }
+            String mapType = "java.util." + (declaredAsMap ? "HashMap" : type.getSimpleName());
+            fields.append("    private ").append(javaType).append(" ").append(cache).append(";\n");
+            body.append("        if (").append(cache).append(" == null) {\n");
+            if (value.kind == Kind.DIRECT) {
+                body.append("            ").append(cache).append(" = new ").append(mapType).append("<>(proto.get").append(accessor).append("Map());\n");
+            } else {
+                String capacity = mapType.endsWith("TreeMap") ? "" : "(int) (proto.get" + accessor + "Count() / 0.75f) + 1";
+                String protoEntries = value.kind == Kind.ENUM ? "proto.get" + accessor + "ValueMap()" : "proto.get" + accessor + "Map()";
+                String protoValueType = value.kind == Kind.ENUM ? "Integer" : value.protoType;
+                body.append("            ").append(javaType).append(" map = new ").append(mapType).append("<>(").append(capacity).append(");\n");
+                body.append("            for (java.util.Map.Entry<").append(key.javaType).append(", ").append(protoValueType)
+                        .append("> entry : ").append(protoEntries).append(".entrySet()) {\n");
+                body.append("                map.put(entry.getKey(), ").append(fromProtoValue(value, "entry.getValue()")).append(");\n");
+                body.append("            }\n");
+                body.append("            ").append(cache).append(" = map;\n");
+            }
+            body.append("        }\n");
+            body.append("        return ").append(cache).append(";\n");
+        }
+
+        private String fromProtoValue(ValueType value, String expression) {
+            switch (value.kind) {
+                case STRING:
+                    return value.helper + "(" + expression + ")";
+                case ENUM:
+                    return mapperName + "." + value.helper + "(" + expression + ")";
+                case WELL_KNOWN:
+                case SCALAR:
+                    return mapperName + "." + value.helper + "FromProto(" + expression + ")";
+                case MESSAGE:
+                    // Polymorphic messages have no view, their POJOs are built by their mapper
+                    if (value.symbol.isPolymorphic()) {
+                        return getMapperName(value.protoType) + ".fromProto(" + expression + ")";
+                    }
+                    return "new " + getViewName(value.protoType) + "(" + expression + ")";
+                default:
+                    return expression;
+            }
+        }
+    }
+
+    // Numbers written by a newer schema that this POJO does not know map to null. The helpers are package-private so
+    // that the view of the message can share them.
+    private static void writeEnumHelper(StringBuilder out, SymbolTable.Symbol symbol) {
+        String table = getEnumTableName(symbol);
+        out.append("\n    static ").append(symbol.getFullyQualifiedName()).append(" ").append(getEnumHelperName(symbol)).append("(int number) {\n");
+        out.append("        return number >= 0 && number < ").append(table).append(".length ? ").append(table).append("[number] : null;\n");
+        out.append("    }\n");
+    }
+
+    private static void writeWellKnownHelpers(StringBuilder out, String helper, String decimalType) {
+        String toProto;
+        String fromProto;
+        switch (helper) {
+            case "instant":
+                toProto = "com.google.protobuf.Timestamp.Builder instantToProto(java.time.Instant value, com.google.protobuf.Timestamp.Builder builder) {\n"
+                        + "        return builder.setSeconds(value.getEpochSecond()).setNanos(value.getNano());\n";
+                fromProto = "java.time.Instant instantFromProto(com.google.protobuf.Timestamp value) {\n"
+                        + "        return java.time.Instant.ofEpochSecond(value.getSeconds(), value.getNanos());\n";
+                break;
+            case "zonedDateTime":
+                // The zone is not part of a Timestamp, so values are read back in UTC
+                toProto = "com.google.protobuf.Timestamp.Builder zonedDateTimeToProto(java.time.ZonedDateTime value, com.google.protobuf.Timestamp.Builder builder) {\n"
+                        + "        return builder.setSeconds(value.toEpochSecond()).setNanos(value.getNano());\n";
+                fromProto = "java.time.ZonedDateTime zonedDateTimeFromProto(com.google.protobuf.Timestamp value) {\n"
+                        + "        return java.time.ZonedDateTime.ofInstant(java.time.Instant.ofEpochSecond(value.getSeconds(), value.getNanos()), java.time.ZoneOffset.UTC);\n";
+                break;
+            case "localDateTime":
+                toProto = "com.google.protobuf.Timestamp.Builder localDateTimeToProto(java.time.LocalDateTime value, com.google.protobuf.Timestamp.Builder builder) {\n"
+                        + "        return builder.setSeconds(value.toEpochSecond(java.time.ZoneOffset.UTC)).setNanos(value.getNano());\n";
+                fromProto = "java.time.LocalDateTime localDateTimeFromProto(com.google.protobuf.Timestamp value) {\n"
+                        + "        return java.time.LocalDateTime.ofEpochSecond(value.getSeconds(), value.getNanos(), java.time.ZoneOffset.UTC);\n";
+                break;
+            case "localDate":
+                toProto = "com.google.type.Date.Builder localDateToProto(java.time.LocalDate value, com.google.type.Date.Builder builder) {\n"
+                        + "        return builder.setYear(value.getYear()).setMonth(value.getMonthValue()).setDay(value.getDayOfMonth());\n";
+                fromProto = "java.time.LocalDate localDateFromProto(com.google.type.Date value) {\n"
+                        + "        return java.time.LocalDate.of(value.getYear(), value.getMonth(), value.getDay());\n";
+                break;
+            case "localTime":
+                toProto = "com.google.type.TimeOfDay.Builder localTimeToProto(java.time.LocalTime value, com.google.type.TimeOfDay.Builder builder) {\n"
+                        + "        return builder.setHours(value.getHour()).setMinutes(value.getMinute()).setSeconds(value.getSecond()).setNanos(value.getNano());\n";
+                fromProto = "java.time.LocalTime localTimeFromProto(com.google.type.TimeOfDay value) {\n"
+                        + "        return java.time.LocalTime.of(value.getHours(), value.getMinutes(), value.getSeconds(), value.getNanos());\n";
+                break;
+            case "bigDecimal":
+                // Unscaled values that fit in a long skip the byte array; valueOf reads them back without a BigInteger
+                toProto = decimalType + ".Builder bigDecimalToProto(java.math.BigDecimal value, " + decimalType + ".Builder builder) {\n"
+                        + "        return unscaledToProto(value.unscaledValue(), builder).setScale(value.scale());\n";
+                fromProto = "java.math.BigDecimal bigDecimalFromProto(" + decimalType + " value) {\n"
+                        + "        if (value.getUnscaledBytes().isEmpty()) {\n"
+                        + "            return java.math.BigDecimal.valueOf(value.getUnscaledLong(), value.getScale());\n"
+                        + "        }\n"
+                        + "        return new java.math.BigDecimal(new java.math.BigInteger(value.getUnscaledBytes().toByteArray()), value.getScale());\n";
+                break;
+            case "bigInteger":
+                toProto = decimalType + ".Builder bigIntegerToProto(java.math.BigInteger value, " + decimalType + ".Builder builder) {\n"
+                        + "        return unscaledToProto(value, builder).setScale(0);\n";
+                fromProto = "java.math.BigInteger bigIntegerFromProto(" + decimalType + " value) {\n"
+                        + "        java.math.BigInteger unscaled = value.getUnscaledBytes().isEmpty()\n"
+                        + "                ? java.math.BigInteger.valueOf(value.getUnscaledLong()) : new java.math.BigInteger(value.getUnscaledBytes().toByteArray());\n"
+                        + "        return value.getScale() == 0 ? unscaled : new java.math.BigDecimal(unscaled, value.getScale()).toBigIntegerExact();\n";
+                break;
+            case "duration":
+                toProto = "com.google.protobuf.Duration.Builder durationToProto(java.time.Duration value, com.google.protobuf.Duration.Builder builder) {\n"
+                        + "        return builder.setSeconds(value.getSeconds()).setNanos(value.getNano());\n";
+                fromProto = "java.time.Duration durationFromProto(com.google.protobuf.Duration value) {\n"
+                        + "        return java.time.Duration.ofSeconds(value.getSeconds(), value.getNanos());\n";
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown well-known type helper: " + helper);
+        }
+        out.append("\n    static ").append(toProto).append("    }\n");
+        out.append("\n    static ").append(fromProto).append("    }\n");
+        if (helper.equals("bigDecimal") || helper.equals("bigInteger")) {
+            writeUnscaledHelper(out, decimalType);
+        }
+    }
+
+    // Shared by BigDecimal and BigInteger, so a mapper with both may already have it
+    private static void writeUnscaledHelper(StringBuilder out, String decimalType) {
+        String signature = "\n    private static " + decimalType + ".Builder unscaledToProto(";
+        if (out.indexOf(signature) >= 0) {
+            return;
+        }
+        out.append(signature).append("java.math.BigInteger unscaled, ").append(decimalType).append(".Builder builder) {\n");
+        out.append("        if (unscaled.bitLength() < 64) {\n");
+        out.append("            return builder.setUnscaledLong(unscaled.longValue());\n");
+        out.append("        }\n");
+        out.append("        // toByteArray already returns a copy, so it is wrapped as is\n");
+        out.append("        return builder.setUnscaledBytes(com.google.protobuf.UnsafeByteOperations.unsafeWrap(unscaled.toByteArray()));\n");
+        out.append("    }\n");
+    }
+
+    // Scalars have no presence, so the zero value of a singular field stands for null
+    private static String isDefaultValue(ValueType value, String expression) {
+        return value.protoType.equals("Long") ? expression + " == 0" : expression + ".isEmpty()";
+    }
+
+    // Primitive elements keep their primitive type, so arrays of them are not boxed
+    private static String getElementJavaType(TypeDescriptor elementType, ValueType element) {
+        return BOXED_TYPES.containsKey(elementType.getName()) && !elementType.isArray() ? elementType.getName() : element.javaType;
+    }
+
+    // The class a collection field is filled with, e.g. a LinkedHashSet for a Set so that the order is kept
+    private static String getCollectionType(TypeDescriptor type) {
+        switch (type.getSimpleName()) {
+            case "LinkedList":
+            case "HashSet":
+            case "LinkedHashSet":
+            case "TreeSet":
+                return "java.util." + type.getSimpleName();
+            case "Set":
+                return "java.util.LinkedHashSet";
+            case "SortedSet":
+            case "NavigableSet":
+                return "java.util.TreeSet";
+            default:
+                return "java.util.ArrayList";
+        }
+    }
+
+    private static String getCapacity(String collectionType, String accessor) {
+        switch (collectionType) {
+            case "java.util.ArrayList":
+                return "proto.get" + accessor + "Count()";
+            case "java.util.HashSet":
+            case "java.util.LinkedHashSet":
+                return "(int) (proto.get" + accessor + "Count() / 0.75f) + 1";
+            default:
+                return "";
+        }
+    }
+
+    // new byte[n][] rather than new byte[][n] for arrays of arrays
+    private static String newArray(String elementJavaType, String length) {
+        int dimensions = elementJavaType.indexOf('[');
+        if (dimensions < 0) {
+            return "new " + elementJavaType + "[" + length + "]";
+        }
+        return "new " + elementJavaType.substring(0, dimensions) + "[" + length + "]" + elementJavaType.substring(dimensions);
+    }
+
+    private static String getOptionalClassName(TypeDescriptor type) {
+        return "java.util." + type.getSimpleName();
+    }
+
+    private static String getOptionalGetter(TypeDescriptor type) {
+        if (type.isGeneric("Optional", 1)) {
+            return ".get()";
+        }
+        String primitive = ProtoGenerator.getOptionalType(type).getName();
+        return ".getAs" + capitalize(primitive) + "()";
+    }
+
+    private static String fromUuidPair(String accessor, boolean nullable) {
+        String msb = "proto.get" + accessor + "Msb()";
+        String lsb = "proto.get" + accessor + "Lsb()";
+        String uuid = "new java.util.UUID(" + msb + ", " + lsb + ")";
+        return nullable ? "proto.has" + accessor + "Msb() ? " + uuid + " : null" : msb + " == 0 && " + lsb + " == 0 ? null : " + uuid;
+    }
+
+    private static void writeScalarHelpers(StringBuilder out, ValueType value) {
+        String toProto;
+        String fromProto;
+        if (value.helper.equals("bytes")) {
+            // Wrapped without a copy, so the array must not change while the message is in use
+            toProto = "        return com.google.protobuf.UnsafeByteOperations.unsafeWrap(value);\n";
+            fromProto = "        return value.toByteArray();\n";
+        } else if (value.helper.equals("byteBuffer")) {
+            // Both directions share the bytes; the buffer read back is read-only
+            toProto = "        return com.google.protobuf.UnsafeByteOperations.unsafeWrap(value);\n";
+            fromProto = "        return value.asReadOnlyByteBuffer();\n";
+        } else if (value.helper.equals("bigIntegerBytes")) {
+            // Two's complement, so the array read back is never empty
+            toProto = "        return com.google.protobuf.UnsafeByteOperations.unsafeWrap(value.toByteArray());\n";
+            fromProto = "        return new java.math.BigInteger(value.toByteArray());\n";
+        } else if (value.helper.equals("bigIntegerLong")) {
+            // Values beyond the range of a long fail instead of being truncated
+            toProto = "        return value.longValueExact();\n";
+            fromProto = "        return java.math.BigInteger.valueOf(value);\n";
+        } else if (value.helper.equals("uuidBytes")) {
+            // The array is never shared, so it is wrapped without a copy
+            toProto = "        return com.google.protobuf.UnsafeByteOperations.unsafeWrap(java.nio.ByteBuffer.allocate(16)\n"
+                    + "                .putLong(value.getMostSignificantBits()).putLong(value.getLeastSignificantBits()).array());\n";
+            fromProto = "        if (value.size() != 16) {\n"
+                    + "            throw new IllegalArgumentException(\"A UUID has 16 bytes, got \" + value.size());\n"
+                    + "        }\n"
+                    + "        java.nio.ByteBuffer buffer = value.asReadOnlyByteBuffer();\n"
+                    + "        return new java.util.UUID(buffer.getLong(), buffer.getLong());\n";
+        } else {
+            boolean micros = value.helper.endsWith("Micros");
+            String instant;
+            String fromInstant;
+            switch (value.javaType) {
+                case "java.time.ZonedDateTime":
+                    instant = "value.toInstant()";
+                    fromInstant = "java.time.ZonedDateTime.ofInstant(%s, java.time.ZoneOffset.UTC)";
+                    break;
+                case "java.time.LocalDateTime":
+                    instant = "value.toInstant(java.time.ZoneOffset.UTC)";
+                    fromInstant = "java.time.LocalDateTime.ofInstant(%s, java.time.ZoneOffset.UTC)";
+                    break;
+                default:
+                    instant = "value";
+                    fromInstant = "%s";
+                    break;
+            }
+            toProto = micros
+                    ? "        return java.time.temporal.ChronoUnit.MICROS.between(java.time.Instant.EPOCH, " + instant + ");\n"
+                    : "        return " + instant + ".toEpochMilli();\n";
+            fromProto = "        return " + String.format(fromInstant, micros
+                    ? "java.time.Instant.EPOCH.plus(value, java.time.temporal.ChronoUnit.MICROS)"
+                    : "java.time.Instant.ofEpochMilli(value)") + ";\n";
+        }
+        String protoType = value.protoType.equals("Long") ? "long" : value.protoType;
+        out.append("\n    static ").append(protoType).append(" ").append(value.helper).append("ToProto(").append(value.javaType).append(" value) {\n")
+                .append(toProto).append("    }\n");
+        out.append("\n    static ").append(value.javaType).append(" ").append(value.helper).append("FromProto(").append(protoType).append(" value) {\n")
+                .append(fromProto).append("    }\n");
+    }
+
+    private static String getLocalName(String accessor, String suffix) {
+        return Character.toLowerCase(accessor.charAt(0)) + accessor.substring(1) + suffix;
+    }
+
+    private static String getEnumTableName(SymbolTable.Symbol symbol) {
+        StringBuilder name = new StringBuilder();
+        String nestedName = symbol.getNestedName();
+        for (int i = 0; i < nestedName.length(); i++) {
+            char c = nestedName.charAt(i);
+            if (c == '.') {
+                name.append('_');
+            } else {
+                if (Character.isUpperCase(c) && i > 0 && Character.isLowerCase(nestedName.charAt(i - 1))) {
+                    name.append('_');
+                }
+                name.append(Character.toUpperCase(c));
+            }
+        }
+        return name.append("_VALUES").toString();
+    }
+
+    private static String getEnumHelperName(SymbolTable.Symbol symbol) {
+        String accessor = getProtoAccessorName(symbol.getNestedName().replace('.', '_'));
+        return Character.toLowerCase(accessor.charAt(0)) + accessor.substring(1) + "FromProto";
+    }
+
+    // JavaBeans accessor names, as generated by Lombok and IDEs
+    static String getGetterName(SourceSchema.FieldDefinition field) {
+        String name = field.getName();
+        if (isPrimitiveBoolean(field)) {
+            return hasIsPrefix(name) ? name : "is" + capitalize(name);
+        }
+        return "get" + capitalize(name);
+    }
+
+    static String getSetterName(SourceSchema.FieldDefinition field) {
+        String name = field.getName();
+        if (isPrimitiveBoolean(field) && hasIsPrefix(name)) {
+            return "set" + name.substring(2);
+        }
+        return "set" + capitalize(name);
+    }
+
+    // The camel case name protoc uses in the accessors of a field, e.g. zip_code and zipCode both become ZipCode
+    static String getProtoAccessorName(String fieldName) {
+        StringBuilder name = new StringBuilder(fieldName.length());
+        boolean capitalizeNext = true;
+        for (int i = 0; i < fieldName.length(); i++) {
+            char c = fieldName.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                name.append(capitalizeNext ? Character.toUpperCase(c) : c);
+                capitalizeNext = false;
+            } else if (c >= 'A' && c <= 'Z') {
+                name.append(c);
+                capitalizeNext = false;
+            } else if (c >= '0' && c <= '9') {
+                name.append(c);
+                capitalizeNext = true;
+            } else {
+                capitalizeNext = true;
+            }
+        }
+        return name.toString();
+    }
+
+    private static boolean isPrimitiveBoolean(SourceSchema.FieldDefinition field) {
+        return !field.getType().isArray() && field.getType().getName().equals("boolean");
+    }
+
+    private static boolean hasIsPrefix(String name) {
+        return name.length() > 2 && name.startsWith("is") && Character.isUpperCase(name.charAt(2));
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import org.gradle.api.provider.Property;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Build services are created for each build, so the models are held by the class, which lives as long as the Gradle
+// daemon keeps the plugin's class loader. Unchanged sources are not parsed again by later builds, by other tasks or
+// by workers without isolation. Entries are keyed by source path and only reused while the content hash matches; the
+// least recently used entries are evicted first. Counters are kept per build.
+public abstract class ParsedModelCache implements BuildService<ParsedModelCache.Parameters> {
+
+    public static final String NAME = "pojoToProtoModelCache";
+    public static final int DEFAULT_MAX_ENTRIES = 2000;
+
+    public interface Parameters extends BuildServiceParameters {
+        Property<Integer> getMaxEntries();
+    }
+
+    private static final Map<String, CachedModel> MODELS = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    // Null when the source is not cached with this content. Sources of another length are not read at all.
+    public SourceSchema get(File javaFile) {
+        String sourcePath = javaFile.getAbsolutePath();
+        CachedModel cached;
+        synchronized (MODELS) {
+            cached = MODELS.get(sourcePath);
+        }
+        if (cached != null && javaFile.length() == cached.length) {
+            try {
+                if (Arrays.equals(cached.hash, hash(Files.readAllBytes(javaFile.toPath())))) {
+                    count(true);
+                    return cached.schema;
+                }
+            } catch (IOException e) {
+                // Counted as a miss, the error is reported by whoever reads the source next
+            }
+        }
+        count(false);
+        return null;
+    }
+
+    // Reads the source once; its hash is only computed when it is compared with a cached one or stored
+    public SourceSchema getOrParse(File javaFile, ProtoFileGenerator generator) {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(javaFile.toPath());
+        } catch (IOException e) {
+            // Leave the error reporting to the generator
+            return generator.parse(javaFile);
+        }
+        String sourcePath = javaFile.getAbsolutePath();
+        CachedModel cached;
+        synchronized (MODELS) {
+            cached = MODELS.get(sourcePath);
+        }
+        byte[] hash = null;
+        if (cached != null && content.length == cached.length) {
+            hash = hash(content);
+            if (Arrays.equals(cached.hash, hash)) {
+                count(true);
+                return cached.schema;
+            }
+        }
+        count(false);
+        return parse(javaFile, content, hash, generator);
+    }
+
+    // For sources that were just looked up and missed
+    public SourceSchema parse(File javaFile, ProtoFileGenerator generator) {
+        try {
+            return parse(javaFile, Files.readAllBytes(javaFile.toPath()), null, generator);
+        } catch (IOException e) {
+            return generator.parse(javaFile);
+        }
+    }
+
+    private SourceSchema parse(File javaFile, byte[] content, byte[] hash, ProtoFileGenerator generator) {
+        SourceSchema schema = generator.parse(javaFile, content);
+        if (schema != null && getMaxEntries() > 0) {
+            put(javaFile.getAbsolutePath(), new CachedModel(hash != null ? hash : hash(content), content.length, schema));
+        }
+        return schema;
+    }
+
+    private synchronized void count(boolean hit) {
+        if (hit) {
+            hits++;
+        } else {
+            misses++;
+        }
+    }
+
+    private int getMaxEntries() {
+        return Math.max(0, getParameters().getMaxEntries().getOrElse(DEFAULT_MAX_ENTRIES));
+    }
+
+    private void put(String sourcePath, CachedModel model) {
+        int evicted = 0;
+        synchronized (MODELS) {
+            MODELS.put(sourcePath, model);
+            Iterator<CachedModel> eldest = MODELS.values().iterator();
+            while (MODELS.size() > getMaxEntries() && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evicted++;
+            }
+        }
+        synchronized (this) {
+            evictions += evicted;
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public int getSize() {
+        synchronized (MODELS) {
+            return MODELS.size();
+        }
+    }
+
+    public String getStatistics() {
+        int size = getSize();
+        synchronized (this) {
+            return hits + " hits, " + misses + " misses, " + evictions + " evictions, " + size + " entries";
+        }
+    }
+
+    private static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class CachedModel {
+
+        private final byte[] hash;
+        private final long length;
+        private final SourceSchema schema;
+
+        private CachedModel(byte[] hash, long length, SourceSchema schema) {
+            this.hash = hash;
+            this.length = length;
+            this.schema = schema;
+        }
+    }
+}
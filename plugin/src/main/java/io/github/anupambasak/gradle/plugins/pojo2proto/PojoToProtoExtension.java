@@ -18,14 +18,39 @@ package io.github.anupambasak.gradle.plugins.pojo2proto;
 
 import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.MapProperty;
 import org.gradle.api.provider.Property;
 
 import java.util.List;
 
 public abstract class PojoToProtoExtension {
     public abstract ConfigurableFileCollection getSource();
+    public abstract ConfigurableFileCollection getClasses();
     public abstract DirectoryProperty getDestination();
+    public abstract DirectoryProperty getMapperDestination();
+    public abstract Property<Boolean> getGenerateViews();
     public abstract Property<Boolean> getSingleFile();
     public abstract Property<String> getPackageName();
-    public abstract Property<List<String>> getExcludeFields();
+    public abstract ListProperty<String> getExcludeFields();
+    public abstract ListProperty<String> getIncludes();
+    public abstract ListProperty<String> getExcludes();
+    public abstract ListProperty<String> getPackages();
+    public abstract Property<String> getMarkerAnnotation();
+    public abstract Property<String> getHotFieldAnnotation();
+    public abstract RegularFileProperty getFieldProfile();
+    public abstract RegularFileProperty getNumberingLockFile();
+    public abstract MapProperty<String, String> getIntegerEncodings();
+    public abstract Property<String> getEncodingAnnotation();
+    public abstract Property<Boolean> getInferIntegerEncodings();
+    public abstract Property<String> getUuidEncoding();
+    public abstract Property<String> getTimestampEncoding();
+    public abstract Property<String> getNullableAnnotation();
+    public abstract Property<String> getDecimalEncoding();
+    public abstract MapProperty<String, List<String>> getSubtypes();
+    public abstract Property<Boolean> getParallel();
+    public abstract Property<Integer> getWorkerBatchSize();
+    public abstract Property<Boolean> getProcessIsolation();
+    public abstract Property<String> getWorkerMaxHeapSize();
 }
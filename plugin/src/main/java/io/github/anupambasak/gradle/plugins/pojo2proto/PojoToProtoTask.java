@@ -16,37 +16,101 @@
 
 package io.github.anupambasak.gradle.plugins.pojo2proto;
 
-import com.github.javaparser.StaticJavaParser;
-import com.github.javaparser.ast.CompilationUnit;
 import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
 import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileType;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.MapProperty;
 import org.gradle.api.provider.Property;
+import org.gradle.api.services.ServiceReference;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
 import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.LocalState;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.ChangeType;
+import org.gradle.work.FileChange;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+import org.gradle.work.NormalizeLineEndings;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
 
+import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
-import java.util.stream.Collectors;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
+@CacheableTask
 public abstract class PojoToProtoTask extends DefaultTask {
 
+    private static final int DEFAULT_WORKER_BATCH_SIZE = 100;
+
+    @Incremental
     @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    @IgnoreEmptyDirectories
+    @NormalizeLineEndings
     public abstract ConfigurableFileCollection getSource();
 
+    @Classpath
+    public abstract ConfigurableFileCollection getClasses();
+
     @OutputDirectory
     public abstract DirectoryProperty getDestination();
 
+    @OutputDirectory
+    @Optional
+    public abstract DirectoryProperty getMapperDestination();
+
+    @Input
+    @Optional
+    public abstract Property<Boolean> getGenerateViews();
+
+    @LocalState
+    public abstract RegularFileProperty getDependencyGraphFile();
+
+    // Published to other projects, see SchemaIndex
+    @OutputFile
+    @Optional
+    public abstract RegularFileProperty getSchemaIndex();
+
+    // The indexes of other projects, whose messages and enums the sources may refer to
+    @InputFiles
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract ConfigurableFileCollection getSchemaIndexes();
+
+    // Local state is removed when the outputs come from the build cache, so the report always describes a real run
+    @LocalState
+    public abstract RegularFileProperty getMetricsReport();
+
     @Input
     @Optional
     public abstract Property<Boolean> getSingleFile();
@@ -55,117 +119,648 @@ public abstract class PojoToProtoTask extends DefaultTask {
     @Optional
     public abstract Property<String> getPackageName();
 
+    @Input
+    @Optional
+    public abstract ListProperty<String> getIncludes();
+
+    @Input
+    @Optional
+    public abstract ListProperty<String> getExcludes();
+
+    @Input
+    @Optional
+    public abstract ListProperty<String> getPackages();
+
+    @Input
+    @Optional
+    public abstract ListProperty<String> getExcludeFields();
+
+    @Input
+    @Optional
+    public abstract Property<String> getMarkerAnnotation();
+
+    @Input
+    @Optional
+    public abstract Property<String> getHotFieldAnnotation();
+
+    @InputFile
+    @Optional
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getFieldProfile();
+
+    // Kept under version control and never written by this task, see UpdateNumberingLockTask. It may not exist yet.
+    @InputFiles
+    @Optional
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getNumberingLockFile();
+
+    // Every lock of the last run, including the ones it added. Incremental runs continue from this file.
+    @OutputFile
+    @Optional
+    public abstract RegularFileProperty getUpdatedNumberingLockFile();
+
+    @Input
+    @Optional
+    public abstract MapProperty<String, String> getIntegerEncodings();
+
+    @Input
+    @Optional
+    public abstract Property<String> getEncodingAnnotation();
+
+    @Input
+    @Optional
+    public abstract Property<Boolean> getInferIntegerEncodings();
+
+    @Input
+    @Optional
+    public abstract Property<String> getUuidEncoding();
+
+    @Input
+    @Optional
+    public abstract Property<String> getTimestampEncoding();
+
+    @Input
+    @Optional
+    public abstract Property<String> getNullableAnnotation();
+
+    @Input
+    @Optional
+    public abstract Property<String> getDecimalEncoding();
+
+    // Subtypes by message name, for polymorphic types that are not sealed
+    @Input
+    @Optional
+    public abstract MapProperty<String, List<String>> getSubtypes();
+
     @Input
     public abstract Property<String> getProjectName();
 
     @Input
     public abstract Property<String> getProjectGroup();
 
+    @Internal
+    public abstract Property<Boolean> getParallel();
+
+    @Internal
+    public abstract Property<Integer> getWorkerBatchSize();
+
+    @Internal
+    public abstract Property<Boolean> getProcessIsolation();
+
+    @Internal
+    public abstract Property<String> getWorkerMaxHeapSize();
+
+    @ServiceReference(ParsedModelCache.NAME)
+    public abstract Property<ParsedModelCache> getModelCache();
+
+    @Inject
+    protected abstract WorkerExecutor getWorkerExecutor();
+
     @TaskAction
-    public void execute() {
-        ProtoGenerator protoGenerator = new ProtoGenerator();
+    public void execute(InputChanges inputChanges) {
         File destinationDirFile = getDestination().get().getAsFile();
         boolean singleFile = getSingleFile().getOrElse(false);
         String packageName = getPackageName().getOrElse(getProjectGroup().get());
+        File graphFile = getDependencyGraphFile().get().getAsFile();
+        DependencyGraph previousGraph = getClasses().isEmpty() ? DependencyGraph.load(graphFile) : null;
+        boolean incremental = !singleFile && previousGraph != null && inputChanges.isIncremental();
+        FieldNumbering fieldNumbering = FieldNumbering.load(getNumberingLockSource(incremental), getFieldProfile().getAsFile().getOrNull(), getHotFieldAnnotation().getOrNull());
+        FieldEncodings fieldEncodings = new FieldEncodings(getIntegerEncodings().getOrElse(Map.of()), getEncodingAnnotation().getOrNull(), getInferIntegerEncodings().getOrElse(false),
+                getUuidEncoding().getOrElse(FieldEncodings.DEFAULT_UUID_ENCODING), getTimestampEncoding().getOrElse(FieldEncodings.DEFAULT_TIMESTAMP_ENCODING),
+                getNullableAnnotation().getOrElse(FieldEncodings.DEFAULT_NULLABLE_ANNOTATION), getDecimalEncoding().getOrElse(FieldEncodings.DEFAULT_DECIMAL_ENCODING));
+        PolymorphicTypes polymorphicTypes = new PolymorphicTypes(getSubtypes().getOrElse(Map.of()));
+        File mapperDirFile = getMapperDestination().isPresent() ? getMapperDestination().get().getAsFile() : null;
+        boolean generateViews = getGenerateViews().getOrElse(false);
+        if (mapperDirFile != null && singleFile) {
+            getLogger().warn("Mappers are only generated in multi-file mode");
+        }
+        if (generateViews && mapperDirFile == null) {
+            getLogger().warn("Views are generated next to the mappers and need a mapper destination");
+        }
+        ProtoFileGenerator generator = new ProtoFileGenerator(getLogger(), destinationDirFile, packageName, fieldNumbering, fieldEncodings,
+                new FieldExclusions(getExcludeFields().getOrElse(List.of())), polymorphicTypes, mapperDirFile, generateViews);
+
+        long startNanos = System.nanoTime();
+        WriteStats stats = generator.getStats();
+        GenerationMetrics metrics = generator.getMetrics();
+        if (!getClasses().isEmpty()) {
+            generateFromClasses(generator, destinationDirFile, mapperDirFile, graphFile, packageName, singleFile);
+            reportMetrics(metrics, stats, startNanos);
+            return;
+        }
+
+        DependencyGraph graph;
+        SourceFilter sourceFilter = new SourceFilter(getIncludes().getOrElse(List.of()), getExcludes().getOrElse(List.of()), getPackages().getOrElse(List.of()), getMarkerAnnotation().getOrNull());
+        List<File> changedFiles = new ArrayList<>();
+        Map<String, DependencyGraph.SourceEntry> previousEntries = new HashMap<>();
+        if (!incremental) {
+            graph = new DependencyGraph();
+            changedFiles.addAll(collectJavaFiles(sourceFilter));
+        } else {
+            graph = previousGraph;
+            for (FileChange change : inputChanges.getFileChanges(getSource())) {
+                if (change.getFileType() != FileType.FILE || !change.getFile().getName().endsWith(".java")) {
+                    continue;
+                }
+                String sourcePath = change.getFile().getAbsolutePath();
+                previousEntries.put(sourcePath, graph.remove(sourcePath));
+                // A source that is no longer selected is handled like a removed one
+                if (change.getChangeType() != ChangeType.REMOVED && (!sourceFilter.isEnabled() || sourceFilter.accepts(change.getFile(), change.getNormalizedPath()))) {
+                    changedFiles.add(change.getFile());
+                }
+            }
+        }
+
+        // Pass one only extracts symbols; pass two parses, generates and releases one source at a time. Sources with a
+        // cached model take their symbols from it, and pass two uses the model without looking it up again.
+        ParsedModelCache modelCache = getModelCache().getOrNull();
+        Map<String, SourceSchema> cachedSchemas = new HashMap<>();
+        scanSources(graph, changedFiles, modelCache, cachedSchemas, metrics);
+        // The scanner only finds sealed types, so the configured ones are marked before symbols are compared
+        for (File changedFile : changedFiles) {
+            DependencyGraph.SourceEntry entry = graph.get(changedFile.getAbsolutePath());
+            if (entry != null) {
+                polymorphicTypes.apply(entry);
+            }
+        }
+
+        // Other files only see a source through the types and enums it declares
+        Set<String> changedTypes = new HashSet<>();
+        previousEntries.forEach((sourcePath, previousEntry) -> {
+            DependencyGraph.SourceEntry entry = graph.get(sourcePath);
+            if (previousEntry == null || !previousEntry.declaresSameSymbols(entry)) {
+                if (previousEntry != null) {
+                    changedTypes.addAll(previousEntry.getTypes());
+                }
+                if (entry != null) {
+                    changedTypes.addAll(entry.getTypes());
+                }
+            }
+        });
+        List<File> filesToGenerate = new ArrayList<>();
+        for (File changedFile : changedFiles) {
+            if (graph.get(changedFile.getAbsolutePath()) != null) {
+                filesToGenerate.add(changedFile);
+            }
+        }
+        for (String dependent : graph.getDependents(changedTypes)) {
+            if (!previousEntries.containsKey(dependent)) {
+                filesToGenerate.add(new File(dependent));
+            }
+        }
 
-        List<CompilationUnit> cus = new ArrayList<>();
+        SymbolTable symbolTable = metrics.time(GenerationMetrics.Phase.SYMBOLS, () -> buildSymbolTable(graph));
+        fieldNumbering.migrateSimpleNames(graph.getMessageNames());
+        if (isParallel()) {
+            stats.add(generateInWorkers(generator, graph, filesToGenerate, symbolTable, destinationDirFile, mapperDirFile, generateViews, packageName, singleFile));
+        } else {
+            List<String> sourcePaths = new ArrayList<>();
+            for (File file : filesToGenerate) {
+                sourcePaths.add(file.getAbsolutePath());
+            }
+            if (modelCache != null) {
+                Set<String> scannedPaths = new HashSet<>();
+                for (File changedFile : changedFiles) {
+                    scannedPaths.add(changedFile.getAbsolutePath());
+                }
+                generateSequentially(generator, graph, sourcePath -> {
+                    SourceSchema cached = cachedSchemas.remove(sourcePath);
+                    if (cached != null) {
+                        return cached;
+                    }
+                    // Dependents were not scanned, so they are looked up here
+                    File javaFile = new File(sourcePath);
+                    return scannedPaths.contains(sourcePath) ? modelCache.parse(javaFile, generator) : modelCache.getOrParse(javaFile, generator);
+                }, sourcePaths, symbolTable, singleFile);
+            } else {
+                generateSequentially(generator, graph, sourcePath -> generator.parse(new File(sourcePath)), sourcePaths, symbolTable, singleFile);
+            }
+        }
+        if (modelCache != null) {
+            getLogger().info("Parsed model cache: " + modelCache.getStatistics());
+        }
+
+        writeNumberingLockFile(fieldNumbering);
+        deleteStaleProtos(destinationDirFile, graph.getOutputs(), stats);
+        deleteStaleMappers(mapperDirFile, graph.getMappers());
+        writeSchemaIndex(graph, packageName, singleFile);
+
+        try {
+            graph.save(graphFile);
+        } catch (IOException e) {
+            getLogger().error("Error writing dependency graph: " + graphFile.getAbsolutePath(), e);
+        }
+        reportMetrics(metrics, stats, startNanos);
+    }
+
+    private void reportMetrics(GenerationMetrics metrics, WriteStats stats, long startNanos) {
+        long totalNanos = System.nanoTime() - startNanos;
+        String summary = "Proto files: " + metrics.getSummary(totalNanos, stats);
+        if (getMetricsReport().isPresent()) {
+            File reportFile = getMetricsReport().get().getAsFile();
+            try {
+                metrics.writeReport(reportFile, totalNanos, stats);
+                summary += ", see " + reportFile;
+            } catch (IOException e) {
+                getLogger().warn("Error writing metrics report: " + reportFile.getAbsolutePath(), e);
+            }
+        }
+        getLogger().lifecycle(summary);
+    }
+
+    // Class files are cheap to read, so the class mode always reads all of them in a single pass
+    private void generateFromClasses(ProtoFileGenerator generator, File destinationDirFile, File mapperDirFile, File graphFile, String packageName, boolean singleFile) {
+        DependencyGraph graph = new DependencyGraph();
+        GenerationMetrics metrics = generator.getMetrics();
+        ClassFileSource classFileSource = new ClassFileSource(getLogger());
+        Map<String, SourceSchema> schemas = new HashMap<>();
+        // Reading the class files is the parse phase of the class mode, and it also yields the symbols
+        List<String> classPaths = metrics.time(GenerationMetrics.Phase.PARSE, () -> {
+            List<String> paths = classFileSource.read(getClasses());
+            for (String classPath : paths) {
+                SourceSchema schema = SourceSchema.of(classFileSource.getCompilationUnit(classPath));
+                schemas.put(classPath, schema);
+                graph.put(classPath, generator.scan(schema));
+            }
+            return paths;
+        });
+        metrics.recordSources(classPaths.size());
+        checkHintAnnotations(classFileSource);
+
+        SymbolTable symbolTable = metrics.time(GenerationMetrics.Phase.SYMBOLS, () -> buildSymbolTable(graph));
+        generator.getFieldNumbering().migrateSimpleNames(graph.getMessageNames());
+        generateSequentially(generator, graph, schemas::get, classPaths, symbolTable, singleFile);
+        writeNumberingLockFile(generator.getFieldNumbering());
+
+        deleteStaleProtos(destinationDirFile, graph.getOutputs(), generator.getStats());
+        deleteStaleMappers(mapperDirFile, graph.getMappers());
+        writeSchemaIndex(graph, packageName, singleFile);
+
+        // The dependency graph only tracks sources, so a later source run must start from scratch
+        try {
+            Files.deleteIfExists(graphFile.toPath());
+        } catch (IOException e) {
+            getLogger().error("Error deleting dependency graph: " + graphFile.getAbsolutePath(), e);
+        }
+    }
+
+    // Hints with SOURCE retention are dropped by the compiler, so the class mode would silently generate as if the
+    // fields had none. Sources are only read for hints that no class file carries.
+    private void checkHintAnnotations(ClassFileSource classFileSource) {
+        Set<String> hints = new TreeSet<>();
+        if (getHotFieldAnnotation().isPresent()) {
+            hints.add(getHotFieldAnnotation().get());
+        }
+        if (getEncodingAnnotation().isPresent()) {
+            hints.add(getEncodingAnnotation().get());
+        }
+        hints.add(getNullableAnnotation().getOrElse(FieldEncodings.DEFAULT_NULLABLE_ANNOTATION));
+        Map<String, Pattern> missing = new TreeMap<>();
+        for (String hint : hints) {
+            String simpleName = hint.substring(hint.lastIndexOf('.') + 1);
+            if (classFileSource.isSourceRetained(hint)) {
+                getLogger().warn("Annotation " + hint + " has SOURCE retention and is not in class files, so it is ignored when generating from classes");
+            } else if (!classFileSource.isUsedOnFields(hint)) {
+                missing.put(hint, Pattern.compile("@\\s*(?:[\\p{javaJavaIdentifierPart}]+\\s*\\.\\s*)*" + Pattern.quote(simpleName) + "(?![\\p{javaJavaIdentifierPart}])"));
+            }
+        }
+        for (File sourceFile : getSource().getAsFileTree()) {
+            if (missing.isEmpty()) {
+                return;
+            }
+            if (!sourceFile.getName().endsWith(".java")) {
+                continue;
+            }
+            String content;
+            try {
+                content = Files.readString(sourceFile.toPath(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                continue;
+            }
+            missing.entrySet().removeIf(hint -> {
+                if (!hint.getValue().matcher(content).find()) {
+                    return false;
+                }
+                getLogger().warn("Annotation " + hint.getKey() + " is used in " + sourceFile + " but not in any class file, so it is ignored when generating"
+                        + " from classes. Hint annotations need CLASS or RUNTIME retention.");
+                return true;
+            });
+        }
+    }
+
+    private void writeSchemaIndex(DependencyGraph graph, String packageName, boolean singleFile) {
+        if (!getSchemaIndex().isPresent()) {
+            return;
+        }
+        File schemaIndexFile = getSchemaIndex().get().getAsFile();
+        try {
+            SchemaIndex.of(graph, packageName, singleFile ? getProjectName().get() + ".proto" : null).save(schemaIndexFile);
+        } catch (IOException e) {
+            throw new GradleException("Error writing schema index: " + schemaIndexFile.getAbsolutePath(), e);
+        }
+    }
+
+    // A change of the checked in lock makes the run non-incremental, so the updated lock of an incremental run
+    // still holds every entry of the checked in one
+    private File getNumberingLockSource(boolean incremental) {
+        if (!getNumberingLockFile().isPresent()) {
+            return null;
+        }
+        File updatedLockFile = getUpdatedNumberingLockFile().get().getAsFile();
+        return incremental && updatedLockFile.isFile() ? updatedLockFile : getNumberingLockFile().get().getAsFile();
+    }
+
+    private void writeNumberingLockFile(FieldNumbering fieldNumbering) {
+        if (!getNumberingLockFile().isPresent()) {
+            return;
+        }
+        File lockFile = getNumberingLockFile().get().getAsFile();
+        File updatedLockFile = getUpdatedNumberingLockFile().get().getAsFile();
+        try {
+            fieldNumbering.writeLockFile(updatedLockFile);
+            if (!lockFile.isFile() || Files.mismatch(lockFile.toPath(), updatedLockFile.toPath()) != -1) {
+                getLogger().warn("Field numbers were assigned that " + lockFile + " does not lock yet, run " + UpdateNumberingLockTask.NAME
+                        + " and commit the lock file");
+            }
+        } catch (IOException e) {
+            throw new GradleException("Error writing field number lock file: " + updatedLockFile.getAbsolutePath(), e);
+        }
+    }
+
+    private SymbolTable buildSymbolTable(DependencyGraph graph) {
+        SymbolTable symbolTable = graph.buildSymbolTable();
+        for (File schemaIndexFile : getSchemaIndexes()) {
+            SchemaIndex schemaIndex = SchemaIndex.load(schemaIndexFile);
+            if (schemaIndex == null) {
+                throw new GradleException("Error reading schema index: " + schemaIndexFile.getAbsolutePath());
+            }
+            symbolTable.addAll(schemaIndex);
+        }
+        symbolTable.getAmbiguousNames().forEach((name, candidates) ->
+                getLogger().warn("Type name '" + name + "' is ambiguous and will not be resolved, it matches " + String.join(", ", candidates)));
+        return symbolTable;
+    }
+
+    // Only the destination itself and the reserved package of the shared messages are cleaned
+    private void deleteStaleProtos(File destinationDirFile, Set<String> outputs, WriteStats stats) {
+        deleteStaleProtos(destinationDirFile.toPath(), "", outputs, stats);
+        Path sharedDir = destinationDirFile.toPath().resolve(ProtoGenerator.SHARED_PACKAGE);
+        if (Files.isDirectory(sharedDir)) {
+            deleteStaleProtos(sharedDir, ProtoGenerator.SHARED_PACKAGE + "/", outputs, stats);
+        }
+    }
+
+    private void deleteStaleProtos(Path dir, String prefix, Set<String> outputs, WriteStats stats) {
+        try (Stream<Path> paths = Files.list(dir)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                String fileName = prefix + path.getFileName().toString();
+                if (fileName.endsWith(".proto") && Files.isRegularFile(path) && !outputs.contains(fileName)) {
+                    Files.delete(path);
+                    stats.recordDeleted();
+                    getLogger().info("Deleted " + path);
+                }
+            }
+        } catch (IOException e) {
+            getLogger().error("Error deleting stale proto files from: " + dir.toAbsolutePath(), e);
+        }
+    }
+
+    private void deleteStaleMappers(File mapperDirFile, Set<String> mappers) {
+        if (mapperDirFile == null) {
+            return;
+        }
+        Path root = mapperDirFile.toPath();
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                String relativePath = root.relativize(path).toString().replace(File.separatorChar, '/');
+                if (relativePath.endsWith(".java") && Files.isRegularFile(path) && !mappers.contains(relativePath)) {
+                    Files.delete(path);
+                    getLogger().info("Deleted " + path);
+                }
+            }
+        } catch (IOException e) {
+            getLogger().error("Error deleting stale mapper files from: " + mapperDirFile.getAbsolutePath(), e);
+        }
+    }
+
+    private boolean isParallel() {
+        return getParallel().getOrElse(false) || getProcessIsolation().getOrElse(false);
+    }
+
+    private List<File> collectJavaFiles(SourceFilter sourceFilter) {
+        // Keyed by relative path so that the order does not depend on the checkout location or Files.walk order
+        Map<File, String> relativePaths = new HashMap<>();
         for (File javaFile : getSource()) {
             if (javaFile.isFile() && javaFile.getName().endsWith(".java")) {
-                try {
-                    cus.add(StaticJavaParser.parse(javaFile));
-                } catch (IOException e) {
-                    getLogger().error("Error parsing file: " + javaFile.getName(), e);
-                }
+                relativePaths.put(javaFile, javaFile.getName());
             } else if (javaFile.isDirectory()) {
-                try {
-                    Files.walk(javaFile.toPath())
-                            .filter(Files::isRegularFile)
+                Path root = javaFile.toPath();
+                try (Stream<Path> paths = Files.walk(root)) {
+                    paths.filter(Files::isRegularFile)
                             .filter(p -> p.toString().endsWith(".java"))
-                            .forEach(p -> {
-                                try {
-                                    cus.add(StaticJavaParser.parse(p));
-                                } catch (IOException e) {
-                                    getLogger().error("Error parsing file: " + p.getFileName().toString(), e);
-                                }
-                            });
+                            .forEach(p -> relativePaths.put(p.toFile(), root.relativize(p).toString().replace(File.separatorChar, '/')));
                 } catch (IOException e) {
                     getLogger().error("Error reading java files from directory: " + javaFile.getAbsolutePath(), e);
                 }
             }
         }
+        List<File> javaFiles = new ArrayList<>(relativePaths.keySet());
+        if (sourceFilter.isEnabled()) {
+            int total = javaFiles.size();
+            javaFiles.removeIf(javaFile -> !sourceFilter.accepts(javaFile, relativePaths.get(javaFile)));
+            getLogger().info("Selected " + javaFiles.size() + " of " + total + " source files");
+        }
+        javaFiles.sort(Comparator.comparing(File::getName).thenComparing(relativePaths::get));
+        return javaFiles;
+    }
 
-        if (singleFile) {
-            List<com.github.javaparser.ast.body.EnumDeclaration> allEnumDeclarations = new ArrayList<>();
-            for (CompilationUnit cu : cus) {
-                allEnumDeclarations.addAll(cu.findAll(com.github.javaparser.ast.body.EnumDeclaration.class));
+    // Parallel phases are timed by the workers, so their times add up across workers instead of showing wall time
+    private void scanSources(DependencyGraph graph, List<File> javaFiles, ParsedModelCache modelCache, Map<String, SourceSchema> cachedSchemas, GenerationMetrics metrics) {
+        metrics.recordSources(javaFiles.size());
+        if (isParallel()) {
+            WorkQueue workQueue = createWorkQueue();
+            List<List<File>> batches = partition(javaFiles);
+            List<File> resultFiles = new ArrayList<>();
+            for (int i = 0; i < batches.size(); i++) {
+                List<File> batch = batches.get(i);
+                File resultFile = new File(getTemporaryDir(), "scan-" + i + ".bin");
+                File metricsFile = new File(getTemporaryDir(), "scan-metrics-" + i + ".bin");
+                resultFiles.add(resultFile);
+                workQueue.submit(ScanSourcesAction.class, parameters -> {
+                    parameters.getSourceFiles().from(batch);
+                    shareModelCache(parameters.getModelCache());
+                    parameters.getResultFile().set(resultFile);
+                    parameters.getMetricsFile().set(metricsFile);
+                });
+            }
+            workQueue.await();
+            for (int i = 0; i < resultFiles.size(); i++) {
+                graph.putAll(loadResult(resultFiles.get(i)));
+                addWorkerMetrics(metrics, new File(getTemporaryDir(), "scan-metrics-" + i + ".bin"));
+            }
+        } else {
+            SymbolScanner scanner = new SymbolScanner(getLogger());
+            metrics.time(GenerationMetrics.Phase.SCAN, () -> {
+                for (File javaFile : javaFiles) {
+                    SourceSchema cached = modelCache != null ? modelCache.get(javaFile) : null;
+                    if (cached != null) {
+                        cachedSchemas.put(javaFile.getAbsolutePath(), cached);
+                    }
+                    DependencyGraph.SourceEntry entry = cached != null ? DependencyGraph.SourceEntry.of(cached) : scanner.scan(javaFile);
+                    if (entry != null) {
+                        graph.put(javaFile.getAbsolutePath(), entry);
+                    }
+                }
+            });
+        }
+    }
+
+    private void addWorkerMetrics(GenerationMetrics metrics, File metricsFile) {
+        GenerationMetrics workerMetrics = GenerationMetrics.load(metricsFile);
+        if (workerMetrics != null) {
+            metrics.add(workerMetrics);
+        }
+    }
+
+    private void generateSequentially(ProtoFileGenerator generator, DependencyGraph graph, Function<String, SourceSchema> loader, List<String> sourcePaths, SymbolTable symbolTable, boolean singleFile) {
+        Path messagesFile = new File(getTemporaryDir(), "messages.txt").toPath();
+        Path enumsFile = new File(getTemporaryDir(), "enums.txt").toPath();
+        try (Writer messages = singleFile ? Files.newBufferedWriter(messagesFile, StandardCharsets.UTF_8) : null;
+             Writer enums = singleFile ? Files.newBufferedWriter(enumsFile, StandardCharsets.UTF_8) : null) {
+            GenerationMetrics metrics = generator.getMetrics();
+            for (String sourcePath : sourcePaths) {
+                long fileStartNanos = System.nanoTime();
+                SourceSchema schema = metrics.time(GenerationMetrics.Phase.PARSE, () -> loader.apply(sourcePath));
+                if (schema == null) {
+                    graph.remove(sourcePath);
+                    continue;
+                }
+                metrics.recordSchema(schema);
+                metrics.time(GenerationMetrics.Phase.GENERATE, () -> {
+                    DependencyGraph.SourceEntry entry = generator.scan(schema);
+                    graph.put(sourcePath, entry);
+                    if (singleFile) {
+                        generator.appendSingleFileContent(entry, schema, symbolTable, messages, enums);
+                    } else {
+                        generator.generateFiles(entry, schema, symbolTable);
+                    }
+                });
+                metrics.recordFile(sourcePath, System.nanoTime() - fileStartNanos);
             }
+        } catch (IOException e) {
+            throw new GradleException("Error writing generated proto content", e);
+        }
+        if (singleFile) {
+            generator.writeSingleFile(graph, getProjectName().get() + ".proto", List.of(messagesFile, enumsFile));
+        }
+    }
 
-            Set<String> allImports = new TreeSet<>();
-            for (CompilationUnit cu : cus) {
-                allImports.addAll(protoGenerator.getImports(cu, allEnumDeclarations));
+    private WriteStats generateInWorkers(ProtoFileGenerator generator, DependencyGraph graph, List<File> javaFiles, SymbolTable symbolTable, File destinationDirFile, File mapperDirFile, boolean generateViews, String packageName, boolean singleFile) {
+        File symbolTableFile = new File(getTemporaryDir(), "symbols.bin");
+        File fieldNumberingFile = new File(getTemporaryDir(), "numbering.bin");
+        File fieldEncodingsFile = new File(getTemporaryDir(), "encodings.bin");
+        try {
+            symbolTable.save(symbolTableFile);
+            generator.getFieldNumbering().save(fieldNumberingFile);
+            generator.getFieldEncodings().save(fieldEncodingsFile);
+        } catch (IOException e) {
+            throw new GradleException("Error writing worker state to: " + getTemporaryDir().getAbsolutePath(), e);
+        }
+        WorkQueue workQueue = createWorkQueue();
+        List<List<File>> batches = partition(javaFiles);
+        for (int i = 0; i < batches.size(); i++) {
+            List<File> batch = batches.get(i);
+            File workDir = getTemporaryDir();
+            int batchIndex = i;
+            workQueue.submit(GenerateProtosAction.class, parameters -> {
+                parameters.getSourceFiles().from(batch);
+                shareModelCache(parameters.getModelCache());
+                parameters.getSymbolTableFile().set(symbolTableFile);
+                parameters.getFieldNumberingFile().set(fieldNumberingFile);
+                parameters.getFieldEncodingsFile().set(fieldEncodingsFile);
+                parameters.getExcludeFields().set(getExcludeFields());
+                parameters.getSubtypes().set(getSubtypes());
+                parameters.getDestination().set(destinationDirFile);
+                if (mapperDirFile != null) {
+                    parameters.getMapperDestination().set(mapperDirFile);
+                }
+                parameters.getGenerateViews().set(generateViews);
+                parameters.getPackageName().set(packageName);
+                parameters.getSingleFile().set(singleFile);
+                parameters.getResultFile().set(new File(workDir, "generate-" + batchIndex + ".bin"));
+                parameters.getMessagesFile().set(new File(workDir, "messages-" + batchIndex + ".txt"));
+                parameters.getEnumsFile().set(new File(workDir, "enums-" + batchIndex + ".txt"));
+                parameters.getStatsFile().set(new File(workDir, "stats-" + batchIndex + ".bin"));
+                parameters.getFieldNumberingResultFile().set(new File(workDir, "numbering-" + batchIndex + ".bin"));
+                parameters.getMetricsFile().set(new File(workDir, "metrics-" + batchIndex + ".bin"));
+            });
+        }
+        workQueue.await();
+
+        WriteStats stats = new WriteStats();
+        List<Path> messageFragments = new ArrayList<>();
+        List<Path> enumFragments = new ArrayList<>();
+        for (int i = 0; i < batches.size(); i++) {
+            DependencyGraph result = loadResult(new File(getTemporaryDir(), "generate-" + i + ".bin"));
+            // A worker leaves out the sources it failed to read, which lose their entry and outputs as in sequential mode
+            for (File javaFile : batches.get(i)) {
+                if (result.get(javaFile.getAbsolutePath()) == null) {
+                    graph.remove(javaFile.getAbsolutePath());
+                }
+            }
+            graph.putAll(result);
+            WriteStats batchStats = WriteStats.load(new File(getTemporaryDir(), "stats-" + i + ".bin"));
+            if (batchStats != null) {
+                stats.add(batchStats);
             }
+            FieldNumbering batchNumbering = FieldNumbering.load(new File(getTemporaryDir(), "numbering-" + i + ".bin"));
+            if (batchNumbering != null) {
+                generator.getFieldNumbering().merge(batchNumbering);
+            }
+            addWorkerMetrics(generator.getMetrics(), new File(getTemporaryDir(), "metrics-" + i + ".bin"));
+            messageFragments.add(new File(getTemporaryDir(), "messages-" + i + ".txt").toPath());
+            enumFragments.add(new File(getTemporaryDir(), "enums-" + i + ".txt").toPath());
+        }
+        if (singleFile) {
+            List<Path> fragments = new ArrayList<>(messageFragments);
+            fragments.addAll(enumFragments);
+            generator.writeSingleFile(graph, getProjectName().get() + ".proto", fragments);
+        }
+        return stats;
+    }
 
-            Set<String> allTypeNames = cus.stream()
-                    .flatMap(cu -> cu.getPrimaryTypeName().stream())
-                    .collect(Collectors.toSet());
-            allTypeNames.addAll(allEnumDeclarations.stream()
-                    .map(com.github.javaparser.ast.body.EnumDeclaration::getNameAsString)
-                    .collect(Collectors.toSet()));
+    private WorkQueue createWorkQueue() {
+        if (getProcessIsolation().getOrElse(false)) {
+            return getWorkerExecutor().processIsolation(spec -> {
+                if (getWorkerMaxHeapSize().isPresent()) {
+                    spec.forkOptions(options -> options.setMaxHeapSize(getWorkerMaxHeapSize().get()));
+                }
+            });
+        }
+        return getWorkerExecutor().noIsolation();
+    }
 
-            allImports.removeIf(anImport -> allTypeNames.contains(anImport.replace(".proto", "")));
+    // Workers in another process do not share the models of the daemon
+    private void shareModelCache(Property<ParsedModelCache> modelCache) {
+        if (!getProcessIsolation().getOrElse(false)) {
+            modelCache.set(getModelCache());
+        }
+    }
 
-            String header = protoGenerator.generateHeader(packageName, allImports);
-            String messages = protoGenerator.generateMessages(cus, allEnumDeclarations);
-            String enums = protoGenerator.generateEnums(allEnumDeclarations);
-            String protoContent = header + messages + enums;
+    private List<List<File>> partition(List<File> javaFiles) {
+        int batchSize = Math.max(1, getWorkerBatchSize().getOrElse(DEFAULT_WORKER_BATCH_SIZE));
+        List<List<File>> batches = new ArrayList<>();
+        for (int i = 0; i < javaFiles.size(); i += batchSize) {
+            batches.add(new ArrayList<>(javaFiles.subList(i, Math.min(i + batchSize, javaFiles.size()))));
+        }
+        return batches;
+    }
 
-            try {
-                Path protoFilePath = Paths.get(destinationDirFile.getAbsolutePath(), getProjectName().get() + ".proto");
-                Files.write(protoFilePath, protoContent.getBytes());
-                getLogger().lifecycle("Generated " + protoFilePath);
-            } catch (IOException e) {
-                getLogger().error("Error writing proto file", e);
-            }
-                        } else {
-                            List<com.github.javaparser.ast.body.EnumDeclaration> allEnumDeclarations = new ArrayList<>();
-                            for (CompilationUnit cu : cus) {
-                                allEnumDeclarations.addAll(cu.findAll(com.github.javaparser.ast.body.EnumDeclaration.class));
-                            }
-                
-                            for (CompilationUnit cu : cus) {
-                                if (cu.getPrimaryType().isPresent() && cu.getPrimaryType().get().isClassOrInterfaceDeclaration() && !cu.getPrimaryType().get().isEnumDeclaration()) {
-                                    List<com.github.javaparser.ast.body.EnumDeclaration> nestedEnums = cu.getPrimaryType().get().findAll(com.github.javaparser.ast.body.EnumDeclaration.class);
-                
-                                    Set<String> imports = protoGenerator.getImports(cu, allEnumDeclarations);
-                                    String header = protoGenerator.generateHeader(packageName, imports);
-                                    String message = protoGenerator.generateMessageWithNestedEnums(cu, nestedEnums, allEnumDeclarations);
-                                    String protoContent = header + message;
-                
-                                    cu.getPrimaryTypeName().ifPresent(className -> {
-                                        try {
-                                            Path protoFilePath = Paths.get(destinationDirFile.getAbsolutePath(), className + ".proto");
-                                            Files.write(protoFilePath, protoContent.getBytes());
-                                            getLogger().lifecycle("Generated " + protoFilePath);
-                                        } catch (IOException e) {
-                                            getLogger().error("Error writing proto file", e);
-                                        }
-                                    });
-                                }
-                            }
-                            for (com.github.javaparser.ast.body.EnumDeclaration enumDeclaration : allEnumDeclarations) {
-                                if (enumDeclaration.getParentNode().isPresent() && enumDeclaration.getParentNode().get() instanceof CompilationUnit) {
-                                    String header = protoGenerator.generateHeader(packageName, new TreeSet<>());
-                                    String enumContent = protoGenerator.generateEnum(enumDeclaration);
-                                    String protoContent = header + enumContent;
-                
-                                    try {
-                                        Path protoFilePath = Paths.get(destinationDirFile.getAbsolutePath(), enumDeclaration.getNameAsString() + ".proto");
-                                        Files.write(protoFilePath, protoContent.getBytes());
-                                        getLogger().lifecycle("Generated " + protoFilePath);
-                                    } catch (IOException e) {
-                                        getLogger().error("Error writing proto file", e);
-                                    }
-                                }
-                            }
-                        }    }
+    private DependencyGraph loadResult(File resultFile) {
+        DependencyGraph result = DependencyGraph.load(resultFile);
+        if (result == null) {
+            throw new GradleException("Missing worker result: " + resultFile.getAbsolutePath());
+        }
+        return result;
+    }
 }
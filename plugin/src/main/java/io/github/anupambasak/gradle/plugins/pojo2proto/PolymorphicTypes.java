@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Subtypes configured by message name, either simple or qualified, for types that are not sealed. A sealed type
+// keeps the subtypes of its permits clause.
+public class PolymorphicTypes {
+
+    private final Map<String, List<String>> subtypes;
+
+    public PolymorphicTypes() {
+        this(Map.of());
+    }
+
+    public PolymorphicTypes(Map<String, List<String>> subtypes) {
+        this.subtypes = Map.copyOf(subtypes);
+    }
+
+    public boolean isEmpty() {
+        return subtypes.isEmpty();
+    }
+
+    public List<String> getSubtypes(String packageName, String messageName) {
+        List<String> configured = subtypes.get(packageName.isEmpty() ? messageName : packageName + "." + messageName);
+        if (configured == null) {
+            configured = subtypes.get(messageName);
+        }
+        return configured != null ? configured : List.of();
+    }
+
+    public SourceSchema apply(SourceSchema schema) {
+        if (isEmpty() || !schema.isMessageType() || schema.isPolymorphic()) {
+            return schema;
+        }
+        List<String> configured = getSubtypes(schema.getPackageName(), schema.getPrimaryTypeName());
+        if (configured.isEmpty()) {
+            return schema;
+        }
+        List<TypeDescriptor> subtypeTypes = new ArrayList<>(configured.size());
+        for (String subtype : configured) {
+            subtypeTypes.add(new TypeDescriptor(subtype, List.of(), 0));
+        }
+        return schema.withSubtypes(subtypeTypes);
+    }
+
+    // Scanned sources only know the subtypes of sealed types
+    public void apply(DependencyGraph.SourceEntry entry) {
+        if (isEmpty()) {
+            return;
+        }
+        for (String message : entry.getMessages()) {
+            if (!getSubtypes(entry.getPackageName(), message).isEmpty()) {
+                entry.getPolymorphicMessages().add(message);
+            }
+        }
+    }
+}
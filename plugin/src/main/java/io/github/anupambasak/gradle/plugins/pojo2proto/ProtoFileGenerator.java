@@ -0,0 +1,302 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import org.gradle.api.logging.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class ProtoFileGenerator {
+
+    private final ProtoGenerator protoGenerator;
+    private final FieldNumbering fieldNumbering;
+    private final FieldEncodings fieldEncodings;
+    private final FieldExclusions fieldExclusions;
+    private final PolymorphicTypes polymorphicTypes;
+    private final MapperGenerator mapperGenerator;
+    // JavaParser instances are not thread-safe, so every generator (and every worker) owns one. Sealed types need
+    // Java 17 syntax.
+    private final JavaParser javaParser = new JavaParser(new ParserConfiguration().setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17));
+    private final Logger logger;
+    private final File destinationDirFile;
+    private final String packageName;
+    private final File mapperDirFile;
+    private final boolean generateViews;
+    private final WriteStats stats = new WriteStats();
+    private final GenerationMetrics metrics = new GenerationMetrics();
+    private boolean decimalWritten;
+
+    public ProtoFileGenerator(Logger logger, File destinationDirFile, String packageName) {
+        this(logger, destinationDirFile, packageName, new FieldNumbering());
+    }
+
+    public ProtoFileGenerator(Logger logger, File destinationDirFile, String packageName, FieldNumbering fieldNumbering) {
+        this(logger, destinationDirFile, packageName, fieldNumbering, new FieldEncodings());
+    }
+
+    public ProtoFileGenerator(Logger logger, File destinationDirFile, String packageName, FieldNumbering fieldNumbering, FieldEncodings fieldEncodings) {
+        this(logger, destinationDirFile, packageName, fieldNumbering, fieldEncodings, new FieldExclusions(), null, false);
+    }
+
+    // Mappers, and the views that share their helpers, are only generated when a mapper directory is given
+    public ProtoFileGenerator(Logger logger, File destinationDirFile, String packageName, FieldNumbering fieldNumbering, FieldEncodings fieldEncodings,
+                              FieldExclusions fieldExclusions, File mapperDirFile, boolean generateViews) {
+        this(logger, destinationDirFile, packageName, fieldNumbering, fieldEncodings, fieldExclusions, new PolymorphicTypes(), mapperDirFile, generateViews);
+    }
+
+    public ProtoFileGenerator(Logger logger, File destinationDirFile, String packageName, FieldNumbering fieldNumbering, FieldEncodings fieldEncodings,
+                              FieldExclusions fieldExclusions, PolymorphicTypes polymorphicTypes, File mapperDirFile, boolean generateViews) {
+        this.protoGenerator = new ProtoGenerator(fieldNumbering, fieldEncodings);
+        this.mapperGenerator = new MapperGenerator(fieldEncodings);
+        this.fieldEncodings = fieldEncodings;
+        this.fieldExclusions = fieldExclusions;
+        this.polymorphicTypes = polymorphicTypes;
+        this.fieldNumbering = fieldNumbering;
+        this.logger = logger;
+        this.destinationDirFile = destinationDirFile;
+        this.packageName = packageName;
+        this.mapperDirFile = mapperDirFile;
+        this.generateViews = generateViews;
+    }
+
+    public WriteStats getStats() {
+        return stats;
+    }
+
+    public GenerationMetrics getMetrics() {
+        return metrics;
+    }
+
+    public FieldNumbering getFieldNumbering() {
+        return fieldNumbering;
+    }
+
+    public FieldEncodings getFieldEncodings() {
+        return fieldEncodings;
+    }
+
+    public SourceSchema parse(File javaFile) {
+        try {
+            return parse(javaFile, Files.readAllBytes(javaFile.toPath()));
+        } catch (IOException e) {
+            logger.error("Error parsing file: " + javaFile.getName(), e);
+            return null;
+        }
+    }
+
+    public SourceSchema parse(File javaFile, byte[] content) {
+        ParseResult<CompilationUnit> result = javaParser.parse(new String(content, StandardCharsets.UTF_8));
+        if (!result.isSuccessful() || result.getResult().isEmpty()) {
+            throw new ParseProblemException(result.getProblems());
+        }
+        CompilationUnit cu = result.getResult().get();
+        // The primary type is looked up through the storage file name
+        cu.setStorage(javaFile.toPath(), StandardCharsets.UTF_8);
+        return SourceSchema.of(cu);
+    }
+
+    public DependencyGraph.SourceEntry scan(SourceSchema parsedSchema) {
+        return DependencyGraph.SourceEntry.of(polymorphicTypes.apply(parsedSchema));
+    }
+
+    // Schemas are passed unfiltered, as parsed or cached, and lose their excluded fields and gain their configured
+    // subtypes here
+    public void generateFiles(DependencyGraph.SourceEntry entry, SourceSchema parsedSchema, SymbolTable symbolTable) {
+        SourceSchema schema = polymorphicTypes.apply(fieldExclusions.apply(parsedSchema));
+        if (schema.isMessageType()) {
+            Set<String> imports = protoGenerator.getImports(schema, symbolTable);
+            String header = protoGenerator.generateHeader(packageName, imports);
+            String message = protoGenerator.generateMessageWithNestedEnums(schema, symbolTable);
+            entry.getReferences().addAll(imports);
+
+            writeProto(entry, schema.getPrimaryTypeName() + ".proto", header + message);
+            if (imports.contains(ProtoGenerator.DECIMAL_IMPORT)) {
+                writeDecimalProto(entry);
+            }
+            if (mapperDirFile != null && mapperGenerator.hasMapper(schema)) {
+                writeJavaSource(entry, MapperGenerator.getMapperName(schema.getPrimaryTypeName()), mapperGenerator.generateMapper(schema, symbolTable, packageName));
+                // Polymorphic types get no view; views read fields of these types through their mapper, as POJOs
+                if (generateViews && !schema.isPolymorphic()) {
+                    writeJavaSource(entry, MapperGenerator.getViewName(schema.getPrimaryTypeName()), mapperGenerator.generateView(schema, symbolTable, packageName));
+                }
+            }
+        }
+        for (SourceSchema.EnumDefinition enumDefinition : schema.getTopLevelEnums()) {
+            String header = protoGenerator.generateHeader(packageName, new TreeSet<>());
+            String enumContent = protoGenerator.generateEnum(enumDefinition);
+            writeProto(entry, enumDefinition.getName() + ".proto", header + enumContent);
+        }
+    }
+
+    public void appendSingleFileContent(DependencyGraph.SourceEntry entry, SourceSchema parsedSchema, SymbolTable symbolTable, Appendable messages, Appendable enums) throws IOException {
+        SourceSchema schema = polymorphicTypes.apply(fieldExclusions.apply(parsedSchema));
+        entry.getReferences().addAll(protoGenerator.getImports(schema, symbolTable));
+        protoGenerator.writeMessages(messages, List.of(schema), symbolTable);
+        protoGenerator.writeEnums(enums, schema.getEnums());
+    }
+
+    // The fragments are copied after the header channel to channel, so the aggregated file never has to fit in memory
+    public void writeSingleFile(DependencyGraph graph, String fileName, List<Path> fragments) {
+        Set<String> allImports = new TreeSet<>();
+        Set<String> allTypeNames = new TreeSet<>();
+        for (String sourcePath : graph.getSourcePaths()) {
+            DependencyGraph.SourceEntry entry = graph.get(sourcePath);
+            allImports.addAll(entry.getReferences());
+            allTypeNames.addAll(entry.getTypes());
+            for (String enumName : entry.getEnums()) {
+                allTypeNames.add(enumName.substring(enumName.lastIndexOf('.') + 1));
+            }
+            // Every source contributes to the one aggregated file
+            entry.getOutputs().add(fileName);
+            if (entry.getReferences().contains(ProtoGenerator.DECIMAL_IMPORT)) {
+                writeDecimalProto(entry);
+            }
+        }
+
+        allImports.removeIf(anImport -> allTypeNames.contains(anImport.replace(".proto", "")));
+
+        Path protoFilePath = Paths.get(destinationDirFile.getAbsolutePath(), fileName);
+        try {
+            metrics.time(GenerationMetrics.Phase.WRITE, () -> {
+                Path tempFile = Files.createTempFile(protoFilePath.getParent(), fileName, ".tmp");
+                try {
+                    try (FileChannel out = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                        ByteBuffer header = ByteBuffer.wrap(protoGenerator.generateHeader(packageName, allImports).getBytes(StandardCharsets.UTF_8));
+                        while (header.hasRemaining()) {
+                            out.write(header);
+                        }
+                        for (Path fragment : fragments) {
+                            try (FileChannel in = FileChannel.open(fragment, StandardOpenOption.READ)) {
+                                long size = in.size();
+                                for (long position = 0; position < size; ) {
+                                    position += in.transferTo(position, size - position, out);
+                                }
+                            }
+                        }
+                    }
+                    if (Files.isRegularFile(protoFilePath) && Files.mismatch(tempFile, protoFilePath) == -1) {
+                        stats.recordUnchanged();
+                        logger.info("Unchanged " + protoFilePath);
+                        return;
+                    }
+                    moveIntoPlace(tempFile, protoFilePath);
+                } finally {
+                    Files.deleteIfExists(tempFile);
+                }
+                stats.recordWritten();
+                logger.info("Generated " + protoFilePath);
+            });
+        } catch (IOException e) {
+            logger.error("Error writing proto file", e);
+        }
+    }
+
+    // Every source that refers to the shared Decimal message lists it as an output, so it is only deleted with the
+    // last of them, but it is written once per generator. It has a package of its own, also in single-file mode.
+    private void writeDecimalProto(DependencyGraph.SourceEntry entry) {
+        entry.getOutputs().add(ProtoGenerator.DECIMAL_IMPORT);
+        if (!decimalWritten) {
+            String header = protoGenerator.generateHeader(ProtoGenerator.getSharedPackage(packageName), new TreeSet<>());
+            writeProto(null, ProtoGenerator.DECIMAL_IMPORT, header + protoGenerator.generateDecimal());
+            decimalWritten = true;
+        }
+    }
+
+    private void writeProto(DependencyGraph.SourceEntry entry, String fileName, String protoContent) {
+        if (entry != null) {
+            entry.getOutputs().add(fileName);
+        }
+        Path protoFilePath = Paths.get(destinationDirFile.getAbsolutePath(), fileName);
+        try {
+            if (!writeIfChanged(protoFilePath, protoContent)) {
+                stats.recordUnchanged();
+                logger.info("Unchanged " + protoFilePath);
+                return;
+            }
+            stats.recordWritten();
+            logger.info("Generated " + protoFilePath);
+        } catch (IOException e) {
+            logger.error("Error writing proto file", e);
+        }
+    }
+
+    // Mappers live in the java_package of the messages, so they can use the generated classes by their simple names
+    private void writeJavaSource(DependencyGraph.SourceEntry entry, String className, String content) {
+        String packagePath = packageName == null || packageName.isEmpty() ? "" : packageName.replace('.', '/') + "/";
+        String relativePath = packagePath + className + ".java";
+        entry.getMappers().add(relativePath);
+        Path javaFilePath = mapperDirFile.toPath().resolve(relativePath);
+        try {
+            Files.createDirectories(javaFilePath.getParent());
+            if (writeIfChanged(javaFilePath, content)) {
+                logger.info("Generated " + javaFilePath);
+            }
+        } catch (IOException e) {
+            logger.error("Error writing Java source file", e);
+        }
+    }
+
+    private boolean writeIfChanged(Path filePath, String content) throws IOException {
+        return metrics.time(GenerationMetrics.Phase.WRITE, () -> {
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            if (hasContent(filePath, bytes)) {
+                return false;
+            }
+            Files.createDirectories(filePath.getParent());
+            // Write next to the target and move it into place so readers never see a partial file
+            Path tempFile = Files.createTempFile(filePath.getParent(), filePath.getFileName().toString(), ".tmp");
+            try {
+                Files.write(tempFile, bytes);
+                moveIntoPlace(tempFile, filePath);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+            return true;
+        });
+    }
+
+    private void moveIntoPlace(Path tempFile, Path protoFilePath) throws IOException {
+        try {
+            Files.move(tempFile, protoFilePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, protoFilePath, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private boolean hasContent(Path file, byte[] bytes) throws IOException {
+        return Files.isRegularFile(file) && Files.size(file) == bytes.length && Arrays.equals(Files.readAllBytes(file), bytes);
+    }
+}
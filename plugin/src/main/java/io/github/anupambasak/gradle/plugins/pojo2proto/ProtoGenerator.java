@@ -16,192 +16,365 @@
 
 package io.github.anupambasak.gradle.plugins.pojo2proto;
 
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.EnumDeclaration;
-import com.github.javaparser.ast.body.FieldDeclaration;
-import com.github.javaparser.ast.body.VariableDeclarator;
 
+import org.gradle.api.GradleException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class ProtoGenerator {
 
+    private static final Set<String> MAP_TYPES = Set.of("Map", "HashMap", "LinkedHashMap", "TreeMap");
+    private static final Set<String> COLLECTION_TYPES = Set.of("List", "ArrayList", "LinkedList", "Collection", "Set", "HashSet", "LinkedHashSet",
+            "TreeSet", "SortedSet", "NavigableSet");
+    private static final Map<String, String> OPTIONAL_PRIMITIVES = Map.of("OptionalInt", "int", "OptionalLong", "long", "OptionalDouble", "double");
+    private static final String TIMESTAMP_IMPORT = "google/protobuf/timestamp.proto";
+    // Shared messages live in a reserved package below the generated one, so they cannot clash with a source type of
+    // the same name. The file is generated as soon as one message refers to it.
+    static final String SHARED_PACKAGE = "pojo2proto";
+    static final String DECIMAL_IMPORT = SHARED_PACKAGE + "/Decimal.proto";
+    private static final String DECIMAL_TYPE = SHARED_PACKAGE + ".Decimal";
+    private static final TypeDescriptor LONG = new TypeDescriptor("long", List.of(), 0);
+    static final String SUBTYPE_ONEOF = "subtype";
+    private static final Set<String> SCALAR_TYPES = Set.of("double", "float", "int32", "int64", "uint32", "uint64", "sint32", "sint64", "fixed32",
+            "fixed64", "sfixed32", "sfixed64", "bool", "string", "bytes");
+
+    // Field types repeat heavily across a source set, so each distinct type is mapped once per run
+    private final Map<TypeDescriptor, TypeMapping> typeMappings = new HashMap<>();
+    private SymbolTable typeMappingsSymbolTable;
+    private final FieldNumbering fieldNumbering;
+    private final FieldEncodings fieldEncodings;
+
+    public ProtoGenerator() {
+        this(new FieldNumbering());
+    }
+
+    public ProtoGenerator(FieldNumbering fieldNumbering) {
+        this(fieldNumbering, new FieldEncodings());
+    }
+
+    public ProtoGenerator(FieldNumbering fieldNumbering, FieldEncodings fieldEncodings) {
+        this.fieldNumbering = fieldNumbering;
+        this.fieldEncodings = fieldEncodings;
+    }
+
     public String generateHeader(String packageName, Set<String> imports) {
-        StringBuilder headerBuilder = new StringBuilder();
-        headerBuilder.append("syntax = \"proto3\";\n\n");
+        return render(out -> writeHeader(out, packageName, imports));
+    }
+
+    public String generateMessages(List<SourceSchema> schemas, SymbolTable symbolTable) {
+        return render(out -> writeMessages(out, schemas, symbolTable));
+    }
+
+    public String generateMessage(SourceSchema schema, SymbolTable symbolTable) {
+        return render(out -> writeMessage(out, schema, symbolTable));
+    }
+
+    public String generateMessageWithNestedEnums(SourceSchema schema, SymbolTable symbolTable) {
+        return render(out -> writeMessageWithNestedEnums(out, schema, symbolTable));
+    }
+
+    public String generateEnums(List<SourceSchema.EnumDefinition> enumDefinitions) {
+        return render(out -> writeEnums(out, enumDefinitions));
+    }
+
+    public String generateEnum(SourceSchema.EnumDefinition enumDefinition) {
+        return render(out -> writeEnum(out, enumDefinition));
+    }
+
+    public static String getSharedPackage(String packageName) {
+        return packageName == null || packageName.isEmpty() ? SHARED_PACKAGE : packageName + "." + SHARED_PACKAGE;
+    }
+
+    public String generateDecimal() {
+        return render(this::writeDecimal);
+    }
+
+    public void writeHeader(Appendable out, String packageName, Set<String> imports) throws IOException {
+        out.append("syntax = \"proto3\";\n\n");
         if (packageName != null && !packageName.isEmpty()) {
-            headerBuilder.append("package ").append(packageName).append(";\n\n");
-            headerBuilder.append("option java_package = \"").append(packageName).append("\";\n");
-            headerBuilder.append("option java_multiple_files = true;\n\n");
+            out.append("package ").append(packageName).append(";\n\n");
+            out.append("option java_package = \"").append(packageName).append("\";\n");
+            out.append("option java_multiple_files = true;\n\n");
         }
         if (!imports.isEmpty()) {
             for (String anImport : imports) {
-                headerBuilder.append("import \"").append(anImport).append("\";\n");
+                out.append("import \"").append(anImport).append("\";\n");
             }
-            headerBuilder.append("\n");
+            out.append("\n");
         }
-        return headerBuilder.toString();
     }
 
-    public String generateMessages(List<CompilationUnit> cus, List<EnumDeclaration> enumDeclarations) {
-        StringBuilder messages = new StringBuilder();
-        for (CompilationUnit cu : cus) {
-            if (cu.getPrimaryType().isPresent() && !cu.getPrimaryType().get().isEnumDeclaration()) {
-                messages.append(generateMessage(cu, enumDeclarations));
+    public void writeMessages(Appendable out, List<SourceSchema> schemas, SymbolTable symbolTable) throws IOException {
+        for (SourceSchema schema : schemas) {
+            if (schema.getPrimaryKind() != null && schema.getPrimaryKind() != SourceSchema.Kind.ENUM) {
+                writeMessage(out, schema, symbolTable);
             }
         }
-        return messages.toString();
     }
 
-    public String generateMessage(CompilationUnit cu, List<EnumDeclaration> enumDeclarations) {
-        StringBuilder messageBuilder = new StringBuilder();
-        cu.getPrimaryTypeName().ifPresent(className -> {
-            messageBuilder.append("message ").append(className).append(" {\n");
+    // Single-file messages list every field of the source
+    public void writeMessage(Appendable out, SourceSchema schema, SymbolTable symbolTable) throws IOException {
+        if (schema.getPrimaryTypeName() == null) {
+            return;
+        }
+        out.append("message ").append(schema.getPrimaryTypeName()).append(" {\n");
+        if (schema.isPolymorphic()) {
+            writeOneof(out, schema.getPackageName(), schema.getPrimaryTypeName(), getSubtypeFields(schema), symbolTable);
+        } else {
+            writeFields(out, schema.getPackageName(), schema.getPrimaryTypeName(), schema.getAllFields(), symbolTable);
+        }
+        out.append("}\n\n");
+    }
 
-            AtomicInteger index = new AtomicInteger(1);
-            cu.findAll(FieldDeclaration.class).forEach(field -> {
-                for (VariableDeclarator variable : field.getVariables()) {
-                    String fieldName = variable.getNameAsString();
-                    String fieldType = variable.getType().asString();
-                    String protoType = getProtoType(fieldType, enumDeclarations);
-                    messageBuilder.append(String.format("  %s %s = %d;\n", protoType, fieldName, index.getAndIncrement()));
-                }
-            });
+    public void writeMessageWithNestedEnums(Appendable out, SourceSchema schema, SymbolTable symbolTable) throws IOException {
+        if (schema.getPrimaryTypeName() == null) {
+            return;
+        }
+        out.append("message ").append(schema.getPrimaryTypeName()).append(" {\n");
+
+        for (SourceSchema.EnumDefinition nestedEnum : schema.getNestedEnums()) {
+            writeEnum(out, nestedEnum);
+        }
+
+        if (schema.isPolymorphic()) {
+            writeOneof(out, schema.getPackageName(), schema.getPrimaryTypeName(), getSubtypeFields(schema), symbolTable);
+        } else if (schema.getPrimaryKind() != SourceSchema.Kind.INTERFACE) {
+            writeFields(out, schema.getPackageName(), schema.getPrimaryTypeName(), schema.getFields(), symbolTable);
+        }
+        out.append("}\n\n");
+    }
 
-            messageBuilder.append("}\n\n");
-        });
-        return messageBuilder.toString();
+    // unscaled * 10^-scale. Unscaled values that fit in a long take a single zigzag varint, larger ones their two's
+    // complement bytes as written by BigInteger.toByteArray.
+    public void writeDecimal(Appendable out) throws IOException {
+        out.append("message Decimal {\n");
+        out.append("  oneof unscaled {\n");
+        out.append("    sint64 unscaledLong = 1;\n");
+        out.append("    bytes unscaledBytes = 2;\n");
+        out.append("  }\n");
+        out.append("  sint32 scale = 3;\n");
+        out.append("}\n\n");
     }
-    
-    public String generateMessageWithNestedEnums(CompilationUnit cu, List<EnumDeclaration> nestedEnums, List<EnumDeclaration> allEnums) {
-        StringBuilder messageBuilder = new StringBuilder();
-        cu.getPrimaryTypeName().ifPresent(className -> {
-            messageBuilder.append("message ").append(className).append(" {\n");
 
-            for (EnumDeclaration nestedEnum : nestedEnums) {
-                messageBuilder.append(generateEnum(nestedEnum));
+    public void writeEnums(Appendable out, List<SourceSchema.EnumDefinition> enumDefinitions) throws IOException {
+        for (SourceSchema.EnumDefinition enumDefinition : enumDefinitions) {
+            writeEnum(out, enumDefinition);
+        }
+    }
+
+    public void writeEnum(Appendable out, SourceSchema.EnumDefinition enumDefinition) throws IOException {
+        out.append("enum ").append(enumDefinition.getName()).append(" {\n");
+        int index = 0;
+        for (String constant : enumDefinition.getConstants()) {
+            out.append("  ").append(constant).append(" = ").append(String.valueOf(index++)).append(";\n");
+        }
+        out.append("}\n\n");
+    }
+
+    private void writeFields(Appendable out, String packageName, String messageName, List<SourceSchema.FieldDefinition> fields, SymbolTable symbolTable) throws IOException {
+        List<SourceSchema.FieldDefinition> protoFields = getProtoFields(messageName, fields);
+        FieldNumbering.Assignment assignment = fieldNumbering.assign(packageName, messageName, protoFields);
+        for (int i = 0; i < protoFields.size(); i++) {
+            writeField(out, messageName, protoFields.get(i), symbolTable, assignment.getNumber(i));
+        }
+        writeReserved(out, assignment);
+    }
+
+    // A polymorphic message holds nothing but the oneof, whose fields are numbered and locked like any other
+    private void writeOneof(Appendable out, String packageName, String messageName, List<SourceSchema.FieldDefinition> subtypeFields, SymbolTable symbolTable) throws IOException {
+        FieldNumbering.Assignment assignment = fieldNumbering.assign(packageName, messageName, subtypeFields);
+        out.append("  oneof ").append(SUBTYPE_ONEOF).append(" {\n");
+        for (int i = 0; i < subtypeFields.size(); i++) {
+            SourceSchema.FieldDefinition field = subtypeFields.get(i);
+            out.append("    ").append(getTypeMapping(field.getType(), symbolTable).protoType).append(' ').append(field.getName())
+                    .append(" = ").append(String.valueOf(assignment.getNumber(i))).append(";\n");
+        }
+        out.append("  }\n");
+        writeReserved(out, assignment);
+    }
+
+    private void writeReserved(Appendable out, FieldNumbering.Assignment assignment) throws IOException {
+        if (!assignment.getReserved().isEmpty()) {
+            out.append("  reserved ");
+            for (int i = 0; i < assignment.getReserved().size(); i++) {
+                if (i > 0) {
+                    out.append(", ");
+                }
+                out.append(String.valueOf(assignment.getReserved().get(i)));
             }
+            out.append(";\n");
+        }
+    }
 
-            if (!(cu.getPrimaryType().isPresent() && cu.getPrimaryType().get().isClassOrInterfaceDeclaration() && cu.getPrimaryType().get().asClassOrInterfaceDeclaration().isInterface())) {
-                AtomicInteger index = new AtomicInteger(1);
-                cu.findAll(FieldDeclaration.class).stream()
-                        .filter(field -> !field.isStatic()) // Filter out static fields
-                        .filter(field -> field.getParentNode().isPresent() && field.getParentNode().get().equals(cu.getPrimaryType().get()))
-                        .forEach(field -> {
-                            for (VariableDeclarator variable : field.getVariables()) {
-                                String fieldName = variable.getNameAsString();
-                                String fieldType = variable.getType().asString();
-                                String protoType = getProtoType(fieldType, allEnums);
-                                messageBuilder.append(String.format("  %s %s = %d;\n", protoType, fieldName, index.getAndIncrement()));
-                            }
-                        });
+    // UUIDs written as two fixed64 fields are numbered, locked and reserved as two long fields
+    private List<SourceSchema.FieldDefinition> getProtoFields(String messageName, List<SourceSchema.FieldDefinition> fields) {
+        List<SourceSchema.FieldDefinition> protoFields = null;
+        for (int i = 0; i < fields.size(); i++) {
+            SourceSchema.FieldDefinition field = fields.get(i);
+            if (fieldEncodings.isUuidPair(messageName, field)) {
+                if (protoFields == null) {
+                    protoFields = new ArrayList<>(fields.subList(0, i));
+                }
+                // The halves of a nullable UUID pair track presence instead of reading the nil UUID back as null
+                String halfType = fieldEncodings.isNullable(field) ? "optional " + FieldEncodings.UUID_FIXED64_ENCODING : FieldEncodings.UUID_FIXED64_ENCODING;
+                protoFields.add(new SourceSchema.FieldDefinition(field.getName() + "Msb", LONG, field.getAnnotations(), halfType));
+                protoFields.add(new SourceSchema.FieldDefinition(field.getName() + "Lsb", LONG, field.getAnnotations(), halfType));
+            } else if (protoFields != null) {
+                protoFields.add(field);
             }
-            messageBuilder.append("}\n\n");
-        });
-        return messageBuilder.toString();
+        }
+        return protoFields != null ? protoFields : fields;
     }
 
-    public String generateEnums(List<EnumDeclaration> enumDeclarations) {
-        StringBuilder enums = new StringBuilder();
-        for (EnumDeclaration enumDeclaration : enumDeclarations) {
-            enums.append(generateEnum(enumDeclaration));
+    private void writeField(Appendable out, String messageName, SourceSchema.FieldDefinition field, SymbolTable symbolTable, int index) throws IOException {
+        String protoType = field.getProtoType();
+        if (protoType == null) {
+            checkNesting(messageName, field);
+            String integerEncoding = fieldEncodings.getIntegerEncoding(messageName, field);
+            String uuidEncoding = fieldEncodings.getUuidEncoding(messageName, field);
+            String timestampEncoding = fieldEncodings.getTimestampEncoding(messageName, field);
+            String decimalEncoding = fieldEncodings.getDecimalEncoding(messageName, field);
+            // The memo only holds the default encodings
+            protoType = FieldEncodings.DEFAULT_INTEGER_ENCODING.equals(integerEncoding) && FieldEncodings.DEFAULT_UUID_ENCODING.equals(uuidEncoding)
+                    && FieldEncodings.DEFAULT_TIMESTAMP_ENCODING.equals(timestampEncoding) && FieldEncodings.DEFAULT_DECIMAL_ENCODING.equals(decimalEncoding)
+                    ? getTypeMapping(field.getType(), symbolTable).protoType
+                    : getProtoType(field.getType(), symbolTable, integerEncoding, uuidEncoding, timestampEncoding, decimalEncoding);
+            // Message fields track presence already
+            if (fieldEncodings.isNullable(field) && isScalar(field.getType(), protoType, symbolTable)) {
+                protoType = "optional " + protoType;
+            }
         }
-        return enums.toString();
+        out.append("  ").append(protoType).append(' ').append(field.getName()).append(" = ").append(String.valueOf(index)).append(";\n");
     }
 
-    public String generateEnum(EnumDeclaration enumDeclaration) {
-        StringBuilder enumBuilder = new StringBuilder();
-        enumBuilder.append("enum ").append(enumDeclaration.getNameAsString()).append(" {\n");
-        AtomicInteger index = new AtomicInteger(0);
-        enumDeclaration.getEntries().forEach(enumConstant -> {
-            enumBuilder.append(String.format("  %s = %d;\n", enumConstant.getNameAsString(), index.getAndIncrement()));
-        });
-        enumBuilder.append("}\n\n");
-        return enumBuilder.toString();
+    private static String render(ProtoWriter writer) {
+        StringBuilder builder = new StringBuilder();
+        try {
+            writer.write(builder);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
     }
 
-    public Set<String> getImports(CompilationUnit cu, List<EnumDeclaration> enumDeclarations) {
+    public Set<String> getImports(SourceSchema schema, SymbolTable symbolTable) {
         Set<String> imports = new TreeSet<>();
-        cu.findAll(FieldDeclaration.class).stream()
-                .filter(field -> !field.isStatic()) // Filter out static fields
-                .filter(field -> field.getParentNode().isPresent() && field.getParentNode().get().equals(cu.getPrimaryType().get()))
-                .forEach(field -> {
-            for (VariableDeclarator variable : field.getVariables()) {
-                String fieldType = variable.getType().asString();
-                List<String> importTypes = getImportTypes(fieldType);
-
-                for (String importType : importTypes) {
-                    if (isEnum(importType, enumDeclarations)) {
-                        if (importType.contains(".")) {
-                            String parentName = importType.substring(0, importType.lastIndexOf('.'));
-                            if (!cu.getPrimaryTypeName().map(name -> name.equals(parentName)).orElse(false)) {
-                                imports.add(parentName + ".proto");
-                            }
-                        } else {
-                            imports.add(importType + ".proto");
-                        }
-                    } else if (!isPrimitive(importType)) {
-                        switch (importType) {
-                            case "Instant":
-                            case "ZonedDateTime":
-                            case "LocalDateTime":
-                                imports.add("google/protobuf/timestamp.proto");
-                                break;
-                            case "LocalDate":
-                                imports.add("google/type/date.proto");
-                                break;
-                            case "LocalTime":
-                                imports.add("google/type/timeofday.proto");
-                                break;
-                            case "Duration":
-                                imports.add("google/protobuf/duration.proto");
-                                break;
-                            case "Period":
-                                // No import needed for string
-                                break;
-                            default:
-                                imports.add(importType + ".proto");
-                                break;
-                        }
-                    }
+        // Nested types live in the proto file of their top-level type
+        String ownProto = schema.getPrimaryTypeName() + ".proto";
+        for (SourceSchema.FieldDefinition field : schema.isPolymorphic() ? getSubtypeFields(schema) : schema.getFields()) {
+            boolean scalarTimestamps = !FieldEncodings.DEFAULT_TIMESTAMP_ENCODING.equals(fieldEncodings.getTimestampEncoding(schema.getPrimaryTypeName(), field));
+            boolean scalarDecimals = !FieldEncodings.DEFAULT_DECIMAL_ENCODING.equals(fieldEncodings.getDecimalEncoding(schema.getPrimaryTypeName(), field));
+            for (String anImport : getTypeMapping(field.getType(), symbolTable).imports) {
+                if (!anImport.equals(ownProto) && !(scalarTimestamps && anImport.equals(TIMESTAMP_IMPORT)) && !(scalarDecimals && anImport.equals(DECIMAL_IMPORT))) {
+                    imports.add(anImport);
                 }
             }
-        });
+        }
         return imports;
     }
 
-    private String getProtoType(String javaType, List<EnumDeclaration> enumDeclarations) {
-        if (javaType.startsWith("List<")) {
-            String nestedType = javaType.substring(5, javaType.length() - 1);
-            return "repeated " + getProtoType(nestedType, enumDeclarations);
+    private TypeMapping getTypeMapping(TypeDescriptor descriptor, SymbolTable symbolTable) {
+        if (symbolTable != typeMappingsSymbolTable) {
+            typeMappings.clear();
+            typeMappingsSymbolTable = symbolTable;
         }
-        if (javaType.matches("(Map|HashMap|LinkedHashMap|TreeMap)<.*,.*>")) {
-            Pattern pattern = Pattern.compile("<(.*),(.*)>");
-            Matcher matcher = pattern.matcher(javaType);
-            if (matcher.find()) {
-                String keyType = getProtoType(matcher.group(1).trim(), enumDeclarations);
-                String valueType = getProtoType(matcher.group(2).trim(), enumDeclarations);
-                return String.format("map<%s, %s>", keyType, valueType);
+        TypeMapping typeMapping = typeMappings.get(descriptor);
+        if (typeMapping == null) {
+            List<String> imports = new ArrayList<>();
+            for (String importType : getImportTypes(descriptor)) {
+                String anImport = getImport(importType, symbolTable);
+                if (anImport != null && !imports.contains(anImport)) {
+                    imports.add(anImport);
+                }
             }
+            typeMapping = new TypeMapping(getProtoType(descriptor, symbolTable, FieldEncodings.DEFAULT_INTEGER_ENCODING, FieldEncodings.DEFAULT_UUID_ENCODING,
+                    FieldEncodings.DEFAULT_TIMESTAMP_ENCODING, FieldEncodings.DEFAULT_DECIMAL_ENCODING), imports);
+            typeMappings.put(descriptor, typeMapping);
+        }
+        return typeMapping;
+    }
+
+    private String getImport(String importType, SymbolTable symbolTable) {
+        SymbolTable.Symbol symbol = symbolTable != null ? symbolTable.resolve(importType) : null;
+        if (symbol != null && symbol.isExternal()) {
+            return symbol.getProtoFile();
         }
-        if (isEnum(javaType, enumDeclarations)) {
+        if (symbol != null && symbol.isEnum()) {
+            return symbol.getTopLevelName() + ".proto";
+        }
+        if (isPrimitive(importType)) {
+            return null;
+        }
+        switch (importType) {
+            case "Instant":
+            case "ZonedDateTime":
+            case "LocalDateTime":
+                return TIMESTAMP_IMPORT;
+            case "LocalDate":
+                return "google/type/date.proto";
+            case "LocalTime":
+                return "google/type/timeofday.proto";
+            case "Duration":
+                return "google/protobuf/duration.proto";
+            case "BigDecimal":
+            case "BigInteger":
+                return DECIMAL_IMPORT;
+            case "Period":
+                // No import needed for string
+                return null;
+            default:
+                return (symbol != null ? symbol.getTopLevelName() : importType) + ".proto";
+        }
+    }
+
+    private String getProtoType(TypeDescriptor type, SymbolTable symbolTable, String integerEncoding, String uuidEncoding, String timestampEncoding,
+                                String decimalEncoding) {
+        // Repeated scalars are packed by default in proto3
+        TypeDescriptor element = getElementType(type);
+        if (element != null) {
+            return "repeated " + getProtoType(element, symbolTable, integerEncoding, uuidEncoding, timestampEncoding, decimalEncoding);
+        }
+        if (isMap(type)) {
+            String keyType = getProtoType(type.getTypeArguments().get(0), symbolTable, integerEncoding, uuidEncoding, timestampEncoding, decimalEncoding);
+            String valueType = getProtoType(type.getTypeArguments().get(1), symbolTable, integerEncoding, uuidEncoding, timestampEncoding, decimalEncoding);
+            return String.format("map<%s, %s>", keyType, valueType);
+        }
+        TypeDescriptor value = getOptionalType(type);
+        if (value != null) {
+            return "optional " + getProtoType(value, symbolTable, integerEncoding, uuidEncoding, timestampEncoding, decimalEncoding);
+        }
+        if (isBytes(type)) {
+            return "bytes";
+        }
+        String javaType = type.toString();
+        SymbolTable.Symbol symbol = symbolTable != null ? symbolTable.resolve(javaType) : null;
+        if (symbol != null && symbol.isExternal()) {
+            // Fully qualified, as the other project may use another proto package
+            return "." + symbol.getProtoName();
+        }
+        if (symbol != null && symbol.isEnum()) {
             return javaType;
         }
         switch (javaType) {
             case "String":
-            case "UUID":
                 return "string";
+            case "UUID":
+                // Only singular fields are split into two fixed64 fields
+                return FieldEncodings.DEFAULT_UUID_ENCODING.equals(uuidEncoding) ? "string" : "bytes";
             case "int":
             case "Integer":
-                return "int32";
+                return integerEncoding + "32";
             case "long":
             case "Long":
-                return "int64";
+                return integerEncoding + "64";
             case "double":
             case "Double":
                 return "double";
@@ -214,6 +387,9 @@ public class ProtoGenerator {
             case "Instant":
             case "ZonedDateTime":
             case "LocalDateTime":
+                if (!FieldEncodings.DEFAULT_TIMESTAMP_ENCODING.equals(timestampEncoding)) {
+                    return timestampEncoding.substring(0, timestampEncoding.indexOf('-'));
+                }
                 return "google.protobuf.Timestamp";
             case "LocalDate":
                 return "google.type.Date";
@@ -223,11 +399,22 @@ public class ProtoGenerator {
                 return "google.protobuf.Duration";
             case "Period":
                 return "string";
+            case "BigDecimal":
+            case "BigInteger":
+                return FieldEncodings.DEFAULT_DECIMAL_ENCODING.equals(decimalEncoding) ? DECIMAL_TYPE : decimalEncoding;
             default:
                 return javaType;
         }
     }
 
+    private static boolean isScalar(TypeDescriptor type, String protoType, SymbolTable symbolTable) {
+        if (SCALAR_TYPES.contains(protoType)) {
+            return true;
+        }
+        SymbolTable.Symbol symbol = symbolTable != null ? symbolTable.resolve(type.toString()) : null;
+        return symbol != null && symbol.isEnum();
+    }
+
     private boolean isPrimitive(String javaType) {
         switch (javaType) {
             case "String":
@@ -248,30 +435,98 @@ public class ProtoGenerator {
         }
     }
 
-    private boolean isEnum(String javaType, List<EnumDeclaration> enumDeclarations) {
-        if (enumDeclarations == null) {
-            return false;
+    // One oneof field per subtype, named after the subtype
+    static List<SourceSchema.FieldDefinition> getSubtypeFields(SourceSchema schema) {
+        List<SourceSchema.FieldDefinition> fields = new ArrayList<>(schema.getSubtypes().size());
+        for (TypeDescriptor subtype : schema.getSubtypes()) {
+            String name = subtype.getSimpleName();
+            fields.add(new SourceSchema.FieldDefinition(Character.toLowerCase(name.charAt(0)) + name.substring(1), subtype));
+        }
+        return fields;
+    }
+
+    // proto3 has no repeated, optional or map values inside a repeated, optional or map field, e.g. no List<List<T>>,
+    // int[][], List<Optional<T>>, Optional<List<T>> or Map<K, List<V>>
+    private static void checkNesting(String messageName, SourceSchema.FieldDefinition field) {
+        TypeDescriptor type = field.getType();
+        TypeDescriptor inner = getElementType(type);
+        if (inner == null) {
+            inner = getOptionalType(type);
+        }
+        if (inner == null && isMap(type)) {
+            inner = type.getTypeArguments().get(1);
+        }
+        if (inner != null && (getElementType(inner) != null || getOptionalType(inner) != null || isMap(inner))) {
+            throw new GradleException("Field " + messageName + "." + field.getName() + " of type " + type + " has no proto3 form, as a "
+                    + "collection, array, Optional or map cannot hold another one; wrap the inner " + inner + " in a class of its own");
+        }
+    }
+
+    static boolean isMap(TypeDescriptor type) {
+        return !type.isArray() && type.getTypeArguments().size() == 2 && MAP_TYPES.contains(type.getSimpleName());
+    }
+
+    // The element type of collections and of arrays other than byte[], or null for other types
+    static TypeDescriptor getElementType(TypeDescriptor type) {
+        if (type.isArray()) {
+            return isBytes(type) ? null : new TypeDescriptor(type.getName(), type.getTypeArguments(), type.getArrayDimensions() - 1);
         }
-        return enumDeclarations.stream()
-                .anyMatch(e -> e.getFullyQualifiedName().map(name -> name.endsWith("." + javaType) || name.equals(javaType)).orElse(false) ||
-                               e.getNameAsString().equals(javaType)
-                );
+        if (type.getTypeArguments().size() == 1 && COLLECTION_TYPES.contains(type.getSimpleName())) {
+            return type.getTypeArguments().get(0);
+        }
+        return null;
     }
 
-    private List<String> getImportTypes(String javaType) {
-        if (javaType.startsWith("List<")) {
-            return getImportTypes(javaType.substring(5, javaType.length() - 1));
+    // The value type of Optional and its primitive specializations, or null for other types
+    static TypeDescriptor getOptionalType(TypeDescriptor type) {
+        if (type.isGeneric("Optional", 1)) {
+            return type.getTypeArguments().get(0);
         }
-        if (javaType.matches("(Map|HashMap|LinkedHashMap|TreeMap)<.*,.*>")) {
-            Pattern pattern = Pattern.compile("<(.*),(.*)>");
-            Matcher matcher = pattern.matcher(javaType);
-            if (matcher.find()) {
-                List<String> types = new ArrayList<>();
-                types.addAll(getImportTypes(matcher.group(1).trim()));
-                types.addAll(getImportTypes(matcher.group(2).trim()));
-                return types;
+        String primitive = type.isArray() ? null : OPTIONAL_PRIMITIVES.get(type.getSimpleName());
+        return primitive != null ? new TypeDescriptor(primitive, List.of(), 0) : null;
+    }
+
+    static boolean isBytes(TypeDescriptor type) {
+        if (type.getArrayDimensions() == 1) {
+            return type.getName().equals("byte");
+        }
+        return !type.isArray() && type.getSimpleName().equals("ByteBuffer");
+    }
+
+    private List<String> getImportTypes(TypeDescriptor type) {
+        TypeDescriptor element = getElementType(type);
+        if (element != null) {
+            return getImportTypes(element);
+        }
+        TypeDescriptor value = getOptionalType(type);
+        if (value != null) {
+            return getImportTypes(value);
+        }
+        if (isMap(type)) {
+            List<String> types = new ArrayList<>();
+            for (TypeDescriptor typeArgument : type.getTypeArguments()) {
+                types.addAll(getImportTypes(typeArgument));
             }
+            return types;
+        }
+        if (isBytes(type)) {
+            return List.of();
+        }
+        return List.of(type.toString());
+    }
+
+    private interface ProtoWriter {
+        void write(Appendable out) throws IOException;
+    }
+
+    private static final class TypeMapping {
+
+        private final String protoType;
+        private final List<String> imports;
+
+        private TypeMapping(String protoType, List<String> imports) {
+            this.protoType = protoType;
+            this.imports = imports;
         }
-        return List.of(javaType);
     }
 }
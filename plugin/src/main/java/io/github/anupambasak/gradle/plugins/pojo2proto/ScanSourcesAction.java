@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+import java.io.File;
+import java.io.IOException;
+
+public abstract class ScanSourcesAction implements WorkAction<ScanSourcesAction.Parameters> {
+
+    public interface Parameters extends WorkParameters {
+        ConfigurableFileCollection getSourceFiles();
+        // Absent with process isolation
+        Property<ParsedModelCache> getModelCache();
+        RegularFileProperty getResultFile();
+        RegularFileProperty getMetricsFile();
+    }
+
+    @Override
+    public void execute() {
+        SymbolScanner scanner = new SymbolScanner(Logging.getLogger(ScanSourcesAction.class));
+        DependencyGraph symbols = new DependencyGraph();
+        GenerationMetrics metrics = new GenerationMetrics();
+        ParsedModelCache modelCache = getParameters().getModelCache().getOrNull();
+        metrics.time(GenerationMetrics.Phase.SCAN, () -> {
+            for (File javaFile : getParameters().getSourceFiles()) {
+                SourceSchema cached = modelCache != null ? modelCache.get(javaFile) : null;
+                DependencyGraph.SourceEntry entry = cached != null ? DependencyGraph.SourceEntry.of(cached) : scanner.scan(javaFile);
+                if (entry != null) {
+                    symbols.put(javaFile.getAbsolutePath(), entry);
+                }
+            }
+        });
+        File resultFile = getParameters().getResultFile().get().getAsFile();
+        try {
+            symbols.save(resultFile);
+            metrics.save(getParameters().getMetricsFile().get().getAsFile());
+        } catch (IOException e) {
+            throw new GradleException("Error writing scan result: " + resultFile.getAbsolutePath(), e);
+        }
+    }
+}
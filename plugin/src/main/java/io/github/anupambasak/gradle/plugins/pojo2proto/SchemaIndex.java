@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+// The messages and enums a project generated and the proto files that declare them. Projects publish their index
+// so that other projects can refer to these types without parsing their sources.
+public class SchemaIndex implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<SymbolTable.Symbol> symbols = new ArrayList<>();
+
+    public List<SymbolTable.Symbol> getSymbols() {
+        return symbols;
+    }
+
+    // Without a single file name, every type is declared in the proto file of its top-level type. The single file
+    // declares all enums at its top level.
+    public static SchemaIndex of(DependencyGraph graph, String protoPackage, String singleFileName) {
+        SchemaIndex schemaIndex = new SchemaIndex();
+        for (String sourcePath : new TreeSet<>(graph.getSourcePaths())) {
+            DependencyGraph.SourceEntry entry = graph.get(sourcePath);
+            Set<String> mapperFiles = new TreeSet<>();
+            for (String mapper : entry.getMappers()) {
+                mapperFiles.add(mapper.substring(mapper.lastIndexOf('/') + 1));
+            }
+            for (String message : entry.getMessages()) {
+                schemaIndex.symbols.add(new SymbolTable.Symbol(entry.getPackageName(), message, SymbolTable.Kind.MESSAGE, getProtoName(protoPackage, message),
+                        getProtoFile(message, singleFileName), mapperFiles.contains(MapperGenerator.getMapperName(message) + ".java"),
+                        mapperFiles.contains(MapperGenerator.getViewName(message) + ".java"), entry.getPolymorphicMessages().contains(message)));
+            }
+            for (String enumName : entry.getEnums()) {
+                String protoEnumName = singleFileName != null ? enumName.substring(enumName.lastIndexOf('.') + 1) : enumName;
+                schemaIndex.symbols.add(new SymbolTable.Symbol(entry.getPackageName(), enumName, SymbolTable.Kind.ENUM, getProtoName(protoPackage, protoEnumName),
+                        getProtoFile(enumName, singleFileName), false, false));
+            }
+        }
+        return schemaIndex;
+    }
+
+    private static String getProtoName(String protoPackage, String name) {
+        return protoPackage == null || protoPackage.isEmpty() ? name : protoPackage + "." + name;
+    }
+
+    private static String getProtoFile(String nestedName, String singleFileName) {
+        if (singleFileName != null) {
+            return singleFileName;
+        }
+        int dot = nestedName.indexOf('.');
+        return (dot < 0 ? nestedName : nestedName.substring(0, dot)) + ".proto";
+    }
+
+    public static SchemaIndex load(File file) {
+        return StateFiles.read(file, SchemaIndex.class);
+    }
+
+    public void save(File file) throws IOException {
+        StateFiles.write(file, this);
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Selects the sources that are worth parsing before JavaParser sees them. Paths are matched against Ant-style
+// include and exclude patterns; the package and marker annotation checks look at the raw bytes of the file and
+// err on the side of accepting it, so a marker that is only mentioned in a comment still selects the file.
+public final class SourceFilter {
+
+    // Mapping a file has a fixed cost that only pays off for larger sources
+    private static final int MAPPED_THRESHOLD = 64 * 1024;
+
+    private final List<Pattern> includes;
+    private final List<Pattern> excludes;
+    private final List<String> packages;
+    private final byte[] marker;
+    // Reused between files, so a filter must not be shared between threads
+    private ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+
+    public SourceFilter(List<String> includes, List<String> excludes, List<String> packages, String markerAnnotation) {
+        this.includes = toPatterns(includes);
+        this.excludes = toPatterns(excludes);
+        this.packages = packages == null ? List.of() : List.copyOf(packages);
+        this.marker = markerAnnotation == null || markerAnnotation.isEmpty()
+                ? null
+                : markerAnnotation.substring(markerAnnotation.lastIndexOf('.') + 1).getBytes(StandardCharsets.UTF_8);
+    }
+
+    public boolean isEnabled() {
+        return !includes.isEmpty() || !excludes.isEmpty() || !packages.isEmpty() || marker != null;
+    }
+
+    public boolean accepts(File javaFile, String relativePath) {
+        if (!matchesPath(relativePath)) {
+            return false;
+        }
+        if (packages.isEmpty() && marker == null) {
+            return true;
+        }
+        ByteBuffer content;
+        try {
+            content = read(javaFile);
+        } catch (IOException e) {
+            // Leave the error reporting to the scanner and the parser
+            return true;
+        }
+        return (packages.isEmpty() || matchesPackage(readPackageName(content))) && (marker == null || containsMarker(content));
+    }
+
+    public boolean matchesPath(String relativePath) {
+        if (!includes.isEmpty() && includes.stream().noneMatch(pattern -> pattern.matcher(relativePath).matches())) {
+            return false;
+        }
+        return excludes.stream().noneMatch(pattern -> pattern.matcher(relativePath).matches());
+    }
+
+    private boolean matchesPackage(String packageName) {
+        for (String selected : packages) {
+            if (packageName.equals(selected) || packageName.startsWith(selected) && packageName.charAt(selected.length()) == '.') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ByteBuffer read(File javaFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(javaFile.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > MAPPED_THRESHOLD) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            if (buffer.capacity() < size) {
+                buffer = ByteBuffer.allocate(MAPPED_THRESHOLD);
+            }
+            buffer.clear().limit((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    // The package declaration is the first token after comments, so declarations of other files in comments or
+    // string literals are never seen
+    private static String readPackageName(ByteBuffer content) {
+        int position = skipWhitespaceAndComments(content, skipByteOrderMark(content));
+        if (!startsWithWord(content, position, "package")) {
+            return "";
+        }
+        StringBuilder packageName = new StringBuilder();
+        position = skipWhitespaceAndComments(content, position + "package".length());
+        while (position < content.limit() && content.get(position) != ';') {
+            byte b = content.get(position);
+            if (isIdentifierPart(b) || b == '.') {
+                packageName.append((char) (b & 0xff));
+                position++;
+            } else {
+                position = Math.max(position + 1, skipWhitespaceAndComments(content, position));
+            }
+        }
+        // Package names are almost always ASCII; decode properly only when they are not
+        String name = packageName.toString();
+        return name.chars().allMatch(c -> c < 0x80) ? name : new String(name.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+    }
+
+    private boolean containsMarker(ByteBuffer content) {
+        int limit = content.limit();
+        for (int position = 0; position < limit; position++) {
+            if (content.get(position) != '@') {
+                continue;
+            }
+            int start = skipWhitespace(content, position + 1);
+            int end = start;
+            int segmentStart = start;
+            while (end < limit) {
+                byte b = content.get(end);
+                if (b == '.') {
+                    segmentStart = end + 1;
+                } else if (!isIdentifierPart(b)) {
+                    break;
+                }
+                end++;
+            }
+            if (end - segmentStart == marker.length && regionMatches(content, segmentStart, marker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int skipByteOrderMark(ByteBuffer content) {
+        return content.limit() >= 3 && (content.get(0) & 0xff) == 0xef && (content.get(1) & 0xff) == 0xbb && (content.get(2) & 0xff) == 0xbf ? 3 : 0;
+    }
+
+    private static int skipWhitespace(ByteBuffer content, int position) {
+        while (position < content.limit() && Character.isWhitespace(content.get(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int skipWhitespaceAndComments(ByteBuffer content, int position) {
+        int limit = content.limit();
+        while (true) {
+            position = skipWhitespace(content, position);
+            if (position + 1 >= limit || content.get(position) != '/') {
+                return position;
+            }
+            byte next = content.get(position + 1);
+            if (next == '/') {
+                while (position < limit && content.get(position) != '\n') {
+                    position++;
+                }
+            } else if (next == '*') {
+                position += 2;
+                while (position + 1 < limit && !(content.get(position) == '*' && content.get(position + 1) == '/')) {
+                    position++;
+                }
+                position += 2;
+            } else {
+                return position;
+            }
+        }
+    }
+
+    private static boolean startsWithWord(ByteBuffer content, int position, String word) {
+        return regionMatches(content, position, word.getBytes(StandardCharsets.US_ASCII))
+                && (position + word.length() >= content.limit() || !isIdentifierPart(content.get(position + word.length())));
+    }
+
+    private static boolean regionMatches(ByteBuffer content, int position, byte[] bytes) {
+        if (position + bytes.length > content.limit()) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (content.get(position + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Bytes of multi-byte UTF-8 sequences are treated as identifier parts
+    private static boolean isIdentifierPart(byte b) {
+        return b < 0 || b >= 'a' && b <= 'z' || b >= 'A' && b <= 'Z' || b >= '0' && b <= '9' || b == '_' || b == '$';
+    }
+
+    private static List<Pattern> toPatterns(List<String> globs) {
+        List<Pattern> patterns = new ArrayList<>();
+        if (globs != null) {
+            for (String glob : globs) {
+                patterns.add(toPattern(glob));
+            }
+        }
+        return patterns;
+    }
+
+    // Ant-style: "**/" matches any number of directories, "*" and "?" stay within one path segment, and a
+    // trailing "/" stands for everything below the directory
+    private static Pattern toPattern(String glob) {
+        String normalized = glob.replace('\\', '/');
+        if (normalized.endsWith("/")) {
+            normalized += "**";
+        }
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (c == '*' && i + 1 < normalized.length() && normalized.charAt(i + 1) == '*') {
+                if (i + 2 < normalized.length() && normalized.charAt(i + 2) == '/') {
+                    regex.append("(?:.*/)?");
+                    i += 2;
+                } else {
+                    regex.append(".*");
+                    i++;
+                }
+            } else if (c == '*') {
+                regex.append("[^/]*");
+            } else if (c == '?') {
+                regex.append("[^/]");
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.PackageDeclaration;
+import com.github.javaparser.ast.body.EnumConstantDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MemberValuePair;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+// Everything the generator reads from a source file, collected in one walk over its AST so the AST can be
+// released right after parsing
+public final class SourceSchema {
+
+    public enum Kind {
+        CLASS,
+        INTERFACE,
+        ENUM,
+        OTHER
+    }
+
+    public static final class AnnotationDefinition {
+
+        private final String name;
+        private final Map<String, String> values;
+
+        public AnnotationDefinition(String name, Map<String, String> values) {
+            this.name = name;
+            this.values = Map.copyOf(values);
+        }
+
+        // As written in the source, so either simple or qualified
+        public String getName() {
+            return name;
+        }
+
+        public String getSimpleName() {
+            return name.substring(name.lastIndexOf('.') + 1);
+        }
+
+        // Constant values by member name; a single-member annotation stores its value as "value"
+        public Map<String, String> getValues() {
+            return values;
+        }
+    }
+
+    public static final class FieldDefinition {
+
+        private final String name;
+        private final TypeDescriptor type;
+        private final List<AnnotationDefinition> annotations;
+        private final String protoType;
+
+        public FieldDefinition(String name, TypeDescriptor type) {
+            this(name, type, List.of());
+        }
+
+        public FieldDefinition(String name, TypeDescriptor type, List<AnnotationDefinition> annotations) {
+            this(name, type, annotations, null);
+        }
+
+        FieldDefinition(String name, TypeDescriptor type, List<AnnotationDefinition> annotations, String protoType) {
+            this.name = name;
+            this.type = type;
+            this.annotations = List.copyOf(annotations);
+            this.protoType = protoType;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public TypeDescriptor getType() {
+            return type;
+        }
+
+        public List<AnnotationDefinition> getAnnotations() {
+            return annotations;
+        }
+
+        // Set on fields the generator derives from a source field, whose proto type their encoding fixes; null otherwise
+        public String getProtoType() {
+            return protoType;
+        }
+
+        // Matched by simple name, since sources usually import the annotations they use
+        public AnnotationDefinition getAnnotation(String annotationName) {
+            String simpleName = annotationName.substring(annotationName.lastIndexOf('.') + 1);
+            for (AnnotationDefinition annotation : annotations) {
+                if (annotation.getSimpleName().equals(simpleName)) {
+                    return annotation;
+                }
+            }
+            return null;
+        }
+
+        public boolean hasAnnotation(String annotationName) {
+            return getAnnotation(annotationName) != null;
+        }
+    }
+
+    public static final class EnumDefinition {
+
+        private final String name;
+        private final String nestedName;
+        private final List<String> constants;
+
+        public EnumDefinition(String name, String nestedName, List<String> constants) {
+            this.name = name;
+            this.nestedName = nestedName;
+            this.constants = List.copyOf(constants);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getNestedName() {
+            return nestedName;
+        }
+
+        public List<String> getConstants() {
+            return constants;
+        }
+    }
+
+    private final String packageName;
+    private final String primaryTypeName;
+    private final Kind primaryKind;
+    private final List<FieldDefinition> fields;
+    private final List<FieldDefinition> allFields;
+    private final List<EnumDefinition> nestedEnums;
+    private final List<EnumDefinition> topLevelEnums;
+    private final List<EnumDefinition> enums;
+    private final List<TypeDescriptor> subtypes;
+
+    private SourceSchema(String packageName, String primaryTypeName, Kind primaryKind, List<FieldDefinition> fields, List<FieldDefinition> allFields,
+                         List<EnumDefinition> nestedEnums, List<EnumDefinition> topLevelEnums, List<EnumDefinition> enums, List<TypeDescriptor> subtypes) {
+        this.packageName = packageName;
+        this.primaryTypeName = primaryTypeName;
+        this.primaryKind = primaryKind;
+        this.fields = List.copyOf(fields);
+        this.allFields = List.copyOf(allFields);
+        this.nestedEnums = List.copyOf(nestedEnums);
+        this.topLevelEnums = List.copyOf(topLevelEnums);
+        this.enums = List.copyOf(enums);
+        this.subtypes = List.copyOf(subtypes);
+    }
+
+    public static SourceSchema of(CompilationUnit cu) {
+        return new Builder(cu).build();
+    }
+
+    // A copy without the fields the predicate selects; the schema itself is shared with the parse cache
+    SourceSchema withoutFields(Predicate<FieldDefinition> excluded) {
+        List<FieldDefinition> remainingFields = new ArrayList<>(fields);
+        List<FieldDefinition> remainingAllFields = new ArrayList<>(allFields);
+        boolean removed = remainingFields.removeIf(excluded);
+        removed |= remainingAllFields.removeIf(excluded);
+        if (!removed) {
+            return this;
+        }
+        return new SourceSchema(packageName, primaryTypeName, primaryKind, remainingFields, remainingAllFields, nestedEnums, topLevelEnums, enums, subtypes);
+    }
+
+    // A copy with subtypes that were configured rather than declared
+    SourceSchema withSubtypes(List<TypeDescriptor> configuredSubtypes) {
+        return new SourceSchema(packageName, primaryTypeName, primaryKind, fields, allFields, nestedEnums, topLevelEnums, enums, configuredSubtypes);
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    // Named after the source file, even when the file does not declare that type
+    public String getPrimaryTypeName() {
+        return primaryTypeName;
+    }
+
+    // Null when the file does not declare its primary type
+    public Kind getPrimaryKind() {
+        return primaryKind;
+    }
+
+    public boolean isMessageType() {
+        return primaryKind == Kind.CLASS || primaryKind == Kind.INTERFACE;
+    }
+
+    // The non-static fields declared directly by the primary type
+    public List<FieldDefinition> getFields() {
+        return fields;
+    }
+
+    // Every field of the file, including those of nested and anonymous types, in source order
+    public List<FieldDefinition> getAllFields() {
+        return allFields;
+    }
+
+    // The enums declared anywhere within the primary type
+    public List<EnumDefinition> getNestedEnums() {
+        return nestedEnums;
+    }
+
+    public List<EnumDefinition> getTopLevelEnums() {
+        return topLevelEnums;
+    }
+
+    // Every enum of the file, in source order
+    public List<EnumDefinition> getEnums() {
+        return enums;
+    }
+
+    // The permitted subtypes of a sealed primary type, in the order of its permits clause
+    public List<TypeDescriptor> getSubtypes() {
+        return subtypes;
+    }
+
+    public boolean isPolymorphic() {
+        return isMessageType() && !subtypes.isEmpty();
+    }
+
+    private static final class Builder {
+
+        private final CompilationUnit cu;
+        private final TypeDeclaration<?> primaryType;
+        private final List<FieldDefinition> fields = new ArrayList<>();
+        private final List<FieldDefinition> allFields = new ArrayList<>();
+        private final List<EnumDefinition> nestedEnums = new ArrayList<>();
+        private final List<EnumDefinition> topLevelEnums = new ArrayList<>();
+        private final List<EnumDefinition> enums = new ArrayList<>();
+
+        private Builder(CompilationUnit cu) {
+            this.cu = cu;
+            this.primaryType = cu.getPrimaryType().orElse(null);
+        }
+
+        private SourceSchema build() {
+            visit(cu, null, false);
+            String packageName = cu.getPackageDeclaration().map(PackageDeclaration::getNameAsString).orElse("");
+            return new SourceSchema(packageName, cu.getPrimaryTypeName().orElse(null), getKind(primaryType), fields, allFields,
+                    nestedEnums, topLevelEnums, enums, getSubtypes(primaryType));
+        }
+
+        private static List<TypeDescriptor> getSubtypes(TypeDeclaration<?> type) {
+            if (type == null || !type.isClassOrInterfaceDeclaration()) {
+                return List.of();
+            }
+            List<TypeDescriptor> subtypes = new ArrayList<>();
+            for (ClassOrInterfaceType permittedType : type.asClassOrInterfaceDeclaration().getPermittedTypes()) {
+                subtypes.add(TypeDescriptor.of(permittedType));
+            }
+            return subtypes;
+        }
+
+        private static Kind getKind(TypeDeclaration<?> type) {
+            if (type == null) {
+                return null;
+            }
+            if (type.isClassOrInterfaceDeclaration()) {
+                return type.asClassOrInterfaceDeclaration().isInterface() ? Kind.INTERFACE : Kind.CLASS;
+            }
+            return type.isEnumDeclaration() ? Kind.ENUM : Kind.OTHER;
+        }
+
+        private static List<AnnotationDefinition> toAnnotations(FieldDeclaration field) {
+            if (field.getAnnotations().isEmpty()) {
+                return List.of();
+            }
+            List<AnnotationDefinition> annotations = new ArrayList<>();
+            for (AnnotationExpr annotation : field.getAnnotations()) {
+                Map<String, String> values = new LinkedHashMap<>();
+                if (annotation.isSingleMemberAnnotationExpr()) {
+                    values.put("value", toValue(annotation.asSingleMemberAnnotationExpr().getMemberValue()));
+                } else if (annotation.isNormalAnnotationExpr()) {
+                    for (MemberValuePair pair : annotation.asNormalAnnotationExpr().getPairs()) {
+                        values.put(pair.getNameAsString(), toValue(pair.getValue()));
+                    }
+                }
+                annotations.add(new AnnotationDefinition(annotation.getNameAsString(), values));
+            }
+            return annotations;
+        }
+
+        private static String toValue(Expression value) {
+            return value.isStringLiteralExpr() ? value.asStringLiteralExpr().asString() : value.toString();
+        }
+
+        // Pre-order, the same order findAll reports nodes in
+        private void visit(Node node, String enclosingName, boolean withinPrimaryType) {
+            String nestedName = enclosingName;
+            boolean childrenWithinPrimaryType = withinPrimaryType;
+            if (node instanceof FieldDeclaration) {
+                FieldDeclaration field = (FieldDeclaration) node;
+                boolean primaryField = !field.isStatic() && primaryType != null && field.getParentNode().orElse(null) == primaryType;
+                List<AnnotationDefinition> annotations = toAnnotations(field);
+                for (VariableDeclarator variable : field.getVariables()) {
+                    FieldDefinition definition = new FieldDefinition(variable.getNameAsString(), TypeDescriptor.of(variable.getType()), annotations);
+                    allFields.add(definition);
+                    if (primaryField) {
+                        fields.add(definition);
+                    }
+                }
+            } else if (node instanceof TypeDeclaration) {
+                TypeDeclaration<?> type = (TypeDeclaration<?>) node;
+                nestedName = enclosingName == null ? type.getNameAsString() : enclosingName + "." + type.getNameAsString();
+                childrenWithinPrimaryType = withinPrimaryType || type == primaryType;
+                if (type.isEnumDeclaration()) {
+                    List<String> constants = new ArrayList<>();
+                    for (EnumConstantDeclaration constant : type.asEnumDeclaration().getEntries()) {
+                        constants.add(constant.getNameAsString());
+                    }
+                    EnumDefinition definition = new EnumDefinition(type.getNameAsString(), nestedName, constants);
+                    enums.add(definition);
+                    if (childrenWithinPrimaryType) {
+                        nestedEnums.add(definition);
+                    }
+                    if (enclosingName == null) {
+                        topLevelEnums.add(definition);
+                    }
+                }
+            }
+            for (Node child : node.getChildNodes()) {
+                visit(child, nestedName, childrenWithinPrimaryType);
+            }
+        }
+    }
+}
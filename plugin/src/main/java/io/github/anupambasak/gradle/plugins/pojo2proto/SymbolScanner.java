@@ -0,0 +1,209 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import org.gradle.api.logging.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// Extracts the symbols of a source without building an AST. Only the package, the type declarations, their
+// nesting and permits clauses are recognized; comments and literals are skipped, and everything else is tracked by brace depth.
+// The result matches ProtoFileGenerator.scan for sources that compile.
+public class SymbolScanner {
+
+    private final Logger logger;
+
+    public SymbolScanner(Logger logger) {
+        this.logger = logger;
+    }
+
+    public DependencyGraph.SourceEntry scan(File javaFile) {
+        String source;
+        try {
+            source = Files.readString(javaFile.toPath(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.error("Error reading file: " + javaFile.getName(), e);
+            return null;
+        }
+        String fileName = javaFile.getName();
+        int dot = fileName.lastIndexOf('.');
+        return scan(source, dot < 0 ? fileName : fileName.substring(0, dot));
+    }
+
+    public DependencyGraph.SourceEntry scan(String source, String primaryTypeName) {
+        List<String> tokens = tokenize(source);
+        DependencyGraph.SourceEntry entry = new DependencyGraph.SourceEntry();
+        entry.getTypes().add(primaryTypeName);
+
+        Deque<TypeFrame> enclosingTypes = new ArrayDeque<>();
+        String pendingType = null;
+        int pendingParenDepth = 0;
+        int braceDepth = 0;
+        int parenDepth = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            String previous = i > 0 ? tokens.get(i - 1) : "";
+            switch (token) {
+                case "{":
+                    braceDepth++;
+                    // The body of a pending declaration starts at its first brace outside record components
+                    if (pendingType != null && parenDepth == pendingParenDepth) {
+                        enclosingTypes.push(new TypeFrame(pendingType, braceDepth));
+                        pendingType = null;
+                    }
+                    break;
+                case "}":
+                    if (!enclosingTypes.isEmpty() && enclosingTypes.peek().braceDepth == braceDepth) {
+                        enclosingTypes.pop();
+                    }
+                    braceDepth--;
+                    break;
+                case "(":
+                    parenDepth++;
+                    break;
+                case ")":
+                    parenDepth--;
+                    break;
+                case "package":
+                    if (braceDepth == 0 && enclosingTypes.isEmpty()) {
+                        StringBuilder packageName = new StringBuilder();
+                        while (++i < tokens.size() && !tokens.get(i).equals(";")) {
+                            packageName.append(tokens.get(i));
+                        }
+                        entry.setPackageName(packageName.toString());
+                    }
+                    break;
+                case "permits":
+                    // Only a clause of the pending declaration, between its name and its body
+                    if (pendingType != null && enclosingTypes.isEmpty() && entry.getMessages().contains(pendingType)) {
+                        entry.getPolymorphicMessages().add(pendingType);
+                    }
+                    break;
+                default:
+                    if (!isTypeDeclaration(tokens, i) || previous.equals(".")) {
+                        break;
+                    }
+                    String name = tokens.get(++i);
+                    String nestedName = enclosingTypes.isEmpty() ? name : enclosingTypes.peek().nestedName + "." + name;
+                    boolean topLevel = enclosingTypes.isEmpty() && pendingType == null;
+                    if (token.equals("enum")) {
+                        entry.getEnums().add(nestedName);
+                        if (topLevel) {
+                            entry.getTypes().add(name);
+                        }
+                    } else if (topLevel && name.equals(primaryTypeName) && !previous.equals("@") && !token.equals("record")) {
+                        entry.getMessages().add(name);
+                    }
+                    pendingType = nestedName;
+                    pendingParenDepth = parenDepth;
+                    break;
+            }
+        }
+        return entry;
+    }
+
+    private boolean isTypeDeclaration(List<String> tokens, int index) {
+        String token = tokens.get(index);
+        if (index + 1 >= tokens.size() || !isIdentifier(tokens.get(index + 1))) {
+            return false;
+        }
+        switch (token) {
+            case "class":
+            case "interface":
+            case "enum":
+                return true;
+            case "record":
+                // A contextual keyword, otherwise a plain identifier
+                return index + 2 < tokens.size() && (tokens.get(index + 2).equals("(") || tokens.get(index + 2).equals("<"));
+            default:
+                return false;
+        }
+    }
+
+    private boolean isIdentifier(String token) {
+        return Character.isJavaIdentifierStart(token.charAt(0));
+    }
+
+    // Identifiers, keywords and numbers become one token each, any other character a token of its own.
+    // Literals collapse to a placeholder so braces inside them are never counted.
+    private List<String> tokenize(String source) {
+        List<String> tokens = new ArrayList<>();
+        int length = source.length();
+        int i = 0;
+        while (i < length) {
+            char c = source.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '/' && i + 1 < length && source.charAt(i + 1) == '/') {
+                while (i < length && source.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '/' && i + 1 < length && source.charAt(i + 1) == '*') {
+                int end = source.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (c == '"' && source.startsWith("\"\"\"", i)) {
+                i = skipLiteral(source, i + 3, "\"\"\"");
+                tokens.add("\"");
+            } else if (c == '"' || c == '\'') {
+                i = skipLiteral(source, i + 1, String.valueOf(c));
+                tokens.add("\"");
+            } else if (Character.isJavaIdentifierPart(c)) {
+                int start = i;
+                while (i < length && Character.isJavaIdentifierPart(source.charAt(i))) {
+                    i++;
+                }
+                tokens.add(source.substring(start, i));
+            } else {
+                tokens.add(String.valueOf(c));
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    private int skipLiteral(String source, int start, String terminator) {
+        int i = start;
+        while (i < source.length()) {
+            if (source.charAt(i) == '\\') {
+                i += 2;
+            } else if (source.startsWith(terminator, i)) {
+                return i + terminator.length();
+            } else {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    private static final class TypeFrame {
+
+        private final String nestedName;
+        private final int braceDepth;
+
+        private TypeFrame(String nestedName, int braceDepth) {
+            this.nestedName = nestedName;
+            this.braceDepth = braceDepth;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+public class SymbolTable implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Kind {
+        MESSAGE,
+        ENUM
+    }
+
+    public static class Symbol implements Serializable {
+
+        private static final long serialVersionUID = 3L;
+
+        private final String packageName;
+        private final String nestedName;
+        private final Kind kind;
+        // Only set for symbols that another project generated, see SchemaIndex
+        private final String protoName;
+        private final String protoFile;
+        private final boolean mapper;
+        private final boolean view;
+        private final boolean polymorphic;
+
+        public Symbol(String packageName, String nestedName, Kind kind) {
+            this(packageName, nestedName, kind, false);
+        }
+
+        public Symbol(String packageName, String nestedName, Kind kind, boolean polymorphic) {
+            this(packageName, nestedName, kind, null, null, false, false, polymorphic);
+        }
+
+        public Symbol(String packageName, String nestedName, Kind kind, String protoName, String protoFile, boolean mapper, boolean view) {
+            this(packageName, nestedName, kind, protoName, protoFile, mapper, view, false);
+        }
+
+        public Symbol(String packageName, String nestedName, Kind kind, String protoName, String protoFile, boolean mapper, boolean view,
+                      boolean polymorphic) {
+            this.packageName = packageName;
+            this.nestedName = nestedName;
+            this.kind = kind;
+            this.protoName = protoName;
+            this.protoFile = protoFile;
+            this.mapper = mapper;
+            this.view = view;
+            this.polymorphic = polymorphic;
+        }
+
+        public String getPackageName() {
+            return packageName;
+        }
+
+        public String getNestedName() {
+            return nestedName;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public boolean isEnum() {
+            return kind == Kind.ENUM;
+        }
+
+        // A message with a oneof over its subtypes, which has a mapper but never a view
+        public boolean isPolymorphic() {
+            return polymorphic;
+        }
+
+        public String getFullyQualifiedName() {
+            return packageName.isEmpty() ? nestedName : packageName + "." + nestedName;
+        }
+
+        public String getSimpleName() {
+            return nestedName.substring(nestedName.lastIndexOf('.') + 1);
+        }
+
+        public String getTopLevelName() {
+            int dot = nestedName.indexOf('.');
+            return dot < 0 ? nestedName : nestedName.substring(0, dot);
+        }
+
+        public boolean isExternal() {
+            return protoFile != null;
+        }
+
+        // The import path of the proto file that declares an external symbol
+        public String getProtoFile() {
+            return protoFile;
+        }
+
+        // Whether the project that generated an external message also generated its mapper or view
+        public boolean hasMapper() {
+            return mapper;
+        }
+
+        public boolean hasView() {
+            return view;
+        }
+
+        // The fully qualified proto name of an external symbol, which is also the name of the class protoc generates
+        // for an external message
+        public String getProtoName() {
+            return protoName;
+        }
+    }
+
+    private final Map<String, Symbol> byFullyQualifiedName = new HashMap<>();
+    private final Map<String, Symbol> byNestedName = new HashMap<>();
+    private final Map<String, Symbol> bySimpleName = new HashMap<>();
+    private final Map<String, Set<String>> ambiguousNames = new TreeMap<>();
+
+    public void add(String packageName, String nestedName, Kind kind) {
+        add(new Symbol(packageName, nestedName, kind));
+    }
+
+    public void add(String packageName, String nestedName, Kind kind, boolean polymorphic) {
+        add(new Symbol(packageName, nestedName, kind, polymorphic));
+    }
+
+    // Symbols of the source set take precedence over the same types read from another project's index
+    public void addAll(SchemaIndex schemaIndex) {
+        for (Symbol symbol : schemaIndex.getSymbols()) {
+            if (!byFullyQualifiedName.containsKey(symbol.getFullyQualifiedName())) {
+                add(symbol);
+            }
+        }
+    }
+
+    private void add(Symbol symbol) {
+        String nestedName = symbol.getNestedName();
+        byFullyQualifiedName.put(symbol.getFullyQualifiedName(), symbol);
+        if (nestedName.indexOf('.') >= 0) {
+            index(byNestedName, nestedName, symbol);
+        }
+        index(bySimpleName, symbol.getSimpleName(), symbol);
+    }
+
+    private void index(Map<String, Symbol> index, String name, Symbol symbol) {
+        Symbol existing = index.putIfAbsent(name, symbol);
+        if (existing != null && !existing.getFullyQualifiedName().equals(symbol.getFullyQualifiedName())) {
+            Set<String> candidates = ambiguousNames.computeIfAbsent(name, key -> new TreeSet<>());
+            candidates.add(existing.getFullyQualifiedName());
+            candidates.add(symbol.getFullyQualifiedName());
+        }
+    }
+
+    public Symbol resolve(String typeName) {
+        Symbol symbol = byFullyQualifiedName.get(typeName);
+        if (symbol != null) {
+            return symbol;
+        }
+        // Partially qualified names such as "testenums.Conts.b" resolve by their longest known suffix
+        String name = typeName;
+        int dot = name.indexOf('.');
+        while (dot >= 0) {
+            if (ambiguousNames.containsKey(name)) {
+                return null;
+            }
+            symbol = byNestedName.get(name);
+            if (symbol != null) {
+                return symbol;
+            }
+            name = name.substring(dot + 1);
+            dot = name.indexOf('.');
+        }
+        if (ambiguousNames.containsKey(name)) {
+            return null;
+        }
+        return bySimpleName.get(name);
+    }
+
+    public boolean isEnum(String typeName) {
+        Symbol symbol = resolve(typeName);
+        return symbol != null && symbol.isEnum();
+    }
+
+    public Map<String, Set<String>> getAmbiguousNames() {
+        return ambiguousNames;
+    }
+
+    public static SymbolTable load(File file) {
+        return StateFiles.read(file, SymbolTable.class);
+    }
+
+    public void save(File file) throws IOException {
+        StateFiles.write(file, this);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.type.ArrayType;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.Type;
+import com.github.javaparser.ast.type.WildcardType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public final class TypeDescriptor {
+
+    private final String name;
+    private final List<TypeDescriptor> typeArguments;
+    private final int arrayDimensions;
+
+    public TypeDescriptor(String name, List<TypeDescriptor> typeArguments, int arrayDimensions) {
+        this.name = name;
+        this.typeArguments = typeArguments;
+        this.arrayDimensions = arrayDimensions;
+    }
+
+    public static TypeDescriptor of(Type type) {
+        if (type.isArrayType()) {
+            ArrayType arrayType = type.asArrayType();
+            TypeDescriptor elementType = of(arrayType.getElementType());
+            return new TypeDescriptor(elementType.name, elementType.typeArguments, arrayType.getArrayLevel());
+        }
+        if (type.isClassOrInterfaceType()) {
+            ClassOrInterfaceType classType = type.asClassOrInterfaceType();
+            List<TypeDescriptor> typeArguments = List.of();
+            if (classType.getTypeArguments().isPresent()) {
+                NodeList<Type> arguments = classType.getTypeArguments().get();
+                typeArguments = new ArrayList<>(arguments.size());
+                for (Type argument : arguments) {
+                    typeArguments.add(of(argument));
+                }
+            }
+            return new TypeDescriptor(classType.getNameWithScope(), typeArguments, 0);
+        }
+        if (type.isWildcardType()) {
+            WildcardType wildcardType = type.asWildcardType();
+            if (wildcardType.getExtendedType().isPresent()) {
+                return of(wildcardType.getExtendedType().get());
+            }
+            if (wildcardType.getSuperType().isPresent()) {
+                return of(wildcardType.getSuperType().get());
+            }
+            return new TypeDescriptor("Object", List.of(), 0);
+        }
+        return new TypeDescriptor(type.asString(), List.of(), 0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSimpleName() {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    public List<TypeDescriptor> getTypeArguments() {
+        return typeArguments;
+    }
+
+    public int getArrayDimensions() {
+        return arrayDimensions;
+    }
+
+    public boolean isArray() {
+        return arrayDimensions > 0;
+    }
+
+    public boolean isGeneric(String simpleName, int argumentCount) {
+        return !isArray() && typeArguments.size() == argumentCount && getSimpleName().equals(simpleName);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TypeDescriptor)) {
+            return false;
+        }
+        TypeDescriptor that = (TypeDescriptor) o;
+        return arrayDimensions == that.arrayDimensions && name.equals(that.name) && typeArguments.equals(that.typeArguments);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, typeArguments, arrayDimensions);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(name);
+        if (!typeArguments.isEmpty()) {
+            builder.append('<');
+            for (int i = 0; i < typeArguments.size(); i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                builder.append(typeArguments.get(i));
+            }
+            builder.append('>');
+        }
+        for (int i = 0; i < arrayDimensions; i++) {
+            builder.append("[]");
+        }
+        return builder.toString();
+    }
+}
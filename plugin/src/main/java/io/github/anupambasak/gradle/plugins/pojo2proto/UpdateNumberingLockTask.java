@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.UntrackedTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+// Copies the lock written by pojoToProto over the checked in one. The checked in lock is an input of pojoToProto,
+// so it is not declared as an output here, and the task always runs.
+@UntrackedTask(because = "Updates a file under version control")
+public abstract class UpdateNumberingLockTask extends DefaultTask {
+
+    public static final String NAME = "updateNumberingLock";
+
+    @InputFile
+    @Optional
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getUpdatedNumberingLockFile();
+
+    @Internal
+    public abstract RegularFileProperty getNumberingLockFile();
+
+    @TaskAction
+    public void execute() {
+        if (!getUpdatedNumberingLockFile().isPresent()) {
+            throw new GradleException("No numberingLockFile is configured for pojoToProto");
+        }
+        File updatedLockFile = getUpdatedNumberingLockFile().get().getAsFile();
+        File lockFile = getNumberingLockFile().get().getAsFile();
+        try {
+            if (lockFile.isFile() && Files.mismatch(lockFile.toPath(), updatedLockFile.toPath()) == -1) {
+                return;
+            }
+            Files.createDirectories(lockFile.getAbsoluteFile().getParentFile().toPath());
+            Files.copy(updatedLockFile.toPath(), lockFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            getLogger().lifecycle("Updated field number lock file " + lockFile);
+        } catch (IOException e) {
+            throw new GradleException("Error writing field number lock file: " + lockFile.getAbsolutePath(), e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.anupambasak.gradle.plugins.pojo2proto;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+
+public class WriteStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int written;
+    private int unchanged;
+    private int deleted;
+
+    public int getWritten() {
+        return written;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public void recordWritten() {
+        written++;
+    }
+
+    public void recordUnchanged() {
+        unchanged++;
+    }
+
+    public void recordDeleted() {
+        deleted++;
+    }
+
+    public void add(WriteStats other) {
+        written += other.written;
+        unchanged += other.unchanged;
+        deleted += other.deleted;
+    }
+
+    @Override
+    public String toString() {
+        return written + " written, " + unchanged + " unchanged, " + deleted + " deleted";
+    }
+
+    public static WriteStats load(File file) {
+        return StateFiles.read(file, WriteStats.class);
+    }
+
+    public void save(File file) throws IOException {
+        StateFiles.write(file, this);
+    }
+}
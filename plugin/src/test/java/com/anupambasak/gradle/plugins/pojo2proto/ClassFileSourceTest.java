@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.anupambasak.gradle.plugins.pojo2proto;
+
+import io.github.anupambasak.gradle.plugins.pojo2proto.ClassFileSource;
+import io.github.anupambasak.gradle.plugins.pojo2proto.DependencyGraph;
+import io.github.anupambasak.gradle.plugins.pojo2proto.ProtoFileGenerator;
+import io.github.anupambasak.gradle.plugins.pojo2proto.ProtoGenerator;
+import io.github.anupambasak.gradle.plugins.pojo2proto.SourceSchema;
+import io.github.anupambasak.gradle.plugins.pojo2proto.SymbolTable;
+import org.gradle.api.logging.Logging;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassFileSourceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ProtoFileGenerator generator = new ProtoFileGenerator(Logging.getLogger(ClassFileSourceTest.class), null, null);
+    private final ProtoGenerator protoGenerator = new ProtoGenerator();
+
+    private File write(String relativePath, String source) throws IOException {
+        Path file = tempDir.resolve("src").resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, source);
+        return file.toFile();
+    }
+
+    private String generate(List<SourceSchema> schemas) {
+        DependencyGraph graph = new DependencyGraph();
+        for (int i = 0; i < schemas.size(); i++) {
+            graph.put(String.valueOf(i), generator.scan(schemas.get(i)));
+        }
+        SymbolTable symbolTable = graph.buildSymbolTable();
+        StringBuilder protos = new StringBuilder();
+        for (SourceSchema schema : schemas) {
+            protos.append(protoGenerator.getImports(schema, symbolTable));
+            protos.append(protoGenerator.generateMessageWithNestedEnums(schema, symbolTable));
+        }
+        return protos + protoGenerator.generateMessages(schemas, symbolTable);
+    }
+
+    @Test
+    void generatesTheSameProtosAsTheSources() throws IOException {
+        List<File> sources = List.of(
+                write("com/example/Address.java", "package com.example;\n"
+                        + "public class Address {\n"
+                        + "    private String street;\n"
+                        + "    private int zipCode;\n"
+                        + "}\n"),
+                write("com/example/Person.java", "package com.example;\n"
+                        + "import java.time.Instant;\n"
+                        + "import java.util.*;\n"
+                        + "public class Person {\n"
+                        + "    public static final String TABLE = \"person\";\n"
+                        + "    private String name;\n"
+                        + "    private long[] scores;\n"
+                        + "    private Status status;\n"
+                        + "    private Map<String, Address> addresses;\n"
+                        + "    private List<? extends Address> previous;\n"
+                        + "    private Instant createdAt;\n"
+                        + "    public enum Status { ACTIVE, INACTIVE; private final Map<String, Status> byName = new HashMap<>(); }\n"
+                        + "}\n"),
+                write("com/example/other/Conts.java", "package com.example.other;\n"
+                        + "public interface Conts {\n"
+                        + "    enum b { c, d, e }\n"
+                        + "}\n"),
+                write("com/example/other/Ship.java", "package com.example.other;\n"
+                        + "public class Ship {\n"
+                        + "    private Conts.b berthType;\n"
+                        + "}\n"));
+        Path classesDir = Files.createDirectories(tempDir.resolve("classes"));
+        List<String> arguments = new ArrayList<>(List.of("-d", classesDir.toString()));
+        sources.forEach(source -> arguments.add(source.getPath()));
+        assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, arguments.toArray(new String[0])));
+
+        List<SourceSchema> parsed = new ArrayList<>();
+        for (File source : sources) {
+            parsed.add(generator.parse(source));
+        }
+        ClassFileSource classFileSource = new ClassFileSource(Logging.getLogger(ClassFileSourceTest.class));
+        List<String> locations = classFileSource.read(List.of(classesDir.toFile()));
+        List<SourceSchema> read = new ArrayList<>();
+        for (String location : locations) {
+            read.add(SourceSchema.of(classFileSource.getCompilationUnit(location)));
+        }
+
+        assertEquals(List.of("Address.class", "Conts.class", "Person.class", "Ship.class"),
+                locations.stream().map(path -> new File(path).getName()).toList());
+        List<SourceSchema> sorted = List.of(parsed.get(0), parsed.get(2), parsed.get(1), parsed.get(3));
+        assertEquals(generate(sorted), generate(read));
+    }
+
+    @Test
+    void knowsWhichHintAnnotationsClassFilesLose() throws IOException {
+        List<File> sources = List.of(
+                write("com/example/Hot.java", "package com.example;\n"
+                        + "import java.lang.annotation.*;\n"
+                        + "@Retention(RetentionPolicy.SOURCE)\n"
+                        + "public @interface Hot {\n"
+                        + "}\n"),
+                write("com/example/Packed.java", "package com.example;\n"
+                        + "public @interface Packed {\n"
+                        + "}\n"),
+                write("com/example/Order.java", "package com.example;\n"
+                        + "public class Order {\n"
+                        + "    @Hot private long id;\n"
+                        + "    @Packed private long total;\n"
+                        + "}\n"));
+        Path classesDir = Files.createDirectories(tempDir.resolve("classes"));
+        List<String> arguments = new ArrayList<>(List.of("-d", classesDir.toString()));
+        sources.forEach(source -> arguments.add(source.getPath()));
+        assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, arguments.toArray(new String[0])));
+
+        ClassFileSource classFileSource = new ClassFileSource(Logging.getLogger(ClassFileSourceTest.class));
+        classFileSource.read(List.of(classesDir.toFile()));
+
+        assertTrue(classFileSource.isSourceRetained("com.example.Hot"));
+        assertFalse(classFileSource.isUsedOnFields("Hot"));
+        assertFalse(classFileSource.isSourceRetained("Packed"));
+        assertTrue(classFileSource.isUsedOnFields("com.example.Packed"));
+    }
+}
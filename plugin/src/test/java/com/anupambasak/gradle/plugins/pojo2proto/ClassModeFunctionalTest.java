@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.anupambasak.gradle.plugins.pojo2proto;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.anupambasak.gradle.plugins.pojo2proto.TestProjects.runner;
+import static com.anupambasak.gradle.plugins.pojo2proto.TestProjects.write;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassModeFunctionalTest {
+
+    @TempDir
+    Path projectDir;
+
+    @Test
+    void warnsAboutHintAnnotationsTheClassFilesLost() throws IOException {
+        write(projectDir, "settings.gradle", "rootProject.name = 'orders'\n");
+        write(projectDir, "build.gradle", "plugins {\n"
+                + "    id 'java'\n"
+                + "    id 'io.github.anupambasak.gradle-pojo-to-proto'\n"
+                + "}\n"
+                + "\n"
+                + "group = 'com.example'\n"
+                + "\n"
+                + "pojoToProto {\n"
+                + "    source.from(layout.projectDirectory.dir('src/main/java'))\n"
+                // Without the class of Maybe, which stands in for a library annotation
+                + "    classes.from(tasks.named('compileJava').map { it.destinationDirectory.asFileTree.matching { exclude 'other/**' } })\n"
+                + "    destination = layout.buildDirectory.dir('generated/proto')\n"
+                + "    hotFieldAnnotation = 'com.example.Hot'\n"
+                + "    nullableAnnotation = 'Maybe'\n"
+                + "}\n");
+        write(projectDir, "src/main/java/com/example/Hot.java", "package com.example;\n"
+                + "\n"
+                + "import java.lang.annotation.Retention;\n"
+                + "import java.lang.annotation.RetentionPolicy;\n"
+                + "\n"
+                + "@Retention(RetentionPolicy.SOURCE)\n"
+                + "public @interface Hot {\n"
+                + "}\n");
+        write(projectDir, "src/main/java/com/example/Order.java", "package com.example;\n"
+                + "\n"
+                + "public class Order {\n"
+                + "    private String comment;\n"
+                + "    @Hot private long id;\n"
+                + "    @other.Maybe private String coupon;\n"
+                + "}\n");
+        write(projectDir, "src/main/java/other/Maybe.java", "package other;\n"
+                + "\n"
+                + "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.SOURCE)\n"
+                + "public @interface Maybe {\n"
+                + "}\n");
+
+        BuildResult result = runner(projectDir, "pojoToProto").build();
+
+        assertTrue(result.getOutput().contains("Annotation com.example.Hot has SOURCE retention and is not in class files"), result.getOutput());
+        assertTrue(result.getOutput().contains("Annotation Maybe is used in "), result.getOutput());
+        assertTrue(Files.readString(projectDir.resolve("build/generated/proto/Order.proto")).contains("  string comment = 1;\n"));
+    }
+}
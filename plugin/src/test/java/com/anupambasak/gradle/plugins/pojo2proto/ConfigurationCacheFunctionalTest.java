@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.anupambasak.gradle.plugins.pojo2proto;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.anupambasak.gradle.plugins.pojo2proto.TestProjects.runner;
+import static com.anupambasak.gradle.plugins.pojo2proto.TestProjects.write;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigurationCacheFunctionalTest {
+
+    @TempDir
+    Path projectDir;
+
+    private void writeProject(String path) throws IOException {
+        String prefix = path.isEmpty() ? "" : path + "/";
+        write(projectDir, prefix + "build.gradle", "plugins {\n"
+                + "    id 'io.github.anupambasak.gradle-pojo-to-proto'\n"
+                + "}\n"
+                + "\n"
+                + "pojoToProto {\n"
+                + "    source.from(layout.projectDirectory.dir('src/main/java'))\n"
+                + "    destination = layout.buildDirectory.dir('generated/proto')\n"
+                + "    excludeFields = ['password']\n"
+                + "}\n"
+                + "\n"
+                // Set after the plugin is applied, so the default package name must be read lazily
+                + "group = 'com.example'\n");
+        write(projectDir, prefix + "src/main/java/com/example/User.java", "package com.example;\n"
+                + "\n"
+                + "public class User {\n"
+                + "    private String name;\n"
+                + "    private String password;\n"
+                + "    private int age;\n"
+                + "}\n");
+    }
+
+    @Test
+    void reusesTheConfigurationCache() throws IOException {
+        write(projectDir, "settings.gradle", "rootProject.name = 'users'\n");
+        writeProject("");
+
+        BuildResult first = runner(projectDir, "pojoToProto", "--configuration-cache").build();
+
+        assertEquals(TaskOutcome.SUCCESS, first.task(":pojoToProto").getOutcome());
+        assertTrue(first.getOutput().contains("Configuration cache entry stored"), first.getOutput());
+        assertEquals("syntax = \"proto3\";\n"
+                + "\n"
+                + "package com.example;\n"
+                + "\n"
+                + "option java_package = \"com.example\";\n"
+                + "option java_multiple_files = true;\n"
+                + "\n"
+                + "message User {\n"
+                + "  string name = 1;\n"
+                + "  int32 age = 2;\n"
+                + "}\n"
+                + "\n", Files.readString(projectDir.resolve("build/generated/proto/User.proto")));
+
+        BuildResult second = runner(projectDir, "pojoToProto", "--configuration-cache").build();
+
+        assertEquals(TaskOutcome.UP_TO_DATE, second.task(":pojoToProto").getOutcome());
+        assertTrue(second.getOutput().contains("Configuration cache entry reused"), second.getOutput());
+    }
+
+    @Test
+    void supportsIsolatedProjects() throws IOException {
+        write(projectDir, "settings.gradle", "rootProject.name = 'services'\n"
+                + "include('orders', 'billing')\n");
+        writeProject("orders");
+        writeProject("billing");
+
+        BuildResult first = runner(projectDir, "pojoToProto", "-Dorg.gradle.unsafe.isolated-projects=true").build();
+
+        assertEquals(TaskOutcome.SUCCESS, first.task(":orders:pojoToProto").getOutcome());
+        assertEquals(TaskOutcome.SUCCESS, first.task(":billing:pojoToProto").getOutcome());
+        assertTrue(Files.isRegularFile(projectDir.resolve("billing/build/generated/proto/User.proto")));
+
+        BuildResult second = runner(projectDir, "pojoToProto", "-Dorg.gradle.unsafe.isolated-projects=true").build();
+
+        assertTrue(second.getOutput().contains("Configuration cache entry reused"), second.getOutput());
+    }
+}
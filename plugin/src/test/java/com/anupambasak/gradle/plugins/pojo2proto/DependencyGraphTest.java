@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.anupambasak.gradle.plugins.pojo2proto;
+
+import io.github.anupambasak.gradle.plugins.pojo2proto.DependencyGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyGraphTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DependencyGraph.SourceEntry entry(String type, String... references) {
+        DependencyGraph.SourceEntry entry = new DependencyGraph.SourceEntry();
+        entry.getTypes().add(type);
+        entry.getOutputs().add(type + ".proto");
+        entry.getReferences().addAll(Set.of(references));
+        return entry;
+    }
+
+    @Test
+    void findsDependentsByReferencedProto() {
+        DependencyGraph graph = new DependencyGraph();
+        graph.put("Address.java", entry("Address"));
+        graph.put("PersonPojo.java", entry("PersonPojo", "Address.proto", "google/protobuf/timestamp.proto"));
+        graph.put("EnumPojo.java", entry("EnumPojo", "Conts.proto", "TestEnum.proto"));
+        graph.put("AddressBook.java", entry("AddressBook", "AddressBookEntry.proto"));
+
+        assertEquals(Set.of("PersonPojo.java"), graph.getDependents(Set.of("Address")));
+        assertEquals(Set.of("EnumPojo.java"), graph.getDependents(Set.of("Conts")));
+        assertTrue(graph.getDependents(Set.of()).isEmpty());
+        assertEquals(Set.of("PersonPojo.java", "EnumPojo.java"), graph.getDependents(Set.of("Address", "Conts")));
+
+        graph.remove("PersonPojo.java");
+        graph.put("Order.java", entry("Order", "Address.proto"));
+        assertEquals(Set.of("Order.java"), graph.getDependents(Set.of("Address")));
+    }
+
+    @Test
+    void comparesDeclaredSymbols() {
+        DependencyGraph.SourceEntry before = entry("Conts");
+        before.getEnums().add("io.github.anupambasak.gradle.testenums.Conts.b");
+        DependencyGraph.SourceEntry after = entry("Conts", "Address.proto");
+        after.getEnums().add("io.github.anupambasak.gradle.testenums.Conts.b");
+
+        assertTrue(before.declaresSameSymbols(after));
+        after.getEnums().add("io.github.anupambasak.gradle.testenums.Conts.x");
+        assertFalse(before.declaresSameSymbols(after));
+        assertFalse(before.declaresSameSymbols(null));
+    }
+
+    @Test
+    void roundTripsThroughFile() throws IOException {
+        DependencyGraph graph = new DependencyGraph();
+        graph.put("PersonPojo.java", entry("PersonPojo", "Address.proto"));
+        File file = tempDir.resolve("state/dependency-graph.bin").toFile();
+        graph.save(file);
+
+        DependencyGraph loaded = DependencyGraph.load(file);
+        assertNotNull(loaded);
+        assertEquals(Set.of("PersonPojo.proto"), loaded.getOutputs());
+        assertEquals(Set.of("Address.proto"), loaded.get("PersonPojo.java").getReferences());
+        assertNull(DependencyGraph.load(tempDir.resolve("missing.bin").toFile()));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.anupambasak.gradle.plugins.pojo2proto;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import io.github.anupambasak.gradle.plugins.pojo2proto.FieldEncodings;
+import io.github.anupambasak.gradle.plugins.pojo2proto.FieldNumbering;
+import io.github.anupambasak.gradle.plugins.pojo2proto.ProtoGenerator;
+import io.github.anupambasak.gradle.plugins.pojo2proto.SourceSchema;
+import org.gradle.api.GradleException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldEncodingsTest {
+
+    private String generate(FieldEncodings fieldEncodings, String fields) {
+        CompilationUnit cu = StaticJavaParser.parse("public class Reading {\n" + fields + "}\n");
+        cu.setStorage(Paths.get("Reading.java"));
+        return new ProtoGenerator(new FieldNumbering(), fieldEncodings).generateMessageWithNestedEnums(SourceSchema.of(cu), null);
+    }
+
+    @Test
+    void appliesHintsBeforeRules() {
+        Map<String, String> rules = new LinkedHashMap<>();
+        rules.put("Reading.id", "fixed");
+        rules.put("*Delta", "sint");
+        FieldEncodings fieldEncodings = new FieldEncodings(rules, "Encoding", false);
+
+        String message = generate(fieldEncodings, "    private long id;\n"
+                + "    private int tempDelta;\n"
+                + "    @Encoding(\"uint\") private java.util.List<Long> countDelta;\n"
+                + "    private int other;\n");
+
+        assertEquals("message Reading {\n"
+                + "  fixed64 id = 1;\n"
+                + "  sint32 tempDelta = 2;\n"
+                + "  repeated uint64 countDelta = 3;\n"
+                + "  int32 other = 4;\n"
+                + "}\n\n", message);
+    }
+
+    @Test
+    void infersEncodingsFromConstraintsWhenEnabled() {
+        String fields = "    @PositiveOrZero private int count;\n"
+                + "    @Min(-10) private long offset;\n"
+                + "    @Min(0L) private Integer size;\n";
+
+        assertEquals("message Reading {\n"
+                + "  uint32 count = 1;\n"
+                + "  sint64 offset = 2;\n"
+                + "  optional uint32 size = 3;\n"
+                + "}\n\n", generate(new FieldEncodings(Map.of(), null, true), fields));
+        assertEquals("message Reading {\n"
+                + "  int32 count = 1;\n"
+                + "  int64 offset = 2;\n"
+                + "  optional int32 size = 3;\n"
+                + "}\n\n", generate(new FieldEncodings(), fields));
+    }
+
+    @Test
+    void encodesUuidsAndTimestampsCompactly() {
+        FieldEncodings fieldEncodings = new FieldEncodings(Map.of(), "Encoding", false, "fixed64", "sint64-millis");
+
+        String message = generate(fieldEncodings, "    private UUID id;\n"
+                + "    private List<UUID> tags;\n"
+                + "    private Instant createdAt;\n"
+                + "    @Encoding(\"SFIXED64_MICROS\") private LocalDateTime updatedAt;\n"
+                + "    @Encoding(\"string\") private UUID traceId;\n");
+
+        assertEquals("message Reading {\n"
+                + "  fixed64 idMsb = 1;\n"
+                + "  fixed64 idLsb = 2;\n"
+                + "  repeated bytes tags = 3;\n"
+                + "  sint64 createdAt = 4;\n"
+                + "  sfixed64 updatedAt = 5;\n"
+                + "  string traceId = 6;\n"
+                + "}\n\n", message);
+    }
+
+    @Test
+    void encodesDecimalsAsAReusableMessage() {
+        FieldEncodings fieldEncodings = new FieldEncodings(Map.of(), "Encoding", false, FieldEncodings.DEFAULT_UUID_ENCODING,
+                FieldEncodings.DEFAULT_TIMESTAMP_ENCODING, FieldEncodings.DEFAULT_NULLABLE_ANNOTATION, "decimal");
+
+        String message = generate(fieldEncodings, "    private BigDecimal price;\n"
+                + "    private List<BigInteger> totals;\n"
+                + "    @Encoding(\"sint64\") private BigInteger count;\n"
+                + "    @Encoding(\"bytes\") private BigInteger hash;\n"
+                + "    @Encoding(\"string\") private BigDecimal rate;\n");
+
+        assertEquals("message Reading {\n"
+                + "  pojo2proto.Decimal price = 1;\n"
+                + "  repeated pojo2proto.Decimal totals = 2;\n"
+                + "  sint64 count = 3;\n"
+                + "  bytes hash = 4;\n"
+                + "  string rate = 5;\n"
+                + "}\n\n", message);
+        assertThrows(GradleException.class, () -> generate(fieldEncodings, "    @Encoding(\"sint64\") private BigDecimal price;\n"));
+    }
+
+    @Test
+    void rejectsUnknownEncodings() {
+        assertThrows(GradleException.class, () -> new FieldEncodings(Map.of("id", "zigzag"), null, false));
+        assertThrows(GradleException.class, () -> new FieldEncodings(Map.of(), null, false, "base64", FieldEncodings.DEFAULT_TIMESTAMP_ENCODING));
+        assertThrows(GradleException.class, () -> new FieldEncodings(Map.of(), null, false, FieldEncodings.DEFAULT_UUID_ENCODING,
+                FieldEncodings.DEFAULT_TIMESTAMP_ENCODING, FieldEncodings.DEFAULT_NULLABLE_ANNOTATION, "bytes"));
+        assertThrows(GradleException.class, () -> new FieldEncodings(Map.of(), null, false, "tring", FieldEncodings.DEFAULT_TIMESTAMP_ENCODING));
+        FieldEncodings hints = new FieldEncodings(Map.of(), "Encoding", false);
+        GradleException e = assertThrows(GradleException.class, () -> generate(hints, "    @Encoding(\"int64\") private BigInteger count;\n"));
+        assertTrue(e.getMessage().contains("expected one of bytes, decimal, sint64, string"), e.getMessage());
+    }
+
+    @Test
+    void acceptsUnsignedNamesForFixedWidthTimestamps() {
+        FieldEncodings fieldEncodings = new FieldEncodings(Map.of(), null, false, FieldEncodings.DEFAULT_UUID_ENCODING, "fixed64-millis");
+
+        assertEquals("message Reading {\n  sfixed64 createdAt = 1;\n}\n\n", generate(fieldEncodings, "    private Instant createdAt;\n"));
+    }
+
+    @Test
+    void tracksPresenceOfNullableUuidPairs() {
+        FieldEncodings fieldEncodings = new FieldEncodings(Map.of(), null, false, "fixed64", FieldEncodings.DEFAULT_TIMESTAMP_ENCODING);
+
+        assertEquals("message Reading {\n"
+                + "  optional fixed64 idMsb = 1;\n"
+                + "  optional fixed64 idLsb = 2;\n"
+                + "  fixed64 traceIdMsb = 3;\n"
+                + "  fixed64 traceIdLsb = 4;\n"
+                + "  int64 count = 5;\n"
+                + "}\n\n", generate(fieldEncodings, "    @Nullable private UUID id;\n    private UUID traceId;\n    private long count;\n"));
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.anupambasak.gradle.plugins.pojo2proto;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import io.github.anupambasak.gradle.plugins.pojo2proto.FieldNumbering;
+import io.github.anupambasak.gradle.plugins.pojo2proto.ProtoGenerator;
+import io.github.anupambasak.gradle.plugins.pojo2proto.SourceSchema;
+import org.gradle.api.GradleException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldNumberingTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SourceSchema parse(String source) {
+        CompilationUnit cu = StaticJavaParser.parse(source);
+        cu.setStorage(Paths.get("Order.java"));
+        return SourceSchema.of(cu);
+    }
+
+    private String generate(FieldNumbering fieldNumbering, String fields) {
+        return new ProtoGenerator(fieldNumbering).generateMessageWithNestedEnums(parse("public class Order {\n" + fields + "}\n"), null);
+    }
+
+    @Test
+    void placesHotFieldsInTheLowestNumbers() throws IOException {
+        File profile = tempDir.resolve("profile.properties").toFile();
+        Files.writeString(profile.toPath(), "Order.status=50\nOrder.total=900\nOrder.comment=0\n");
+        FieldNumbering fieldNumbering = FieldNumbering.load(null, profile, "Hot");
+
+        String message = generate(fieldNumbering, "    private String comment;\n"
+                + "    private String status;\n"
+                + "    @Hot private long id;\n"
+                + "    private double total;\n");
+
+        assertEquals("message Order {\n"
+                + "  string comment = 4;\n"
+                + "  string status = 3;\n"
+                + "  int64 id = 1;\n"
+                + "  double total = 2;\n"
+                + "}\n\n", message);
+        assertFalse(fieldNumbering.isChanged());
+    }
+
+    @Test
+    void ranksMessagesOfTheSameNameByTheirQualifiedName() throws IOException {
+        File profile = tempDir.resolve("profile.properties").toFile();
+        Files.writeString(profile.toPath(), "com.example.billing.Order.b=10\ncom.example.billing.Order.a=1\nOrder.a=5\n");
+        ProtoGenerator generator = new ProtoGenerator(FieldNumbering.load(null, profile, null));
+        String fields = "    private String c;\n    private String a;\n    private String b;\n";
+
+        assertEquals("message Order {\n"
+                + "  string c = 3;\n"
+                + "  string a = 2;\n"
+                + "  string b = 1;\n"
+                + "}\n\n", generator.generateMessageWithNestedEnums(parse("package com.example.billing;\npublic class Order {\n" + fields + "}\n"), null));
+        assertEquals("message Order {\n"
+                + "  string c = 2;\n"
+                + "  string a = 1;\n"
+                + "  string b = 3;\n"
+                + "}\n\n", generator.generateMessageWithNestedEnums(parse("package com.example.shipping;\npublic class Order {\n" + fields + "}\n"), null));
+    }
+
+    @Test
+    void keepsLockedNumbersAndReservesRemovedOnes() throws IOException {
+        File lockFile = tempDir.resolve("numbering.lock").toFile();
+        FieldNumbering first = FieldNumbering.load(lockFile, null, "Hot");
+        generate(first, "    private String a;\n    private String b;\n    private String c;\n");
+        assertTrue(first.isChanged());
+        first.writeLockFile(lockFile);
+
+        FieldNumbering second = FieldNumbering.load(lockFile, null, "Hot");
+        String message = generate(second, "    @Hot private String d;\n    private String c;\n    private String a;\n");
+
+        assertEquals("message Order {\n"
+                + "  string d = 4;\n"
+                + "  string c = 3;\n"
+                + "  string a = 1;\n"
+                + "  reserved 2;\n"
+                + "}\n\n", message);
+        second.writeLockFile(lockFile);
+        assertTrue(Files.readString(lockFile.toPath()).endsWith("Order.a=1\nOrder.b=2\nOrder.c=3\nOrder.d=4\n"));
+    }
+
+    @Test
+    void locksMessagesOfTheSameNameInEachPackage() throws IOException {
+        File lockFile = tempDir.resolve("numbering.lock").toFile();
+        FieldNumbering fieldNumbering = FieldNumbering.load(lockFile, null, null);
+        ProtoGenerator generator = new ProtoGenerator(fieldNumbering);
+        generator.generateMessageWithNestedEnums(parse("package com.example.billing;\npublic class Order {\n    private long amount;\n}\n"), null);
+        String message = generator.generateMessageWithNestedEnums(parse("package com.example.shipping;\npublic class Order {\n    private String address;\n}\n"), null);
+
+        assertEquals("message Order {\n"
+                + "  string address = 1;\n"
+                + "}\n\n", message);
+        fieldNumbering.writeLockFile(lockFile);
+        assertTrue(Files.readString(lockFile.toPath()).endsWith("com.example.billing.Order.amount=1\ncom.example.shipping.Order.address=1\n"));
+    }
+
+    @Test
+    void takesOverLocksKeyedBySimpleNames() throws IOException {
+        File lockFile = tempDir.resolve("numbering.lock").toFile();
+        Files.writeString(lockFile.toPath(), "Order.a=2\nOrder.b=1\nRefund.c=1\n");
+        FieldNumbering fieldNumbering = FieldNumbering.load(lockFile, null, null);
+        fieldNumbering.migrateSimpleNames(Set.of("com.example.Order", "com.example.Invoice"));
+        String message = new ProtoGenerator(fieldNumbering).generateMessageWithNestedEnums(
+                parse("package com.example;\npublic class Order {\n    private String a;\n    private String b;\n}\n"), null);
+
+        assertEquals("message Order {\n"
+                + "  string a = 2;\n"
+                + "  string b = 1;\n"
+                + "}\n\n", message);
+        assertTrue(fieldNumbering.isChanged());
+        fieldNumbering.writeLockFile(lockFile);
+        assertTrue(Files.readString(lockFile.toPath()).endsWith("\nRefund.c=1\ncom.example.Order.b=1\ncom.example.Order.a=2\n"));
+    }
+
+    @Test
+    void failsToTakeOverLocksOfMessagesOfTheSameName() throws IOException {
+        File lockFile = tempDir.resolve("numbering.lock").toFile();
+        Files.writeString(lockFile.toPath(), "Order.a=1\n");
+        FieldNumbering fieldNumbering = FieldNumbering.load(lockFile, null, null);
+
+        GradleException e = assertThrows(GradleException.class,
+                () -> fieldNumbering.migrateSimpleNames(Set.of("com.example.billing.Order", "com.example.shipping.Order")));
+        assertTrue(e.getMessage().contains("com.example.billing.Order, com.example.shipping.Order"), e.getMessage());
+    }
+}
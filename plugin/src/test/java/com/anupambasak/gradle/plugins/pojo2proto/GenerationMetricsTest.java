@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.anupambasak.gradle.plugins.pojo2proto;
+
+import io.github.anupambasak.gradle.plugins.pojo2proto.GenerationMetrics;
+import io.github.anupambasak.gradle.plugins.pojo2proto.WriteStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenerationMetricsTest {
+
+    @Test
+    void excludesNestedPhasesFromTheirParent() throws InterruptedException {
+        GenerationMetrics metrics = new GenerationMetrics();
+        metrics.time(GenerationMetrics.Phase.GENERATE, () -> metrics.time(GenerationMetrics.Phase.WRITE, () -> Thread.sleep(50)));
+
+        assertTrue(metrics.getNanos(GenerationMetrics.Phase.WRITE) >= 50_000_000L);
+        assertTrue(metrics.getNanos(GenerationMetrics.Phase.GENERATE) < metrics.getNanos(GenerationMetrics.Phase.WRITE));
+    }
+
+    @Test
+    void keepsTheSlowestFiles() {
+        GenerationMetrics metrics = new GenerationMetrics();
+        for (int i = 1; i <= 12; i++) {
+            metrics.recordFile("File" + i + ".java", i);
+        }
+        GenerationMetrics other = new GenerationMetrics();
+        other.recordFile("Slow.java", 100);
+        metrics.add(other);
+
+        List<GenerationMetrics.FileTiming> slowestFiles = metrics.getSlowestFiles();
+        assertEquals(10, slowestFiles.size());
+        assertEquals("Slow.java", slowestFiles.get(0).getPath());
+        assertEquals("File12.java", slowestFiles.get(1).getPath());
+        assertEquals("File4.java", slowestFiles.get(9).getPath());
+    }
+
+    @Test
+    void writesJsonReport(@TempDir Path tempDir) throws IOException {
+        GenerationMetrics metrics = new GenerationMetrics();
+        metrics.recordSources(3);
+        metrics.recordFile("dir/\"Quoted\".java", 2_500_000L);
+        WriteStats stats = new WriteStats();
+        stats.recordWritten();
+        File report = tempDir.resolve("reports/metrics.json").toFile();
+
+        metrics.writeReport(report, 5_000_000L, stats);
+
+        String json = Files.readString(report.toPath(), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"durationMillis\": 5.000,"), json);
+        assertTrue(json.contains("\"sources\": 3,"), json);
+        assertTrue(json.contains("\"written\": 1,"), json);
+        assertTrue(json.contains("\"parse\": { \"millis\": 0.000, \"allocatedBytes\": 0 },"), json);
+        assertTrue(json.contains("{ \"path\": \"dir/\\\"Quoted\\\".java\", \"millis\": 2.500 }"), json);
+    }
+}
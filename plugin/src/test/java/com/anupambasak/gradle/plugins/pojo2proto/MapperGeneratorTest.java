@@ -0,0 +1,259 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.anupambasak.gradle.plugins.pojo2proto;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import io.github.anupambasak.gradle.plugins.pojo2proto.FieldEncodings;
+import io.github.anupambasak.gradle.plugins.pojo2proto.MapperGenerator;
+import io.github.anupambasak.gradle.plugins.pojo2proto.SourceSchema;
+import io.github.anupambasak.gradle.plugins.pojo2proto.SymbolTable;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapperGeneratorTest {
+
+    private final MapperGenerator mapperGenerator = new MapperGenerator();
+
+    private SymbolTable symbolTable() {
+        SymbolTable symbolTable = new SymbolTable();
+        symbolTable.add("com.example", "Address", SymbolTable.Kind.MESSAGE);
+        symbolTable.add("com.example", "Conts.b", SymbolTable.Kind.ENUM);
+        return symbolTable;
+    }
+
+    private SourceSchema parse(String fields) {
+        CompilationUnit cu = StaticJavaParser.parse("package com.example;\npublic class Person {\n" + fields + "}\n");
+        cu.setStorage(Paths.get("Person.java"));
+        return SourceSchema.of(cu);
+    }
+
+    private String generate(String fields) {
+        return mapperGenerator.generateMapper(parse(fields), symbolTable(), "com.example.proto");
+    }
+
+    @Test
+    void copiesFieldsThroughAccessors() {
+        String mapper = generate("    private int age;\n"
+                + "    private boolean isActive;\n"
+                + "    private String zip_code;\n"
+                + "    private List<String> names;\n");
+
+        assertTrue(mapper.startsWith("package com.example.proto;\n\npublic final class PersonMapper {\n"), mapper);
+        assertTrue(mapper.contains("        builder.setAge(pojo.getAge());\n"), mapper);
+        assertTrue(mapper.contains("        builder.setIsActive(pojo.isActive());\n"), mapper);
+        assertTrue(mapper.contains("            builder.setZipCode(pojo.getZip_code());\n"), mapper);
+        assertTrue(mapper.contains("            builder.addAllNames(pojo.getNames());\n"), mapper);
+        assertTrue(mapper.contains("        pojo.setActive(proto.getIsActive());\n"), mapper);
+        assertTrue(mapper.contains("        pojo.setNames(new java.util.ArrayList<>(proto.getNamesList()));\n"), mapper);
+    }
+
+    @Test
+    void fillsNestedBuildersInPlace() {
+        String mapper = generate("    private Address address;\n    private List<Instant> seen;\n");
+
+        assertTrue(mapper.contains("            AddressMapper.toProto(pojo.getAddress(), builder.getAddressBuilder());\n"), mapper);
+        assertTrue(mapper.contains("                instantToProto(value, builder.addSeenBuilder());\n"), mapper);
+        assertTrue(mapper.contains("        pojo.setAddress(proto.hasAddress() ? AddressMapper.fromProto(proto.getAddress()) : null);\n"), mapper);
+        assertTrue(mapper.contains("    static java.time.Instant instantFromProto(com.google.protobuf.Timestamp value) {\n"), mapper);
+    }
+
+    @Test
+    void convertsEnumsThroughALookupTable() {
+        String mapper = generate("    private Conts.b berthType;\n    private Object other;\n");
+
+        assertTrue(mapper.contains("    private static final com.example.Conts.b[] CONTS_B_VALUES = com.example.Conts.b.values();\n"), mapper);
+        assertTrue(mapper.contains("            builder.setBerthTypeValue(pojo.getBerthType().ordinal());\n"), mapper);
+        assertTrue(mapper.contains("        pojo.setBerthType(contsBFromProto(proto.getBerthTypeValue()));\n"), mapper);
+        assertTrue(mapper.contains("        return number >= 0 && number < CONTS_B_VALUES.length ? CONTS_B_VALUES[number] : null;\n"), mapper);
+        assertTrue(mapper.contains("        // other: Object is not mapped\n"), mapper);
+    }
+
+    @Test
+    void generatesLazyReadOnlyViews() {
+        String view = mapperGenerator.generateView(parse("    private String name;\n"
+                + "    private Address address;\n"
+                + "    private List<Conts.b> berths;\n"), symbolTable(), "com.example.proto");
+
+        assertTrue(view.startsWith("package com.example.proto;\n\npublic final class PersonView {\n"), view);
+        assertTrue(view.contains("    public String getName() {\n        return proto.getName();\n    }\n"), view);
+        assertTrue(view.contains("        if (addressView == null && proto.hasAddress()) {\n"
+                + "            addressView = new AddressView(proto.getAddress());\n"), view);
+        assertTrue(view.contains("                    return PersonMapper.contsBFromProto(proto.getBerthsValue(index));\n"), view);
+        assertTrue(view.contains("    public AddressView getAddress() {\n"), view);
+        assertFalse(view.contains("setName"), view);
+    }
+
+    @Test
+    void generatesStandaloneViewsOfFinalPojos() {
+        CompilationUnit cu = StaticJavaParser.parse("package com.example;\n"
+                + "public final class Person {\n"
+                + "    private final String name;\n"
+                + "    private List<Address> addresses;\n"
+                + "    private Map<String, Address> addressesByLabel;\n"
+                + "    private Address[] previous;\n"
+                + "\n"
+                + "    public Person(String name) {\n"
+                + "        this.name = name;\n"
+                + "    }\n"
+                + "}\n");
+        cu.setStorage(Paths.get("Person.java"));
+        String view = mapperGenerator.generateView(SourceSchema.of(cu), symbolTable(), "com.example.proto");
+
+        assertEquals("package com.example.proto;\n"
+                + "\n"
+                + "public final class PersonView {\n"
+                + "\n"
+                + "    private final Person proto;\n"
+                + "    private java.util.List<AddressView> addressesView;\n"
+                + "    private java.util.Map<String, AddressView> addressesByLabelView;\n"
+                + "    private AddressView[] previousView;\n"
+                + "\n"
+                + "    public PersonView(Person proto) {\n"
+                + "        this.proto = proto;\n"
+                + "    }\n"
+                + "\n"
+                + "    public String getName() {\n"
+                + "        return proto.getName();\n"
+                + "    }\n"
+                + "\n"
+                + "    public java.util.List<AddressView> getAddresses() {\n"
+                + "        if (addressesView == null) {\n"
+                + "            addressesView = new java.util.AbstractList<AddressView>() {\n"
+                + "                private final AddressView[] elements = new AddressView[proto.getAddressesCount()];\n"
+                + "\n"
+                + "                @Override\n"
+                + "                public AddressView get(int index) {\n"
+                + "                    if (elements[index] == null) {\n"
+                + "                        elements[index] = new AddressView(proto.getAddresses(index));\n"
+                + "                    }\n"
+                + "                    return elements[index];\n"
+                + "                }\n"
+                + "\n"
+                + "                @Override\n"
+                + "                public int size() {\n"
+                + "                    return elements.length;\n"
+                + "                }\n"
+                + "            };\n"
+                + "        }\n"
+                + "        return addressesView;\n"
+                + "    }\n"
+                + "\n"
+                + "    public java.util.Map<String, AddressView> getAddressesByLabel() {\n"
+                + "        if (addressesByLabelView == null) {\n"
+                + "            java.util.Map<String, AddressView> map = new java.util.HashMap<>((int) (proto.getAddressesByLabelCount() / 0.75f) + 1);\n"
+                + "            for (java.util.Map.Entry<String, Address> entry : proto.getAddressesByLabelMap().entrySet()) {\n"
+                + "                map.put(entry.getKey(), new AddressView(entry.getValue()));\n"
+                + "            }\n"
+                + "            addressesByLabelView = map;\n"
+                + "        }\n"
+                + "        return addressesByLabelView;\n"
+                + "    }\n"
+                + "\n"
+                + "    public AddressView[] getPrevious() {\n"
+                + "        if (previousView == null) {\n"
+                + "            AddressView[] values = new AddressView[proto.getPreviousCount()];\n"
+                + "            for (int i = 0; i < values.length; i++) {\n"
+                + "                values[i] = new AddressView(proto.getPrevious(i));\n"
+                + "            }\n"
+                + "            previousView = values;\n"
+                + "        }\n"
+                + "        return previousView;\n"
+                + "    }\n"
+                + "}\n", view);
+    }
+
+    @Test
+    void copiesArraysCollectionsAndOptionals() {
+        String mapper = generate("    private byte[] payload;\n"
+                + "    private long[] samples;\n"
+                + "    private Set<String> tags;\n"
+                + "    private Optional<Address> address;\n");
+
+        assertTrue(mapper.contains("            builder.setPayload(bytesToProto(pojo.getPayload()));\n"), mapper);
+        assertTrue(mapper.contains("            for (long value : pojo.getSamples()) {\n"), mapper);
+        assertTrue(mapper.contains("        long[] samplesArray = new long[proto.getSamplesCount()];\n"), mapper);
+        assertTrue(mapper.contains("        pojo.setTags(new java.util.LinkedHashSet<>(proto.getTagsList()));\n"), mapper);
+        assertTrue(mapper.contains("            AddressMapper.toProto(pojo.getAddress().get(), builder.getAddressBuilder());\n"), mapper);
+        assertTrue(mapper.contains("        pojo.setAddress(proto.hasAddress() ? java.util.Optional.ofNullable(AddressMapper.fromProto(proto.getAddress()))"
+                + " : java.util.Optional.empty());\n"), mapper);
+        assertTrue(mapper.contains("        return com.google.protobuf.UnsafeByteOperations.unsafeWrap(value);\n"), mapper);
+    }
+
+    @Test
+    void readsNullableFieldsThroughPresence() {
+        String mapper = generate("    private Integer age;\n    @Nullable private String nickname;\n    private String name;\n");
+
+        assertTrue(mapper.contains("        pojo.setAge(proto.hasAge() ? proto.getAge() : null);\n"), mapper);
+        assertTrue(mapper.contains("        pojo.setNickname(proto.hasNickname() ? proto.getNickname() : null);\n"), mapper);
+        assertTrue(mapper.contains("        pojo.setName(proto.getName());\n"), mapper);
+    }
+
+    @Test
+    void readsNullableUuidPairsThroughPresence() {
+        MapperGenerator generator = new MapperGenerator(new FieldEncodings(Map.of(), null, false, "fixed64", FieldEncodings.DEFAULT_TIMESTAMP_ENCODING));
+        String mapper = generator.generateMapper(parse("    @Nullable private UUID id;\n    private UUID traceId;\n"), symbolTable(), "com.example.proto");
+
+        assertTrue(mapper.contains("        pojo.setId(proto.hasIdMsb() ? new java.util.UUID(proto.getIdMsb(), proto.getIdLsb()) : null);\n"), mapper);
+        assertTrue(mapper.contains("        pojo.setTraceId(proto.getTraceIdMsb() == 0 && proto.getTraceIdLsb() == 0 ? null"), mapper);
+    }
+
+    @Test
+    void convertsDecimalsWithALongFastPath() {
+        String mapper = generate("    private BigDecimal price;\n");
+
+        assertTrue(mapper.contains("            bigDecimalToProto(pojo.getPrice(), builder.getPriceBuilder());\n"), mapper);
+        assertTrue(mapper.contains("    static java.math.BigDecimal bigDecimalFromProto(com.example.proto.pojo2proto.Decimal value) {\n"), mapper);
+        assertTrue(mapper.contains("        pojo.setPrice(proto.hasPrice() ? bigDecimalFromProto(proto.getPrice()) : null);\n"), mapper);
+        assertTrue(mapper.contains("        if (unscaled.bitLength() < 64) {\n"
+                + "            return builder.setUnscaledLong(unscaled.longValue());\n"
+                + "        }\n"), mapper);
+        assertTrue(mapper.contains("            return java.math.BigDecimal.valueOf(value.getUnscaledLong(), value.getScale());\n"), mapper);
+    }
+
+    @Test
+    void dispatchesPolymorphicTypesOnTheirSubtype() {
+        SymbolTable symbolTable = symbolTable();
+        symbolTable.add("com.example", "Shape", SymbolTable.Kind.MESSAGE, true);
+        symbolTable.add("com.example", "Circle", SymbolTable.Kind.MESSAGE);
+        CompilationUnit cu = new JavaParser(new ParserConfiguration().setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17))
+                .parse("package com.example;\npublic sealed interface Shape permits Circle, Address {\n}\n").getResult().orElseThrow();
+        cu.setStorage(Paths.get("Shape.java"));
+
+        String mapper = mapperGenerator.generateMapper(SourceSchema.of(cu), symbolTable, "com.example.proto");
+        String view = mapperGenerator.generateView(parse("    private Shape shape;\n"), symbolTable, "com.example.proto");
+
+        assertTrue(mapper.contains("        if (pojo instanceof com.example.Circle) {\n"
+                + "            CircleMapper.toProto((com.example.Circle) pojo, builder.getCircleBuilder());\n"
+                + "        } else if (pojo instanceof com.example.Address) {\n"
+                + "            AddressMapper.toProto((com.example.Address) pojo, builder.getAddressBuilder());\n"
+                + "        } else {\n"
+                + "            builder.clearSubtype();\n"
+                + "        }\n"), mapper);
+        assertTrue(mapper.contains("        if (proto.hasAddress()) {\n"
+                + "            return AddressMapper.fromProto(proto.getAddress());\n"
+                + "        }\n"
+                + "        return null;\n"), mapper);
+        assertTrue(view.contains("        return proto.hasShape() ? ShapeMapper.fromProto(proto.getShape()) : null;\n"), view);
+    }
+}
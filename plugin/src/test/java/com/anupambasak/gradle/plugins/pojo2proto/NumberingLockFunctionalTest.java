@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.anupambasak.gradle.plugins.pojo2proto;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.anupambasak.gradle.plugins.pojo2proto.TestProjects.runner;
+import static com.anupambasak.gradle.plugins.pojo2proto.TestProjects.write;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumberingLockFunctionalTest {
+
+    @TempDir
+    Path projectDir;
+
+    @Test
+    void updatesTheCheckedInLockOnlyOnRequest() throws IOException {
+        write(projectDir, "settings.gradle", "rootProject.name = 'users'\n"
+                + "buildCache {\n"
+                + "    local {\n"
+                + "        directory = file('build-cache')\n"
+                + "    }\n"
+                + "}\n");
+        write(projectDir, "build.gradle", "plugins {\n"
+                + "    id 'base'\n"
+                + "    id 'io.github.anupambasak.gradle-pojo-to-proto'\n"
+                + "}\n"
+                + "\n"
+                + "group = 'com.example'\n"
+                + "\n"
+                + "pojoToProto {\n"
+                + "    source.from(layout.projectDirectory.dir('src/main/java'))\n"
+                + "    destination = layout.buildDirectory.dir('generated/proto')\n"
+                + "    numberingLockFile = layout.projectDirectory.file('proto-numbering.lock')\n"
+                + "}\n");
+        write(projectDir, "src/main/java/com/example/User.java", "package com.example;\n"
+                + "\n"
+                + "public class User {\n"
+                + "    private String name;\n"
+                + "    private int age;\n"
+                + "}\n");
+        Path lockFile = projectDir.resolve("proto-numbering.lock");
+
+        BuildResult first = runner(projectDir, "pojoToProto", "--build-cache").build();
+
+        assertEquals(TaskOutcome.SUCCESS, first.task(":pojoToProto").getOutcome());
+        assertFalse(Files.exists(lockFile));
+        assertTrue(first.getOutput().contains("run updateNumberingLock"), first.getOutput());
+        assertEquals(TaskOutcome.UP_TO_DATE, runner(projectDir, "pojoToProto", "--build-cache").build().task(":pojoToProto").getOutcome());
+
+        runner(projectDir, "updateNumberingLock", "--build-cache").build();
+
+        assertTrue(Files.readString(lockFile).endsWith("com.example.User.name=1\ncom.example.User.age=2\n"));
+        BuildResult locked = runner(projectDir, "pojoToProto", "--build-cache").build();
+        assertEquals(TaskOutcome.SUCCESS, locked.task(":pojoToProto").getOutcome());
+        assertFalse(locked.getOutput().contains("run updateNumberingLock"), locked.getOutput());
+
+        // The lock written by the task is an output, so it comes back with the protos
+        write(projectDir, "src/main/java/com/example/User.java", "package com.example;\n"
+                + "\n"
+                + "public class User {\n"
+                + "    private int age;\n"
+                + "    private String email;\n"
+                + "}\n");
+        runner(projectDir, "pojoToProto", "--build-cache").build();
+        runner(projectDir, "clean", "--build-cache").build();
+        BuildResult cached = runner(projectDir, "updateNumberingLock", "--build-cache").build();
+
+        assertEquals(TaskOutcome.FROM_CACHE, cached.task(":pojoToProto").getOutcome());
+        assertTrue(Files.readString(lockFile).endsWith("com.example.User.name=1\ncom.example.User.age=2\ncom.example.User.email=3\n"));
+        assertTrue(Files.readString(projectDir.resolve("build/generated/proto/User.proto")).contains("  reserved 1;\n"));
+    }
+}
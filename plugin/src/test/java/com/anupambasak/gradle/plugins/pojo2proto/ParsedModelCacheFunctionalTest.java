@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.anupambasak.gradle.plugins.pojo2proto;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static com.anupambasak.gradle.plugins.pojo2proto.TestProjects.runner;
+import static com.anupambasak.gradle.plugins.pojo2proto.TestProjects.write;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParsedModelCacheFunctionalTest {
+
+    @TempDir
+    Path projectDir;
+
+    private void assertStatistics(String expected, String... arguments) {
+        BuildResult result = runner(projectDir, arguments).build();
+        String statistics = Arrays.stream(result.getOutput().split("\n")).filter(line -> line.startsWith("Parsed model cache: "))
+                .findFirst().orElse(result.getOutput());
+        assertTrue(statistics.startsWith("Parsed model cache: " + expected + ", "), statistics);
+    }
+
+    @Test
+    void reusesModelsAcrossBuilds() throws IOException {
+        write(projectDir, "settings.gradle", "rootProject.name = 'users'\n");
+        write(projectDir, "build.gradle", "plugins {\n"
+                + "    id 'io.github.anupambasak.gradle-pojo-to-proto'\n"
+                + "}\n"
+                + "\n"
+                + "group = 'com.example'\n"
+                + "\n"
+                + "pojoToProto {\n"
+                + "    source.from(layout.projectDirectory.dir('src/main/java'))\n"
+                + "    destination = layout.buildDirectory.dir('generated/proto')\n"
+                + "    parallel = providers.gradleProperty('workers').isPresent()\n"
+                + "}\n");
+        write(projectDir, "src/main/java/com/example/User.java", "package com.example;\n"
+                + "\n"
+                + "public class User {\n"
+                + "    private String name;\n"
+                + "    private Address address;\n"
+                + "}\n");
+        write(projectDir, "src/main/java/com/example/Address.java", "package com.example;\n"
+                + "\n"
+                + "public class Address {\n"
+                + "    private String city;\n"
+                + "}\n");
+
+        assertStatistics("0 hits, 2 misses", "pojoToProto", "--info");
+        // A non-incremental run takes the symbols and models of both sources from the cache
+        assertStatistics("2 hits, 0 misses", "pojoToProto", "--info", "--rerun-tasks");
+
+        // New symbols of Address regenerate User, whose model is still cached
+        write(projectDir, "src/main/java/com/example/Address.java", "package com.example;\n"
+                + "\n"
+                + "public class Address {\n"
+                + "    private String city;\n"
+                + "    private Kind kind;\n"
+                + "\n"
+                + "    public enum Kind { HOME, WORK }\n"
+                + "}\n");
+        assertStatistics("1 hits, 1 misses", "pojoToProto", "--info");
+
+        // Workers without isolation share the models; the scan and the generation each look them up
+        assertStatistics("4 hits, 0 misses", "pojoToProto", "--info", "--rerun-tasks", "-Pworkers");
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.anupambasak.gradle.plugins.pojo2proto;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import io.github.anupambasak.gradle.plugins.pojo2proto.PolymorphicTypes;
+import io.github.anupambasak.gradle.plugins.pojo2proto.ProtoGenerator;
+import io.github.anupambasak.gradle.plugins.pojo2proto.SourceSchema;
+import io.github.anupambasak.gradle.plugins.pojo2proto.SymbolTable;
+import org.gradle.api.GradleException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProtoGeneratorTest {
+
+    private final ProtoGenerator protoGenerator = new ProtoGenerator();
+
+    private SymbolTable symbolTable() {
+        SymbolTable symbolTable = new SymbolTable();
+        symbolTable.add("com.example", "Address", SymbolTable.Kind.MESSAGE);
+        symbolTable.add("com.example", "Conts", SymbolTable.Kind.MESSAGE);
+        symbolTable.add("com.example", "Conts.b", SymbolTable.Kind.ENUM);
+        symbolTable.add("com.example", "TestEnum", SymbolTable.Kind.ENUM);
+        return symbolTable;
+    }
+
+    private SourceSchema parse(String source) {
+        CompilationUnit cu = StaticJavaParser.parse(source);
+        cu.setStorage(Paths.get("Sample.java"));
+        return SourceSchema.of(cu);
+    }
+
+    @Test
+    void mapsNestedGenerics() {
+        SourceSchema schema = parse("package com.example;\n"
+                + "public class Sample {\n"
+                + "    private Map<String, Long> totals;\n"
+                + "    private Map<String, Address> addressesByCity;\n"
+                + "    private java.util.List<TestEnum> values;\n"
+                + "}\n");
+
+        String message = protoGenerator.generateMessageWithNestedEnums(schema, symbolTable());
+
+        assertTrue(message.contains("  map<string, int64> totals = 1;"), message);
+        assertTrue(message.contains("  map<string, Address> addressesByCity = 2;"), message);
+        assertTrue(message.contains("  repeated TestEnum values = 3;"), message);
+        assertEquals(Set.of("Address.proto", "TestEnum.proto"), protoGenerator.getImports(schema, symbolTable()));
+    }
+
+    @Test
+    void rejectsNestedRepeatedOptionalAndMapValues() {
+        for (String type : List.of("List<Optional<String>>", "Optional<List<String>>", "Map<String, List<Long>>", "Map<String, Optional<Long>>",
+                "Map<String, Map<String, Long>>", "int[][]", "List<List<Address>>", "List<Map<String, Long>>", "List<OptionalInt>")) {
+            SourceSchema schema = parse("package com.example;\npublic class Sample {\n    private " + type + " nested;\n}\n");
+
+            GradleException e = assertThrows(GradleException.class, () -> protoGenerator.generateMessageWithNestedEnums(schema, symbolTable()));
+            assertTrue(e.getMessage().startsWith("Field Sample.nested of type "), e.getMessage());
+        }
+        SourceSchema bytes = parse("package com.example;\npublic class Sample {\n    private List<byte[]> chunks;\n    private Optional<byte[]> data;\n}\n");
+        assertEquals("message Sample {\n  repeated bytes chunks = 1;\n  optional bytes data = 2;\n}\n\n",
+                protoGenerator.generateMessageWithNestedEnums(bytes, symbolTable()));
+    }
+
+    @Test
+    void importsNestedEnumsFromTheirTopLevelType() {
+        SourceSchema schema = parse("package com.example;\n"
+                + "public class Sample {\n"
+                + "    private Conts.b berthType;\n"
+                + "    private Map<Conts.b, Instant> seen;\n"
+                + "}\n");
+
+        String message = protoGenerator.generateMessageWithNestedEnums(schema, symbolTable());
+
+        assertTrue(message.contains("  Conts.b berthType = 1;"), message);
+        assertTrue(message.contains("  map<Conts.b, google.protobuf.Timestamp> seen = 2;"), message);
+        assertEquals(Set.of("Conts.proto", "google/protobuf/timestamp.proto"), protoGenerator.getImports(schema, symbolTable()));
+    }
+
+    @Test
+    void mapsArraysBinaryPayloadsAndOptionals() {
+        SourceSchema schema = parse("package com.example;\n"
+                + "public class Sample {\n"
+                + "    private byte[] payload;\n"
+                + "    private java.nio.ByteBuffer buffer;\n"
+                + "    private int[] samples;\n"
+                + "    private Set<Address> addresses;\n"
+                + "    private Collection<TestEnum> values;\n"
+                + "    private Optional<Instant> seen;\n"
+                + "    private OptionalLong count;\n"
+                + "}\n");
+
+        String message = protoGenerator.generateMessageWithNestedEnums(schema, symbolTable());
+
+        assertEquals("message Sample {\n"
+                + "  bytes payload = 1;\n"
+                + "  bytes buffer = 2;\n"
+                + "  repeated int32 samples = 3;\n"
+                + "  repeated Address addresses = 4;\n"
+                + "  repeated TestEnum values = 5;\n"
+                + "  optional google.protobuf.Timestamp seen = 6;\n"
+                + "  optional int64 count = 7;\n"
+                + "}\n\n", message);
+        assertEquals(Set.of("Address.proto", "TestEnum.proto", "google/protobuf/timestamp.proto"), protoGenerator.getImports(schema, symbolTable()));
+    }
+
+    @Test
+    void tracksPresenceOfBoxedAndNullableFields() {
+        SourceSchema schema = parse("package com.example;\n"
+                + "public class Sample {\n"
+                + "    private int count;\n"
+                + "    private Long total;\n"
+                + "    @Nullable private String note;\n"
+                + "    @Nullable private TestEnum state;\n"
+                + "    @Nullable private Address address;\n"
+                + "    private String name;\n"
+                + "}\n");
+
+        assertEquals("message Sample {\n"
+                + "  int32 count = 1;\n"
+                + "  optional int64 total = 2;\n"
+                + "  optional string note = 3;\n"
+                + "  optional TestEnum state = 4;\n"
+                + "  Address address = 5;\n"
+                + "  string name = 6;\n"
+                + "}\n\n", protoGenerator.generateMessageWithNestedEnums(schema, symbolTable()));
+    }
+
+    @Test
+    void keepsTheSharedDecimalApartFromASourceTypeOfTheSameName() {
+        SymbolTable symbolTable = symbolTable();
+        symbolTable.add("com.example", "Decimal", SymbolTable.Kind.MESSAGE);
+        SourceSchema schema = parse("package com.example;\n"
+                + "public class Sample {\n"
+                + "    private BigDecimal price;\n"
+                + "    private Decimal decimal;\n"
+                + "}\n");
+
+        assertEquals("message Sample {\n"
+                + "  pojo2proto.Decimal price = 1;\n"
+                + "  Decimal decimal = 2;\n"
+                + "}\n\n", protoGenerator.generateMessageWithNestedEnums(schema, symbolTable));
+        assertEquals(Set.of("Decimal.proto", "pojo2proto/Decimal.proto"), protoGenerator.getImports(schema, symbolTable));
+        assertEquals("com.example.pojo2proto", ProtoGenerator.getSharedPackage("com.example"));
+    }
+
+    @Test
+    void generatesAOneofOverSealedAndConfiguredSubtypes() {
+        CompilationUnit cu = new JavaParser(new ParserConfiguration().setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17))
+                .parse("package com.example;\npublic sealed interface Sample permits Address, Conts {\n}\n").getResult().orElseThrow();
+        cu.setStorage(Paths.get("Sample.java"));
+        SourceSchema sealed = SourceSchema.of(cu);
+        SourceSchema configured = new PolymorphicTypes(Map.of("Sample", List.of("Address")))
+                .apply(parse("package com.example;\npublic abstract class Sample {\n    private String name;\n}\n"));
+
+        assertEquals("message Sample {\n"
+                + "  oneof subtype {\n"
+                + "    Address address = 1;\n"
+                + "    Conts conts = 2;\n"
+                + "  }\n"
+                + "}\n\n", protoGenerator.generateMessageWithNestedEnums(sealed, symbolTable()));
+        assertEquals(Set.of("Address.proto", "Conts.proto"), protoGenerator.getImports(sealed, symbolTable()));
+        assertTrue(protoGenerator.generateMessageWithNestedEnums(configured, symbolTable()).contains("  oneof subtype {\n    Address address = 1;\n  }\n"));
+    }
+}
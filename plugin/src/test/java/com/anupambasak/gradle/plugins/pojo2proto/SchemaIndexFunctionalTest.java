@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.anupambasak.gradle.plugins.pojo2proto;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.anupambasak.gradle.plugins.pojo2proto.TestProjects.runner;
+import static com.anupambasak.gradle.plugins.pojo2proto.TestProjects.write;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaIndexFunctionalTest {
+
+    @TempDir
+    Path projectDir;
+
+    private void writeBuild(String project, String packageName, String dependencies) throws IOException {
+        write(projectDir, project + "/build.gradle", "plugins {\n"
+                + "    id 'io.github.anupambasak.gradle-pojo-to-proto'\n"
+                + "}\n"
+                + "\n"
+                + dependencies
+                + "pojoToProto {\n"
+                + "    source.from(layout.projectDirectory.dir('src/main/java'))\n"
+                + "    destination = layout.buildDirectory.dir('generated/proto')\n"
+                + "    packageName = '" + packageName + "'\n"
+                + "}\n");
+    }
+
+    @Test
+    void resolvesTypesOfOtherProjectsFromTheirIndex() throws IOException {
+        write(projectDir, "settings.gradle", "rootProject.name = 'shop'\n"
+                + "include('common', 'orders')\n");
+        writeBuild("common", "com.example.common.proto", "");
+        write(projectDir, "common/src/main/java/com/example/common/Address.java", "package com.example.common;\n"
+                + "\n"
+                + "public class Address {\n"
+                + "    private String street;\n"
+                + "    public enum Kind { HOME, WORK }\n"
+                + "    private Kind kind;\n"
+                + "}\n");
+        writeBuild("orders", "com.example.orders.proto", "dependencies {\n"
+                + "    pojoToProtoSchemas project(':common')\n"
+                + "}\n"
+                + "\n");
+        write(projectDir, "orders/src/main/java/com/example/orders/Order.java", "package com.example.orders;\n"
+                + "\n"
+                + "import com.example.common.Address;\n"
+                + "\n"
+                + "public class Order {\n"
+                + "    private Address shippingAddress;\n"
+                + "    private java.util.List<Address.Kind> kinds;\n"
+                + "}\n");
+
+        BuildResult result = runner(projectDir, ":orders:pojoToProto", "--configuration-cache").build();
+
+        assertEquals(TaskOutcome.SUCCESS, result.task(":common:pojoToProto").getOutcome());
+        assertEquals(TaskOutcome.SUCCESS, result.task(":orders:pojoToProto").getOutcome());
+        assertFalse(Files.exists(projectDir.resolve("orders/build/generated/proto/Address.proto")));
+        assertEquals("syntax = \"proto3\";\n"
+                + "\n"
+                + "package com.example.orders.proto;\n"
+                + "\n"
+                + "option java_package = \"com.example.orders.proto\";\n"
+                + "option java_multiple_files = true;\n"
+                + "\n"
+                + "import \"Address.proto\";\n"
+                + "\n"
+                + "message Order {\n"
+                + "  .com.example.common.proto.Address shippingAddress = 1;\n"
+                + "  repeated .com.example.common.proto.Address.Kind kinds = 2;\n"
+                + "}\n"
+                + "\n", Files.readString(projectDir.resolve("orders/build/generated/proto/Order.proto")));
+    }
+}
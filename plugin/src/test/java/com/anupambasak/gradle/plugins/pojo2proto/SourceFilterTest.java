@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.anupambasak.gradle.plugins.pojo2proto;
+
+import io.github.anupambasak.gradle.plugins.pojo2proto.SourceFilter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceFilterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private File write(String name, String source) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.writeString(file, source);
+        return file.toFile();
+    }
+
+    @Test
+    void matchesAntStylePatterns() {
+        SourceFilter filter = new SourceFilter(List.of("**/dto/**", "Root*.java"), List.of("**/*Test.java"), null, null);
+
+        assertTrue(filter.isEnabled());
+        assertTrue(filter.matchesPath("com/example/dto/Person.java"));
+        assertTrue(filter.matchesPath("dto/Person.java"));
+        assertTrue(filter.matchesPath("RootPojo.java"));
+        assertFalse(filter.matchesPath("com/example/RootPojo.java"));
+        assertFalse(filter.matchesPath("com/example/service/PersonService.java"));
+        assertFalse(filter.matchesPath("com/example/dto/PersonTest.java"));
+        assertFalse(new SourceFilter(null, null, null, null).isEnabled());
+    }
+
+    @Test
+    void selectsSourcesByMarkerAnnotation() throws IOException {
+        SourceFilter filter = new SourceFilter(null, null, null, "com.example.ProtoMessage");
+
+        assertTrue(filter.accepts(write("A.java", "@ProtoMessage\npublic class A { }\n"), "A.java"));
+        assertTrue(filter.accepts(write("B.java", "@ com.example.ProtoMessage(name = \"b\") public class B { }\n"), "B.java"));
+        assertFalse(filter.accepts(write("C.java", "@ProtoMessages public class C { }\n"), "C.java"));
+        assertFalse(filter.accepts(write("D.java", "public class D { String ProtoMessage; }\n"), "D.java"));
+        String large = "public class E {\n" + "    private String field;\n".repeat(4000) + "    @ProtoMessage enum Kind { A }\n}\n";
+        assertTrue(filter.accepts(write("E.java", large), "E.java"));
+    }
+
+    @Test
+    void selectsSourcesByPackage() throws IOException {
+        SourceFilter filter = new SourceFilter(null, null, List.of("com.example.dto"), null);
+
+        assertTrue(filter.accepts(write("A.java", "/* package com.example.service; */\n// header\npackage com.example.dto;\nclass A { }\n"), "A.java"));
+        assertTrue(filter.accepts(write("B.java", "package com.example.dto.v1 ;\nclass B { }\n"), "B.java"));
+        assertFalse(filter.accepts(write("C.java", "package com.example.dtos;\nclass C { }\n"), "C.java"));
+        assertFalse(filter.accepts(write("D.java", "class D { String s = \"package com.example.dto;\"; }\n"), "D.java"));
+    }
+}
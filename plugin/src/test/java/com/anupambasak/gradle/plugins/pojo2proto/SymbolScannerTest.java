@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.anupambasak.gradle.plugins.pojo2proto;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import io.github.anupambasak.gradle.plugins.pojo2proto.DependencyGraph;
+import io.github.anupambasak.gradle.plugins.pojo2proto.ProtoFileGenerator;
+import io.github.anupambasak.gradle.plugins.pojo2proto.SourceSchema;
+import io.github.anupambasak.gradle.plugins.pojo2proto.SymbolScanner;
+import org.gradle.api.logging.Logging;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolScannerTest {
+
+    private final SymbolScanner scanner = new SymbolScanner(Logging.getLogger(SymbolScannerTest.class));
+
+    @Test
+    void matchesTheAstScan() {
+        String source = "package com.example.dto;\n"
+                + "/* class Commented { enum Hidden {} } */\n"
+                + "public class Order {\n"
+                + "    private String text = \"{ enum NotAnEnum }\";\n"
+                + "    private char brace = '}';\n"
+                + "    private String block = \"\"\"\n"
+                + "            class Quoted { }\n"
+                + "            \"\"\";\n"
+                + "    private Class<?> type = Order.class;\n"
+                + "    public enum Status { NEW, SHIPPED { void ship() { } } }\n"
+                + "    static class Line {\n"
+                + "        enum Unit { PIECE, KILOGRAM }\n"
+                + "        record Amount(@Deprecated long value) { enum Currency { EUR } }\n"
+                + "    }\n"
+                + "    void process() {\n"
+                + "        Runnable r = new Runnable() { public void run() { } };\n"
+                + "        String record = \"x\";\n"
+                + "    }\n"
+                + "}\n"
+                + "enum Priority { LOW, HIGH }\n"
+                + "@interface Marker { }\n";
+        JavaParser javaParser = new JavaParser(new ParserConfiguration().setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17));
+        CompilationUnit cu = javaParser.parse(source).getResult().orElseThrow();
+        cu.setStorage(Paths.get("Order.java"));
+        DependencyGraph.SourceEntry expected = new ProtoFileGenerator(Logging.getLogger(SymbolScannerTest.class), null, null).scan(SourceSchema.of(cu));
+
+        DependencyGraph.SourceEntry entry = scanner.scan(source, "Order");
+
+        assertTrue(expected.declaresSameSymbols(entry));
+        assertEquals("com.example.dto", entry.getPackageName());
+        assertEquals(Set.of("Order", "Priority"), entry.getTypes());
+        assertEquals(Set.of("Order"), entry.getMessages());
+        assertEquals(Set.of("Order.Status", "Order.Line.Unit", "Order.Line.Amount.Currency", "Priority"), entry.getEnums());
+    }
+
+    @Test
+    void findsSealedMessages() {
+        String source = "package com.example;\n"
+                + "public sealed interface Shape permits Shape.Circle, Square {\n"
+                + "    final class Circle implements Shape { }\n"
+                + "}\n";
+        JavaParser javaParser = new JavaParser(new ParserConfiguration().setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17));
+        CompilationUnit cu = javaParser.parse(source).getResult().orElseThrow();
+        cu.setStorage(Paths.get("Shape.java"));
+        DependencyGraph.SourceEntry expected = new ProtoFileGenerator(Logging.getLogger(SymbolScannerTest.class), null, null).scan(SourceSchema.of(cu));
+
+        DependencyGraph.SourceEntry entry = scanner.scan(source, "Shape");
+
+        assertTrue(expected.declaresSameSymbols(entry));
+        assertEquals(Set.of("Shape"), entry.getPolymorphicMessages());
+    }
+
+    @Test
+    void ignoresPrimaryTypesThatAreNotMessages() {
+        DependencyGraph.SourceEntry entry = scanner.scan("public @interface Marker { }\n", "Marker");
+
+        assertEquals(Set.of("Marker"), entry.getTypes());
+        assertTrue(entry.getMessages().isEmpty());
+        assertEquals("", entry.getPackageName());
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 the project's contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.anupambasak.gradle.plugins.pojo2proto;
+
+import io.github.anupambasak.gradle.plugins.pojo2proto.SymbolTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolTableTest {
+
+    private SymbolTable symbolTable() {
+        SymbolTable symbolTable = new SymbolTable();
+        symbolTable.add("io.github.anupambasak.gradle.testenums", "Conts", SymbolTable.Kind.MESSAGE);
+        symbolTable.add("io.github.anupambasak.gradle.testenums", "Conts.b", SymbolTable.Kind.ENUM);
+        symbolTable.add("io.github.anupambasak.gradle.testenums", "TestEnum", SymbolTable.Kind.ENUM);
+        symbolTable.add("io.github.anupambasak.gradle.dtos", "Address", SymbolTable.Kind.MESSAGE);
+        return symbolTable;
+    }
+
+    @Test
+    void resolvesBySimpleNestedAndQualifiedName() {
+        SymbolTable symbolTable = symbolTable();
+
+        assertTrue(symbolTable.isEnum("TestEnum"));
+        assertTrue(symbolTable.isEnum("Conts.b"));
+        assertTrue(symbolTable.isEnum("b"));
+        assertTrue(symbolTable.isEnum("testenums.Conts.b"));
+        assertTrue(symbolTable.isEnum("io.github.anupambasak.gradle.testenums.TestEnum"));
+        assertFalse(symbolTable.isEnum("Address"));
+        assertFalse(symbolTable.isEnum("String"));
+
+        assertEquals("Conts", symbolTable.resolve("Conts.b").getTopLevelName());
+        assertEquals(SymbolTable.Kind.MESSAGE, symbolTable.resolve("io.github.anupambasak.gradle.dtos.Address").getKind());
+        assertNull(symbolTable.resolve("Unknown"));
+    }
+
+    @Test
+    void reportsAmbiguousSimpleNames() {
+        SymbolTable symbolTable = symbolTable();
+        symbolTable.add("com.example.other", "Address", SymbolTable.Kind.ENUM);
+
+        assertEquals(Set.of("io.github.anupambasak.gradle.dtos.Address", "com.example.other.Address"),
+                symbolTable.getAmbiguousNames().get("Address"));
+        assertNull(symbolTable.resolve("Address"));
+        assertTrue(symbolTable.isEnum("com.example.other.Address"));
+        assertFalse(symbolTable.isEnum("io.github.anupambasak.gradle.dtos.Address"));
+    }
+}
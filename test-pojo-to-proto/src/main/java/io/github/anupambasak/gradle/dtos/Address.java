@@ -18,8 +18,9 @@ package io.github.anupambasak.gradle.dtos;
 
 import lombok.Data;
 
+// Final, which mappers and views must support
 @Data
-public class Address {
+public final class Address {
     private String street;
     private String city;
     private int zipCode;
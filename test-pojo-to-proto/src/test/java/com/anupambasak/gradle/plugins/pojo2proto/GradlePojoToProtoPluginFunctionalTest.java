@@ -332,5 +332,63 @@ class GradlePojoToProtoPluginFunctionalTest {
         assertEquals(mapPojo.getComplexMap().get("home").getStreet(), mapProto.getComplexMapMap().get("home").getStreet());
     }
 
+    @Test
+    void verifyGeneratedMappersRoundTrip() {
+        Address addressPojo = new Address();
+        addressPojo.setStreet("789 Pine Rd");
+        addressPojo.setCity("Smalltown");
+        addressPojo.setZipCode(11111);
+
+        PersonPojo personPojo = new PersonPojo();
+        personPojo.setName("Jane Doe");
+        personPojo.setAge(41);
+        personPojo.setAddress(addressPojo);
+        personPojo.setPreviousAddresses(Collections.singletonList(addressPojo));
+        personPojo.setCreatedAt(Instant.ofEpochSecond(1700000000L, 123));
+        personPojo.setDob(LocalDateTime.of(1985, 6, 15, 8, 30));
+
+        com.anupambasak.gradle.proto.PersonPojo personProto = com.anupambasak.gradle.proto.PersonPojoMapper.toProto(personPojo);
+        assertEquals("Jane Doe", personProto.getName());
+        assertEquals("Smalltown", personProto.getAddress().getCity());
+        assertEquals(1, personProto.getPreviousAddressesCount());
+        assertEquals(123, personProto.getCreatedAt().getNanos());
+        assertEquals(personPojo, com.anupambasak.gradle.proto.PersonPojoMapper.fromProto(personProto));
+
+        EnumPojo enumPojo = new EnumPojo();
+        enumPojo.setTestEnum(TestEnum.VALUE3);
+        enumPojo.setBerthType(Conts.b.o);
+        com.anupambasak.gradle.proto.EnumPojo enumProto = com.anupambasak.gradle.proto.EnumPojoMapper.toProto(enumPojo);
+        assertEquals(com.anupambasak.gradle.proto.TestEnum.VALUE3, enumProto.getTestEnum());
+        assertEquals(com.anupambasak.gradle.proto.Conts.b.o, enumProto.getBerthType());
+        EnumPojo enumCopy = com.anupambasak.gradle.proto.EnumPojoMapper.fromProto(enumProto);
+        assertEquals(TestEnum.VALUE3, enumCopy.getTestEnum());
+        assertEquals(Conts.b.o, enumCopy.getBerthType());
+    }
+
+    @Test
+    void verifyGeneratedViewsReadFromTheMessage() {
+        com.anupambasak.gradle.proto.Address addressProto = com.anupambasak.gradle.proto.Address.newBuilder()
+                .setStreet("1 Elm St")
+                .setCity("Bigtown")
+                .setZipCode(22222)
+                .build();
+        com.anupambasak.gradle.proto.PersonPojo personProto = com.anupambasak.gradle.proto.PersonPojo.newBuilder()
+                .setName("Ann Lee")
+                .setAge(29)
+                .setAddress(addressProto)
+                .addPreviousAddresses(addressProto)
+                .build();
+
+        com.anupambasak.gradle.proto.PersonPojoView view = new com.anupambasak.gradle.proto.PersonPojoView(personProto);
+        assertEquals("Ann Lee", view.getName());
+        assertEquals(29, view.getAge());
+        assertEquals("Bigtown", view.getAddress().getCity());
+        assertSame(view.getAddress(), view.getAddress());
+        assertEquals(1, view.getPreviousAddresses().size());
+        assertEquals(22222, view.getPreviousAddresses().get(0).getZipCode());
+        assertNull(view.getCreatedAt());
+        assertEquals("1 Elm St", view.getAddress().getStreet());
+    }
+
 }
 